@@ -16,6 +16,29 @@ public final class Constants {
 	
 	public static final String SUPPORTED_HTTP_VERSION = "HTTP/1.1";
 
+	public static final String BLOCKING_CONNECTOR = "blocking";
+
+	public static final String NIO_CONNECTOR = "nio";
+
+	public static final List<String> SUPPORTED_CONNECTORS = Collections
+			.unmodifiableList(Arrays.asList(BLOCKING_CONNECTOR, NIO_CONNECTOR));
+
+	public static final String PLATFORM_THREAD_MODE = "platform";
+
+	public static final String VIRTUAL_THREAD_MODE = "virtual";
+
+	public static final List<String> SUPPORTED_THREAD_MODES = Collections
+			.unmodifiableList(Arrays.asList(PLATFORM_THREAD_MODE, VIRTUAL_THREAD_MODE));
+
+	public static final String STRONG_ETAG = "strong";
+
+	public static final String WEAK_ETAG = "weak";
+
+	public static final String CONTENT_ETAG = "content";
+
+	public static final List<String> SUPPORTED_ETAG_MODES = Collections
+			.unmodifiableList(Arrays.asList(STRONG_ETAG, WEAK_ETAG, CONTENT_ETAG));
+
 	private Constants() {
 	}
 
@@ -23,6 +23,16 @@ public final class HandlerConfig {
 		return this;
 	}
 
+	public HandlerConfig addHandler(String method, String url, HttpHandler httpHandler) {
+		Objects.requireNonNull(method);
+		Objects.requireNonNull(url);
+		if (!Constants.ALLOWED_METHODS.contains(method)) {
+			throw new HttpServerConfigException(
+					"Http handler method should be one of " + Constants.ALLOWED_METHODS + ", but was " + method);
+		}
+		return this.addHandler(method + " " + url, httpHandler);
+	}
+
 	public Map<String, HttpHandler> toMap() {
 		return Collections.unmodifiableMap(httpHandlers);
 	}
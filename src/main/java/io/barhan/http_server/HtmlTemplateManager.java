@@ -1,7 +1,28 @@
 package io.barhan.http_server;
 
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 public interface HtmlTemplateManager {
 	String processTemplate(String templateName, Map<String, Object> arguments);
+
+	default void processTemplate(String templateName, Map<String, Object> arguments, Writer out)
+			throws IOException {
+		Map<String, Object> resolved = new LinkedHashMap<>(arguments);
+		for (Map.Entry<String, Object> entry : resolved.entrySet()) {
+			if (entry.getValue() instanceof Fragment) {
+				StringWriter fragment = new StringWriter();
+				((Fragment) entry.getValue()).writeTo(fragment);
+				entry.setValue(fragment.toString());
+			}
+		}
+		out.write(this.processTemplate(templateName, resolved));
+	}
+
+	interface Fragment {
+		void writeTo(Writer out) throws IOException;
+	}
 }
@@ -1,5 +1,8 @@
 package io.barhan.http_server;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.Collections;
 import java.util.Map;
 
 public interface HttpRequest {
@@ -16,4 +19,12 @@ public interface HttpRequest {
 	Map<String, String> getHeaders();
 
 	Map<String, String> getParams();
+
+	default Map<String, String> getPathParams() {
+		return Collections.emptyMap();
+	}
+
+	default InputStream getBody() {
+		return new ByteArrayInputStream(new byte[0]);
+	}
 }
@@ -1,7 +1,18 @@
 package io.barhan.http_server;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import io.barhan.http_server.exception.HttpServerException;
 
 public interface HttpResponse {
 	void setStatus(int status);
@@ -10,7 +21,45 @@ public interface HttpResponse {
 	
 	void setBody(String content);
 	
+	default void setBody(byte[] content) {
+		this.setBody(new ByteArrayInputStream(content), content.length);
+	}
+	
 	void setBody(InputStream in);
 	
+	default void setBody(InputStream in, long length) {
+		this.setBody(in);
+	}
+	
 	void setBody(Reader reader);
+	
+	default void setBody(Path file) {
+		try {
+			this.setBody(Files.newInputStream(file));
+		} catch (IOException e) {
+			throw new HttpServerException("Setting http response body from file failed: " + e.getMessage(), e);
+		}
+	}
+	
+	default OutputStream getOutputStream() {
+		return new ByteArrayOutputStream() {
+			@Override
+			public void flush() {
+				HttpResponse.this.setBody(new ByteArrayInputStream(this.toByteArray()), this.size());
+			}
+
+			@Override
+			public void close() {
+				this.flush();
+			}
+		};
+	}
+	
+	default Writer getWriter() {
+		return new OutputStreamWriter(this.getOutputStream(), StandardCharsets.UTF_8);
+	}
+	
+	default boolean isHeadersOnly() {
+		return false;
+	}
 }
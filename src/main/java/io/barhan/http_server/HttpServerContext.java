@@ -9,6 +9,10 @@ import javax.sql.DataSource;
 public interface HttpServerContext {
 	ServerInfo getServerInfo();
 	
+	WorkerPoolMetrics getWorkerPoolMetrics();
+	
+	StaticFileCacheMetrics getStaticFileCacheMetrics();
+	
 	Collection<String> getSupportedRequestMethods();
 	
 	Properties getSupportedResponseMethods();
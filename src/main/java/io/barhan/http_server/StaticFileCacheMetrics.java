@@ -0,0 +1,67 @@
+package io.barhan.http_server;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+public class StaticFileCacheMetrics {
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+	private final AtomicInteger entries = new AtomicInteger();
+	private final AtomicLong bytes = new AtomicLong();
+
+	public void hit() {
+		this.hits.increment();
+	}
+
+	public void miss() {
+		this.misses.increment();
+	}
+
+	public void evicted() {
+		this.evictions.increment();
+	}
+
+	public void entryAdded(long size) {
+		this.entries.incrementAndGet();
+		this.bytes.addAndGet(size);
+	}
+
+	public void entryRemoved(long size) {
+		this.entries.decrementAndGet();
+		this.bytes.addAndGet(-size);
+	}
+
+	public long getHits() {
+		return this.hits.sum();
+	}
+
+	public long getMisses() {
+		return this.misses.sum();
+	}
+
+	public double getHitRatio() {
+		long hits = this.hits.sum();
+		long total = hits + this.misses.sum();
+		return total > 0 ? (double) hits / total : 0;
+	}
+
+	public long getEvictions() {
+		return this.evictions.sum();
+	}
+
+	public int getEntries() {
+		return this.entries.get();
+	}
+
+	public long getBytes() {
+		return this.bytes.get();
+	}
+
+	@Override
+	public String toString() {
+		return String.format("StaticFileCacheMetrics [entries=%s, bytes=%s, hitRatio=%.2f, evictions=%s]",
+				this.getEntries(), this.getBytes(), this.getHitRatio(), this.getEvictions());
+	}
+}
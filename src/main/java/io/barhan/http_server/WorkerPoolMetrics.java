@@ -0,0 +1,59 @@
+package io.barhan.http_server;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+public class WorkerPoolMetrics {
+	private final AtomicInteger queueDepth = new AtomicInteger();
+	private final LongAdder startedTasks = new LongAdder();
+	private final LongAdder rejectedTasks = new LongAdder();
+	private final LongAdder totalQueueWaitNanos = new LongAdder();
+	private final AtomicLong maxQueueWaitNanos = new AtomicLong();
+
+	public void taskQueued() {
+		this.queueDepth.incrementAndGet();
+	}
+
+	public void taskStarted(long queueWaitNanos) {
+		this.queueDepth.decrementAndGet();
+		this.startedTasks.increment();
+		this.totalQueueWaitNanos.add(queueWaitNanos);
+		this.maxQueueWaitNanos.accumulateAndGet(queueWaitNanos, Math::max);
+	}
+
+	public void taskRejected() {
+		this.queueDepth.decrementAndGet();
+		this.rejectedTasks.increment();
+	}
+
+	public int getQueueDepth() {
+		return this.queueDepth.get();
+	}
+
+	public long getStartedTasks() {
+		return this.startedTasks.sum();
+	}
+
+	public long getRejectedTasks() {
+		return this.rejectedTasks.sum();
+	}
+
+	public long getAverageQueueWaitMillis() {
+		long started = this.startedTasks.sum();
+		return started > 0 ? TimeUnit.NANOSECONDS.toMillis(this.totalQueueWaitNanos.sum() / started) : 0;
+	}
+
+	public long getMaxQueueWaitMillis() {
+		return TimeUnit.NANOSECONDS.toMillis(this.maxQueueWaitNanos.get());
+	}
+
+	@Override
+	public String toString() {
+		return String.format(
+				"WorkerPoolMetrics [queueDepth=%s, startedTasks=%s, rejectedTasks=%s, averageQueueWaitMillis=%s, maxQueueWaitMillis=%s]",
+				this.getQueueDepth(), this.getStartedTasks(), this.getRejectedTasks(),
+				this.getAverageQueueWaitMillis(), this.getMaxQueueWaitMillis());
+	}
+}
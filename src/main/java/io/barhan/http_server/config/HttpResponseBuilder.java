@@ -1,7 +1,15 @@
 package io.barhan.http_server.config;
 
+import java.io.IOException;
+import java.io.OutputStream;
+
+import io.barhan.http_server.HttpRequest;
+
 public interface HttpResponseBuilder {
 	ReadableHttpResponse buildNewHttpResponse();
 
-	void prepareHttpResponse(ReadableHttpResponse response, boolean clearBody);
+	void prepareHttpResponse(HttpRequest request, ReadableHttpResponse response, boolean clearBody);
+
+	OutputStream commitHttpResponse(HttpRequest request, ReadableHttpResponse response, OutputStream out)
+			throws IOException;
 }
@@ -0,0 +1,8 @@
+package io.barhan.http_server.config;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface HttpResponseCommitter {
+	OutputStream commit(ReadableHttpResponse response) throws IOException;
+}
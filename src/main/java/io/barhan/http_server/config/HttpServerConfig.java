@@ -1,14 +1,42 @@
 package io.barhan.http_server.config;
 
 import java.net.Socket;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ThreadFactory;
 
 import io.barhan.http_server.HttpServerContext;
 import io.barhan.http_server.ServerInfo;
+import io.barhan.http_server.WorkerPoolMetrics;
 
 public interface HttpServerConfig {
 	ServerInfo getServerInfo();
 	
+	String getConnectorType();
+	
+	String getThreadMode();
+	
+	int getWorkerQueueCapacity();
+	
+	int getAcceptPause();
+	
+	int getRetryAfter();
+	
+	WorkerPoolMetrics getWorkerPoolMetrics();
+	
+	int getSelectorCount();
+	
+	int getSocketTimeout();
+	
+	boolean isTcpNoDelay();
+	
+	int getKeepAliveMaxRequests();
+	
+	int getKeepAliveTimeout();
+	
+	int getMaxHeaderSize();
+	
+	int getMaxHeaderCount();
+	
 	String getStatusMessage(int statusCode);
 	
 	HttpRequestParser getHttpRequestParser();
@@ -23,5 +51,9 @@ public interface HttpServerConfig {
 	
 	ThreadFactory getWorkerThreadFactory();
 	
+	Executor getPipelineExecutor();
+	
 	HttpClientSocketHandler buildNewHttpClientSocketHandler(Socket clientSocket);
+	
+	void close();
 }
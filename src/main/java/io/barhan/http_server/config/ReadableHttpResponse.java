@@ -1,5 +1,7 @@
 package io.barhan.http_server.config;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.Map;
 
 import io.barhan.http_server.HttpResponse;
@@ -13,5 +15,17 @@ public interface ReadableHttpResponse extends HttpResponse {
 	
 	boolean isBodyEmpty();
 	
-	int getBodyLength();
+	boolean isBodyBuffered();
+	
+	long getBodyLength();
+	
+	void writeBody(OutputStream out) throws IOException;
+	
+	void setHeadersOnly(boolean headersOnly);
+	
+	void setCommitter(HttpResponseCommitter committer);
+	
+	boolean isCommitted();
+	
+	void closeOutput() throws IOException;
 }
@@ -0,0 +1,11 @@
+package io.barhan.http_server.exception;
+
+public class ExpectationFailedException extends AbstractRequestParseFailedException {
+	private static final long serialVersionUID = 2818540357816402218L;
+
+	public ExpectationFailedException(String message, String firstLine) {
+		super(message, firstLine);
+		this.setStatusCode(417);
+	}
+
+}
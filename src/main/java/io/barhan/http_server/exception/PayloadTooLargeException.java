@@ -0,0 +1,11 @@
+package io.barhan.http_server.exception;
+
+public class PayloadTooLargeException extends AbstractRequestParseFailedException {
+	private static final long serialVersionUID = 6072957264104563125L;
+
+	public PayloadTooLargeException(String message, String firstLine) {
+		super(message, firstLine);
+		this.setStatusCode(413);
+	}
+
+}
@@ -0,0 +1,11 @@
+package io.barhan.http_server.exception;
+
+public class RequestHeaderFieldsTooLargeException extends AbstractRequestParseFailedException {
+	private static final long serialVersionUID = 3915062410478561284L;
+
+	public RequestHeaderFieldsTooLargeException(String message, String firstLine) {
+		super(message, firstLine);
+		this.setStatusCode(431);
+	}
+
+}
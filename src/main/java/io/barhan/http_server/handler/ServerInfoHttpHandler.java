@@ -8,6 +8,8 @@ import io.barhan.http_server.HttpHandler;
 import io.barhan.http_server.HttpRequest;
 import io.barhan.http_server.HttpResponse;
 import io.barhan.http_server.HttpServerContext;
+import io.barhan.http_server.StaticFileCacheMetrics;
+import io.barhan.http_server.WorkerPoolMetrics;
 import io.barhan.http_server.utils.DataUtils;
 
 public class ServerInfoHttpHandler implements HttpHandler {
@@ -25,9 +27,18 @@ public class ServerInfoHttpHandler implements HttpHandler {
 
     private Map<String, Object> getDataMap(HttpServerContext context) {
         int threadCount = context.getServerInfo().getThreadCount();
+        WorkerPoolMetrics metrics = context.getWorkerPoolMetrics();
+        StaticFileCacheMetrics cacheMetrics = context.getStaticFileCacheMetrics();
         return DataUtils.buildMap(new Object[][]{{"SERVER-NAME", context.getServerInfo().getName()},
                 {"SERVER-PORT", context.getServerInfo().getPort()},
-                {"THREAD-COUNT", threadCount == 0 ? "UNLIMITED" : threadCount},
+                {"THREAD-COUNT", threadCount == 0 ? "AUTO" : threadCount},
+                {"QUEUE-DEPTH", metrics.getQueueDepth()},
+                {"REJECTED-REQUESTS", metrics.getRejectedTasks()},
+                {"QUEUE-WAIT", metrics.getAverageQueueWaitMillis() + " ms avg, "
+                        + metrics.getMaxQueueWaitMillis() + " ms max"},
+                {"STATIC-CACHE", String.format("%s files, %s bytes, %.1f%% hits, %s evictions",
+                        cacheMetrics.getEntries(), cacheMetrics.getBytes(), cacheMetrics.getHitRatio() * 100,
+                        cacheMetrics.getEvictions())},
                 {"SUPPORTED-REQUEST-METHODS", context.getSupportedRequestMethods()},
                 {"SUPPORTED-RESPONSE-STATUSES", this.getSupportedResponseStatuses(context)},});
     }
@@ -0,0 +1,254 @@
+package io.barhan.http_server.impl;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.SocketTimeoutException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.apache.commons.lang.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.barhan.http_server.Constants;
+import io.barhan.http_server.HttpRequest;
+import io.barhan.http_server.HttpResponse;
+import io.barhan.http_server.HttpServerContext;
+import io.barhan.http_server.config.HttpClientSocketHandler;
+import io.barhan.http_server.config.HttpServerConfig;
+import io.barhan.http_server.config.ReadableHttpResponse;
+import io.barhan.http_server.exception.AbstractRequestParseFailedException;
+import io.barhan.http_server.exception.HttpServerException;
+import io.barhan.http_server.exception.MethodNotAllowedException;
+
+abstract class AbstractHttpClientSocketHandler implements HttpClientSocketHandler {
+	private static final Logger ACCESS_LOGGER = LoggerFactory.getLogger("ACCESS_LOG");
+	private static final Logger LOGGER = LoggerFactory.getLogger(AbstractHttpClientSocketHandler.class);
+	private static final int MAX_PIPELINED_REQUESTS = 16;
+
+	final String remoteAddress;
+	final HttpServerConfig httpServerConfig;
+
+	AbstractHttpClientSocketHandler(String remoteAddress, HttpServerConfig httpServerConfig) {
+		this.remoteAddress = remoteAddress;
+		this.httpServerConfig = httpServerConfig;
+	}
+
+	@Override
+	public void run() {
+		try {
+			this.execute();
+		} catch (Exception e) {
+			LOGGER.error("Client request failed: " + e.getMessage(), e);
+		}
+
+	}
+
+	protected abstract void execute() throws Exception;
+
+	protected abstract boolean isKeepAliveAllowed();
+
+	protected boolean processRequests(RequestInputStream in, BatchOutputStream out) throws IOException {
+		List<HttpExchange> batch = new ArrayList<>();
+		in.setContinueTarget(out);
+		HttpExchange exchange = this.readExchange(in);
+		if (exchange == null) {
+			return false;
+		}
+		batch.add(exchange);
+		boolean connectionOpen = true;
+		while (exchange.keepAlive && !in.hasPendingBody() && batch.size() < MAX_PIPELINED_REQUESTS
+				&& in.decodeAvailableHead(this.httpServerConfig.getMaxHeaderSize(),
+						this.httpServerConfig.getMaxHeaderCount())) {
+			exchange = this.readExchange(in);
+			if (exchange == null) {
+				connectionOpen = false;
+				break;
+			}
+			batch.add(exchange);
+		}
+		Executor executor = this.httpServerConfig.getPipelineExecutor();
+		boolean keepAlive = true;
+		if (executor == null || batch.size() == 1 || in.hasPendingBody()) {
+			for (int i = 0; i < batch.size() && keepAlive; i++) {
+				HttpExchange current = batch.get(i);
+				if (current.request != null && !this.isHeadRequest(current)) {
+					current.response.setCommitter(response -> this.commitResponse(current, out));
+				}
+				this.processRequest(current);
+				if (in.isContinuePending()) {
+					current.keepAlive = false;
+				}
+				keepAlive = this.writeExchange(current, out, i == batch.size() - 1);
+			}
+		} else {
+			this.processRequestsInParallel(batch, executor);
+			for (int i = 0; i < batch.size() && keepAlive; i++) {
+				keepAlive = this.writeExchange(batch.get(i), out, i == batch.size() - 1);
+			}
+		}
+		out.flush();
+		return keepAlive && connectionOpen;
+	}
+
+	private HttpExchange readExchange(InputStream in) throws IOException {
+		ReadableHttpResponse response = this.httpServerConfig.getHttpResponseBuilder().buildNewHttpResponse();
+		try {
+			HttpRequest request = this.httpServerConfig.getHttpRequestParser().parseHttpRequest(in, this.remoteAddress);
+			response.setHeadersOnly(Constants.HEAD.equals(request.getMethod()));
+			boolean keepAlive = this.isKeepAliveAllowed() && this.isKeepAliveRequested(request);
+			return new HttpExchange(request, request.getFirstLine(), response, keepAlive);
+		} catch (AbstractRequestParseFailedException e) {
+			this.handleException(e, response);
+			return new HttpExchange(null, e.getFirstLine(), response, false);
+		} catch (EOFException e) {
+			LOGGER.debug("Client socket closed connection...");
+			return null;
+		} catch (SocketTimeoutException e) {
+			LOGGER.debug("Client socket timed out: {}", e.getMessage());
+			return null;
+		}
+	}
+
+	private void processRequestsInParallel(List<HttpExchange> batch, Executor executor) {
+		List<FutureTask<Void>> tasks = new ArrayList<>(batch.size());
+		for (HttpExchange exchange : batch) {
+			if (exchange.request != null) {
+				FutureTask<Void> task = new FutureTask<>(() -> this.processRequest(exchange), null);
+				if (!tasks.isEmpty()) {
+					this.submit(executor, task);
+				}
+				tasks.add(task);
+			}
+		}
+		for (FutureTask<Void> task : tasks) {
+			task.run();
+			this.await(task);
+		}
+	}
+
+	private void submit(Executor executor, FutureTask<Void> task) {
+		try {
+			executor.execute(task);
+		} catch (RejectedExecutionException e) {
+			LOGGER.debug("Pipelined request will be handled in place: {}", e.getMessage());
+		}
+	}
+
+	private void await(FutureTask<Void> task) {
+		try {
+			task.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new HttpServerException("Waiting for pipelined request interrupted", e);
+		} catch (ExecutionException e) {
+			throw new HttpServerException("Pipelined request failed: " + e.getCause().getMessage(), e.getCause());
+		}
+	}
+
+	private OutputStream commitResponse(HttpExchange exchange, BatchOutputStream out) throws IOException {
+		if (exchange.keepAlive) {
+			exchange.response.setHeader("Connection", "keep-alive");
+		}
+		return this.httpServerConfig.getHttpResponseBuilder().commitHttpResponse(exchange.request, exchange.response,
+				out);
+	}
+
+	private boolean writeExchange(HttpExchange exchange, BatchOutputStream out, boolean last) throws IOException {
+		ReadableHttpResponse response = exchange.response;
+		if (response.isCommitted()) {
+			ACCESS_LOGGER.info("Request: {} - \"{}\", Response: {} (chunked)", this.remoteAddress, exchange.firstLine,
+					response.getStatus());
+			return exchange.keepAlive;
+		}
+		this.httpServerConfig.getHttpResponseBuilder().prepareHttpResponse(exchange.request, response,
+				this.isHeadRequest(exchange));
+		boolean keepAlive = exchange.keepAlive && response.getBodyLength() >= 0;
+		if (keepAlive) {
+			response.setHeader("Connection", "keep-alive");
+		}
+		ACCESS_LOGGER.info("Request: {} - \"{}\", Response: {} ({} bytes)", this.remoteAddress, exchange.firstLine,
+				response.getStatus(), response.getBodyLength());
+		out.setFlushDeferred(keepAlive && !last);
+		try {
+			this.httpServerConfig.getHttpResponseWriter().writeHttpResponse(out, response);
+		} finally {
+			out.setFlushDeferred(false);
+		}
+		return keepAlive;
+	}
+
+	private boolean isHeadRequest(HttpExchange exchange) {
+		return exchange.firstLine != null && exchange.firstLine.startsWith(Constants.HEAD);
+	}
+
+	private boolean isKeepAliveRequested(HttpRequest request) {
+		if (!Constants.SUPPORTED_HTTP_VERSION.equals(request.getHTTPVersion())) {
+			return false;
+		}
+		String connection = request.getHeaders().get("Connection");
+		if (connection != null) {
+			for (String token : connection.split(",")) {
+				if ("close".equalsIgnoreCase(token.trim())) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	private void processRequest(HttpExchange exchange) {
+		if (exchange.request == null) {
+			return;
+		}
+		HttpServerContext context = this.httpServerConfig.getHttpServerContext();
+		try {
+			this.httpServerConfig.getHttpRequestDispatcher().handle(context, exchange.request, exchange.response);
+			exchange.response.closeOutput();
+		} catch (Exception e) {
+			if (exchange.response.isCommitted()) {
+				LOGGER.error("Exception after response was committed: " + e.getMessage(), e);
+				exchange.keepAlive = false;
+			} else {
+				this.handleException(e, exchange.response);
+				if (e instanceof AbstractRequestParseFailedException) {
+					exchange.keepAlive = false;
+				}
+			}
+		}
+	}
+
+	private void handleException(Exception ex, HttpResponse response) {
+		LOGGER.error("Exception during request: " + ex.getMessage(), ex);
+		if (ex instanceof HttpServerException) {
+			HttpServerException e = (HttpServerException) ex;
+			response.setStatus(e.getStatusCode());
+			if (e instanceof MethodNotAllowedException) {
+				response.setHeader("Allow", StringUtils.join(Constants.ALLOWED_METHODS, ", "));
+			}
+		} else {
+			response.setStatus(500);
+		}
+	}
+
+	private static class HttpExchange {
+		private final HttpRequest request;
+		private final String firstLine;
+		private final ReadableHttpResponse response;
+		private boolean keepAlive;
+
+		HttpExchange(HttpRequest request, String firstLine, ReadableHttpResponse response, boolean keepAlive) {
+			this.request = request;
+			this.firstLine = firstLine;
+			this.response = response;
+			this.keepAlive = keepAlive;
+		}
+	}
+
+}
@@ -0,0 +1,141 @@
+package io.barhan.http_server.impl;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadFactory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.barhan.http_server.Constants;
+import io.barhan.http_server.HttpServer;
+import io.barhan.http_server.config.HttpServerConfig;
+import io.barhan.http_server.exception.HttpServerException;
+
+abstract class AbstractHttpServer implements HttpServer {
+    private static final Logger LOGGER = LoggerFactory.getLogger(AbstractHttpServer.class);
+    static final int PLATFORM_THREADS_PER_CPU = 32;
+    static final int VIRTUAL_THREADS_PER_CPU = 256;
+    private final HttpServerConfig httpServerConfig;
+    private final ExecutorService executorService;
+    private final Thread mainServerThread;
+    private volatile boolean isServerStopped;
+    private volatile boolean stopRequest;
+    private final byte[] serviceUnavailableResponse;
+
+    protected AbstractHttpServer(HttpServerConfig httpServerConfig) {
+        this.httpServerConfig = httpServerConfig;
+        this.executorService = this.createExecutorService();
+        this.serviceUnavailableResponse = this.createServiceUnavailableResponse();
+        this.mainServerThread = this.createMainServerThread(this.createServerRunnable());
+        this.isServerStopped = false;
+    }
+
+    HttpServerConfig getHttpServerConfig() {
+        return this.httpServerConfig;
+    }
+
+    ExecutorService getExecutorService() {
+        return this.executorService;
+    }
+
+    Thread getMainServerThread() {
+        return this.mainServerThread;
+    }
+
+    protected abstract Runnable createServerRunnable();
+
+    protected abstract void closeServerSocket() throws IOException;
+
+    protected ExecutorService createExecutorService() {
+        if (Constants.VIRTUAL_THREAD_MODE.equals(this.httpServerConfig.getThreadMode())) {
+            return new BoundedPerTaskExecutor(VirtualThreadExecutors.newVirtualThreadPerTaskExecutor(),
+                    this.getThreadCount(VIRTUAL_THREADS_PER_CPU), this.httpServerConfig.getWorkerQueueCapacity(),
+                    this.httpServerConfig.getWorkerPoolMetrics());
+        }
+        ThreadFactory threadFactory = this.httpServerConfig.getWorkerThreadFactory();
+        return new WorkerExecutor(this.getThreadCount(PLATFORM_THREADS_PER_CPU),
+                this.httpServerConfig.getWorkerQueueCapacity(), threadFactory,
+                this.httpServerConfig.getWorkerPoolMetrics());
+    }
+
+    private int getThreadCount(int threadsPerCpu) {
+        int threadCount = this.httpServerConfig.getServerInfo().getThreadCount();
+        return threadCount > 0 ? threadCount : Runtime.getRuntime().availableProcessors() * threadsPerCpu;
+    }
+
+    protected void awaitWorkerCapacity() throws InterruptedException {
+        if (this.executorService instanceof BoundedExecutor) {
+            BoundedExecutor workerExecutor = (BoundedExecutor) this.executorService;
+            if (workerExecutor.isSaturated() && !workerExecutor.awaitCapacity(this.httpServerConfig.getAcceptPause())) {
+                LOGGER.warn("Worker queue is full: {}", this.httpServerConfig.getWorkerPoolMetrics());
+            }
+        }
+    }
+
+    byte[] getServiceUnavailableResponse() {
+        return this.serviceUnavailableResponse;
+    }
+
+    protected byte[] createServiceUnavailableResponse() {
+        String response = Constants.SUPPORTED_HTTP_VERSION + " 503 " + this.httpServerConfig.getStatusMessage(503)
+                + "\r\nRetry-After: " + this.httpServerConfig.getRetryAfter()
+                + "\r\nContent-Length: 0\r\nConnection: close\r\n\r\n";
+        return response.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    protected Thread createMainServerThread(Runnable r) {
+        Thread thread = new Thread(r, "Main Server Thread");
+        thread.setPriority(Thread.MAX_PRIORITY);
+        thread.setDaemon(false);
+        return thread;
+    }
+
+    protected void afterServerLoop() {
+        if (this.stopRequest) {
+            System.exit(0);
+        }
+    }
+
+    @Override
+    public void start() {
+        if (this.mainServerThread.getState() != Thread.State.NEW) {
+            throw new HttpServerException(
+                    "Current sever already started or stopped! Create a new http server instance");
+        }
+        Runtime.getRuntime().addShutdownHook(this.getShutdownHook());
+        this.mainServerThread.start();
+        LOGGER.info("Server has been started: " + this.httpServerConfig.getServerInfo());
+
+    }
+
+    @Override
+    public void stop() {
+        LOGGER.info("Stop server command!");
+        this.stopRequest = true;
+        this.mainServerThread.interrupt();
+        try {
+            this.closeServerSocket();
+        } catch (IOException e) {
+            LOGGER.warn("Closing server socket failed: " + e.getMessage(), e);
+        }
+
+    }
+
+    protected Thread getShutdownHook() {
+        return new Thread(() -> {
+            if (!isServerStopped) {
+                destroyHttpServer();
+            }
+
+        }, "ShutdownHook");
+    }
+
+    protected void destroyHttpServer() {
+        this.executorService.shutdownNow();
+        this.httpServerConfig.close();
+        LOGGER.info("Server stopped");
+        this.isServerStopped = true;
+    }
+}
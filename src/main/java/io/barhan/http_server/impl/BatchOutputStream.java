@@ -0,0 +1,158 @@
+package io.barhan.http_server.impl;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+class BatchOutputStream extends OutputStream implements FileTransferTarget {
+	private static final int BUFFER_SIZE = 8192;
+
+	private final OutputStream out;
+	private final byte[] buffer = new byte[BUFFER_SIZE];
+	private int count;
+	private boolean flushDeferred;
+
+	BatchOutputStream(OutputStream out) {
+		this.out = out;
+	}
+
+	void setFlushDeferred(boolean flushDeferred) {
+		this.flushDeferred = flushDeferred;
+	}
+
+	@Override
+	public void write(int b) throws IOException {
+		if (this.count == this.buffer.length) {
+			this.flushBuffer();
+		}
+		this.buffer[this.count++] = (byte) b;
+	}
+
+	@Override
+	public void write(byte[] b, int off, int len) throws IOException {
+		if (len > this.buffer.length - this.count && this.count > 0 && this.out instanceof FileTransferTarget) {
+			this.write(new ByteBuffer[] { ByteBuffer.wrap(b, off, len) });
+			return;
+		}
+		if (len >= this.buffer.length) {
+			this.flushBuffer();
+			this.out.write(b, off, len);
+			return;
+		}
+		if (len > this.buffer.length - this.count) {
+			this.flushBuffer();
+		}
+		System.arraycopy(b, off, this.buffer, this.count, len);
+		this.count += len;
+	}
+
+	@Override
+	public void flush() throws IOException {
+		if (!this.flushDeferred) {
+			this.flushBuffer();
+			this.out.flush();
+		}
+	}
+
+	long writeFrom(InputStream in, long length) throws IOException {
+		long total = 0;
+		while (length < 0 || total < length) {
+			if (this.count == this.buffer.length) {
+				this.flushBuffer();
+			}
+			int max = this.buffer.length - this.count;
+			if (length >= 0) {
+				max = (int) Math.min(max, length - total);
+			}
+			int read = in.read(this.buffer, this.count, max);
+			if (read == -1) {
+				break;
+			}
+			this.count += read;
+			total += read;
+		}
+		return total;
+	}
+
+	@Override
+	public void transferFrom(FileChannel file, long position, long count) throws IOException {
+		if (count <= this.buffer.length - this.count) {
+			this.readFully(file, position, (int) count);
+			return;
+		}
+		this.flushBuffer();
+		if (this.out instanceof FileTransferTarget) {
+			((FileTransferTarget) this.out).transferFrom(file, position, count);
+			return;
+		}
+		long end = position + count;
+		while (position < end) {
+			int length = (int) Math.min(this.buffer.length, end - position);
+			this.readFully(file, position, length);
+			this.flushBuffer();
+			position += length;
+		}
+	}
+
+	private void readFully(FileChannel file, long position, int length) throws IOException {
+		ByteBuffer buffer = ByteBuffer.wrap(this.buffer, this.count, length);
+		while (buffer.hasRemaining()) {
+			if (file.read(buffer, position + buffer.position() - this.count) == -1) {
+				throw new EOFException("File is shorter than expected: " + length + " bytes");
+			}
+		}
+		this.count += length;
+	}
+
+	@Override
+	public void transferFrom(ByteBuffer buffer) throws IOException {
+		if (buffer.remaining() <= this.buffer.length - this.count) {
+			int length = buffer.remaining();
+			buffer.get(this.buffer, this.count, length);
+			this.count += length;
+			return;
+		}
+		if (this.count > 0 && this.out instanceof FileTransferTarget) {
+			this.write(new ByteBuffer[] { buffer });
+			return;
+		}
+		this.flushBuffer();
+		if (this.out instanceof FileTransferTarget) {
+			((FileTransferTarget) this.out).transferFrom(buffer);
+			return;
+		}
+		while (buffer.hasRemaining()) {
+			int count = Math.min(this.buffer.length, buffer.remaining());
+			buffer.get(this.buffer, 0, count);
+			this.out.write(this.buffer, 0, count);
+		}
+	}
+
+	@Override
+	public void write(ByteBuffer[] buffers) throws IOException {
+		if (this.out instanceof FileTransferTarget) {
+			if (this.count > 0) {
+				ByteBuffer[] gathered = new ByteBuffer[buffers.length + 1];
+				gathered[0] = ByteBuffer.wrap(this.buffer, 0, this.count);
+				System.arraycopy(buffers, 0, gathered, 1, buffers.length);
+				buffers = gathered;
+			}
+			this.count = 0;
+			((FileTransferTarget) this.out).write(buffers);
+			return;
+		}
+		for (ByteBuffer buffer : buffers) {
+			this.transferFrom(buffer);
+		}
+	}
+
+	private void flushBuffer() throws IOException {
+		if (this.count > 0) {
+			this.out.write(this.buffer, 0, this.count);
+			this.count = 0;
+		}
+	}
+}
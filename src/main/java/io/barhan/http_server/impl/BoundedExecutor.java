@@ -0,0 +1,7 @@
+package io.barhan.http_server.impl;
+
+interface BoundedExecutor {
+	boolean isSaturated();
+
+	boolean awaitCapacity(long timeoutMillis) throws InterruptedException;
+}
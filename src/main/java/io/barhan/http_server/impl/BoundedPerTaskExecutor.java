@@ -0,0 +1,170 @@
+package io.barhan.http_server.impl;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import io.barhan.http_server.WorkerPoolMetrics;
+
+class BoundedPerTaskExecutor extends AbstractExecutorService implements BoundedExecutor {
+	private final ExecutorService executor;
+	private final int threadCount;
+	private final int queueCapacity;
+	private final WorkerPoolMetrics metrics;
+	private final Queue<QueuedTask> queue = new ArrayDeque<>();
+	private final ReentrantLock lock = new ReentrantLock();
+	private final Condition capacityAvailable = this.lock.newCondition();
+	private int active;
+
+	BoundedPerTaskExecutor(ExecutorService executor, int threadCount, int queueCapacity, WorkerPoolMetrics metrics) {
+		this.executor = executor;
+		this.threadCount = threadCount;
+		this.queueCapacity = queueCapacity;
+		this.metrics = metrics;
+	}
+
+	@Override
+	public boolean isSaturated() {
+		this.lock.lock();
+		try {
+			return this.queueCapacity > 0 && this.queue.size() >= this.queueCapacity;
+		} finally {
+			this.lock.unlock();
+		}
+	}
+
+	@Override
+	public boolean awaitCapacity(long timeoutMillis) throws InterruptedException {
+		long nanos = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+		this.lock.lock();
+		try {
+			while (this.isSaturated()) {
+				if (nanos <= 0) {
+					return false;
+				}
+				nanos = this.capacityAvailable.awaitNanos(nanos);
+			}
+			return true;
+		} finally {
+			this.lock.unlock();
+		}
+	}
+
+	@Override
+	public void execute(Runnable command) {
+		this.metrics.taskQueued();
+		QueuedTask task = new QueuedTask(command);
+		this.lock.lock();
+		try {
+			if (this.executor.isShutdown()) {
+				this.metrics.taskRejected();
+				throw new RejectedExecutionException("Worker pool is shut down");
+			}
+			if (this.active >= this.threadCount) {
+				if (this.queueCapacity > 0 && this.queue.size() >= this.queueCapacity) {
+					this.metrics.taskRejected();
+					throw new RejectedExecutionException("Worker queue is full");
+				}
+				this.queue.add(task);
+				return;
+			}
+			this.active++;
+		} finally {
+			this.lock.unlock();
+		}
+		try {
+			this.executor.execute(() -> this.run(task));
+		} catch (RejectedExecutionException e) {
+			this.lock.lock();
+			try {
+				this.active--;
+			} finally {
+				this.lock.unlock();
+			}
+			this.metrics.taskRejected();
+			throw e;
+		}
+	}
+
+	// The thread that finishes a task takes the next queued one, so work
+	// admitted before shutdown() still drains once the delegate stops
+	// accepting new threads.
+	private void run(QueuedTask task) {
+		while (task != null) {
+			this.metrics.taskStarted(System.nanoTime() - task.queuedAt);
+			try {
+				task.command.run();
+			} finally {
+				task = this.next();
+			}
+		}
+	}
+
+	private QueuedTask next() {
+		this.lock.lock();
+		try {
+			QueuedTask next = this.queue.poll();
+			if (next == null) {
+				this.active--;
+			} else {
+				this.capacityAvailable.signal();
+			}
+			return next;
+		} finally {
+			this.lock.unlock();
+		}
+	}
+
+	@Override
+	public void shutdown() {
+		this.executor.shutdown();
+	}
+
+	@Override
+	public List<Runnable> shutdownNow() {
+		List<Runnable> pending = new ArrayList<>();
+		this.lock.lock();
+		try {
+			for (QueuedTask task : this.queue) {
+				pending.add(task.command);
+			}
+			this.queue.clear();
+			this.capacityAvailable.signalAll();
+		} finally {
+			this.lock.unlock();
+		}
+		pending.addAll(this.executor.shutdownNow());
+		return pending;
+	}
+
+	@Override
+	public boolean isShutdown() {
+		return this.executor.isShutdown();
+	}
+
+	@Override
+	public boolean isTerminated() {
+		return this.executor.isTerminated();
+	}
+
+	@Override
+	public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+		return this.executor.awaitTermination(timeout, unit);
+	}
+
+	private static class QueuedTask {
+		private final Runnable command;
+		private final long queuedAt = System.nanoTime();
+
+		QueuedTask(Runnable command) {
+			this.command = command;
+		}
+	}
+}
@@ -0,0 +1,34 @@
+package io.barhan.http_server.impl;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+class ByteArrayResponseBody implements ResponseBody {
+	static final ByteArrayResponseBody EMPTY = new ByteArrayResponseBody(new byte[0]);
+
+	private final byte[] content;
+
+	ByteArrayResponseBody(byte[] content) {
+		this.content = content;
+	}
+
+	byte[] getContent() {
+		return this.content;
+	}
+
+	@Override
+	public long getLength() {
+		return this.content.length;
+	}
+
+	@Override
+	public void writeTo(OutputStream out) throws IOException {
+		out.write(this.content);
+	}
+
+	@Override
+	public ResponseBody slice(long position, long length) {
+		return new ByteArrayResponseBody(Arrays.copyOfRange(this.content, (int) position, (int) (position + length)));
+	}
+}
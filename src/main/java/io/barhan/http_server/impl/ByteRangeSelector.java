@@ -0,0 +1,162 @@
+package io.barhan.http_server.impl;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import io.barhan.http_server.Constants;
+import io.barhan.http_server.HttpRequest;
+import io.barhan.http_server.utils.HttpUtils;
+
+class ByteRangeSelector {
+	private static final String BYTES_UNIT = "bytes";
+	private static final int MAX_RANGES = 16;
+
+	void select(HttpRequest request, ReadableHttpResponseImpl response) {
+		if (request == null || !Constants.GET.equals(request.getMethod()) || response.getStatus() != 200
+				|| !BYTES_UNIT.equals(response.getHeaders().get("Accept-Ranges"))
+				|| response.getHeaders().containsKey("Content-Encoding")) {
+			return;
+		}
+		String range = request.getHeaders().get("Range");
+		ResponseBody body = response.getResponseBody();
+		if (range == null || body.getLength() < 0 || !this.isIfRangeMatched(request, response)) {
+			return;
+		}
+		List<long[]> ranges = this.parseRanges(range, body.getLength());
+		if (ranges == null) {
+			return;
+		}
+		if (ranges.isEmpty()) {
+			response.setStatus(416);
+			response.setHeader("Content-Range", BYTES_UNIT + " */" + body.getLength());
+			response.setHeader("Content-Type", "text/html");
+			response.setResponseBody(ByteArrayResponseBody.EMPTY);
+			return;
+		}
+		if (ranges.size() == 1) {
+			long[] single = ranges.get(0);
+			ResponseBody slice = body.slice(single[0], single[1] - single[0] + 1);
+			if (slice != null) {
+				response.setStatus(206);
+				response.setHeader("Content-Range", this.getContentRange(single, body.getLength()));
+				response.setResponseBody(slice);
+			}
+			return;
+		}
+		this.selectMultipart(response, body, ranges);
+	}
+
+	private void selectMultipart(ReadableHttpResponseImpl response, ResponseBody body, List<long[]> ranges) {
+		String boundary = Long.toHexString(ThreadLocalRandom.current().nextLong())
+				+ Long.toHexString(ThreadLocalRandom.current().nextLong());
+		String contentType = response.getHeaders().get("Content-Type");
+		List<ResponseBody> parts = new ArrayList<>(ranges.size() * 2 + 1);
+		for (long[] range : ranges) {
+			ResponseBody slice = body.slice(range[0], range[1] - range[0] + 1);
+			if (slice == null) {
+				return;
+			}
+			StringBuilder head = new StringBuilder("\r\n--").append(boundary).append("\r\n");
+			if (contentType != null) {
+				head.append("Content-Type: ").append(contentType).append("\r\n");
+			}
+			head.append("Content-Range: ").append(this.getContentRange(range, body.getLength())).append("\r\n\r\n");
+			parts.add(this.toBody(head.toString()));
+			parts.add(slice);
+		}
+		parts.add(this.toBody("\r\n--" + boundary + "--\r\n"));
+		response.setStatus(206);
+		response.setHeader("Content-Type", "multipart/byteranges; boundary=" + boundary);
+		response.setResponseBody(new CompositeResponseBody(parts));
+	}
+
+	private ResponseBody toBody(String text) {
+		return new ByteArrayResponseBody(text.getBytes(StandardCharsets.US_ASCII));
+	}
+
+	private String getContentRange(long[] range, long length) {
+		return BYTES_UNIT + " " + range[0] + "-" + range[1] + "/" + length;
+	}
+
+	private boolean isIfRangeMatched(HttpRequest request, ReadableHttpResponseImpl response) {
+		String ifRange = request.getHeaders().get("If-Range");
+		if (ifRange == null) {
+			return true;
+		}
+		ifRange = ifRange.trim();
+		if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+			return !ifRange.startsWith("W/") && ifRange.equals(response.getHeaders().get("Etag"));
+		}
+		long date = HttpUtils.parseHttpDate(ifRange);
+		long lastModified = HttpUtils.parseHttpDate(response.getHeaders().get("Last-Modified"));
+		return date >= 0 && date == lastModified;
+	}
+
+	List<long[]> parseRanges(String value, long length) {
+		int unitIndex = value.indexOf('=');
+		if (unitIndex == -1 || !BYTES_UNIT.equalsIgnoreCase(value.substring(0, unitIndex).trim())) {
+			return null;
+		}
+		List<long[]> ranges = new ArrayList<>();
+		for (String spec : value.substring(unitIndex + 1).split(",")) {
+			long[] range = this.parseRange(spec.trim(), length);
+			if (range == null) {
+				return null;
+			}
+			if (range[0] <= range[1]) {
+				ranges.add(range);
+			}
+		}
+		if (ranges.size() > MAX_RANGES) {
+			return null;
+		}
+		return this.coalesce(ranges);
+	}
+
+	private long[] parseRange(String spec, long length) {
+		int dashIndex = spec.indexOf('-');
+		if (dashIndex == -1) {
+			return null;
+		}
+		try {
+			String first = spec.substring(0, dashIndex).trim();
+			String last = spec.substring(dashIndex + 1).trim();
+			if (first.isEmpty()) {
+				long suffix = Long.parseLong(last);
+				return suffix < 0 ? null : new long[] { Math.max(0, length - suffix), length - 1 };
+			}
+			long start = Long.parseLong(first);
+			long end = last.isEmpty() ? length - 1 : Long.parseLong(last);
+			if (start < 0 || end < start) {
+				return null;
+			}
+			return new long[] { start, Math.min(end, length - 1) };
+		} catch (NumberFormatException e) {
+			return null;
+		}
+	}
+
+	private List<long[]> coalesce(List<long[]> ranges) {
+		if (ranges.size() < 2) {
+			return ranges;
+		}
+		List<long[]> sorted = new ArrayList<>(ranges);
+		Collections.sort(sorted, (a, b) -> Long.compare(a[0], b[0]));
+		List<long[]> result = new ArrayList<>();
+		long[] current = sorted.get(0);
+		for (int i = 1; i < sorted.size(); i++) {
+			long[] next = sorted.get(i);
+			if (next[0] <= current[1] + 1) {
+				current = new long[] { current[0], Math.max(current[1], next[1]) };
+			} else {
+				result.add(current);
+				current = next;
+			}
+		}
+		result.add(current);
+		return result;
+	}
+}
@@ -0,0 +1,74 @@
+package io.barhan.http_server.impl;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.channels.WritableByteChannel;
+
+class ChannelOutputStream extends OutputStream implements FileTransferTarget {
+	private final OutputStream out;
+	private final WritableByteChannel channel;
+
+	ChannelOutputStream(OutputStream out, WritableByteChannel channel) {
+		this.out = out;
+		this.channel = channel;
+	}
+
+	@Override
+	public void write(int b) throws IOException {
+		this.out.write(b);
+	}
+
+	@Override
+	public void write(byte[] b, int off, int len) throws IOException {
+		this.out.write(b, off, len);
+	}
+
+	@Override
+	public void flush() throws IOException {
+		this.out.flush();
+	}
+
+	@Override
+	public void close() throws IOException {
+		this.out.close();
+	}
+
+	@Override
+	public void transferFrom(FileChannel file, long position, long count) throws IOException {
+		this.out.flush();
+		long end = position + count;
+		while (position < end) {
+			long transferred = file.transferTo(position, end - position, this.channel);
+			if (transferred == 0) {
+				throw new EOFException("File is shorter than expected: " + count + " bytes");
+			}
+			position += transferred;
+		}
+	}
+
+	@Override
+	public void transferFrom(ByteBuffer buffer) throws IOException {
+		this.out.flush();
+		while (buffer.hasRemaining()) {
+			this.channel.write(buffer);
+		}
+	}
+
+	@Override
+	public void write(ByteBuffer[] buffers) throws IOException {
+		this.out.flush();
+		if (!(this.channel instanceof GatheringByteChannel)) {
+			for (ByteBuffer buffer : buffers) {
+				this.transferFrom(buffer);
+			}
+			return;
+		}
+		while (buffers[buffers.length - 1].hasRemaining()) {
+			((GatheringByteChannel) this.channel).write(buffers);
+		}
+	}
+}
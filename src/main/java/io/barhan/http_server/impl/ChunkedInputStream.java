@@ -0,0 +1,179 @@
+package io.barhan.http_server.impl;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+
+import io.barhan.http_server.exception.BadRequestException;
+import io.barhan.http_server.exception.PayloadTooLargeException;
+import io.barhan.http_server.exception.RequestHeaderFieldsTooLargeException;
+
+class ChunkedInputStream extends InputStream {
+	private static final int MAX_CHUNK_LINE_LENGTH = 1024;
+
+	private final InputStream in;
+	private final String firstLine;
+	private final long maxBodySize;
+	private final int maxTrailerSize;
+	private final int maxTrailerCount;
+	private long chunkRemaining;
+	private long bodySize;
+	private boolean chunkStarted;
+	private boolean finished;
+
+	ChunkedInputStream(InputStream in, String firstLine, long maxBodySize, int maxTrailerSize, int maxTrailerCount) {
+		this.in = in;
+		this.firstLine = firstLine;
+		this.maxBodySize = maxBodySize;
+		this.maxTrailerSize = maxTrailerSize;
+		this.maxTrailerCount = maxTrailerCount;
+	}
+
+	@Override
+	public int read() throws IOException {
+		if (!this.nextChunk()) {
+			return -1;
+		}
+		int b = this.in.read();
+		if (b == -1) {
+			throw new EOFException("Input stream closed.");
+		}
+		this.chunkRemaining--;
+		return b;
+	}
+
+	@Override
+	public int read(byte[] b, int off, int len) throws IOException {
+		if (len == 0) {
+			return 0;
+		}
+		if (!this.nextChunk()) {
+			return -1;
+		}
+		int read = this.in.read(b, off, (int) Math.min(len, this.chunkRemaining));
+		if (read == -1) {
+			throw new EOFException("Input stream closed.");
+		}
+		this.chunkRemaining -= read;
+		return read;
+	}
+
+	@Override
+	public long skip(long n) throws IOException {
+		if (n <= 0 || !this.nextChunk()) {
+			return 0;
+		}
+		long skipped = this.in.skip(Math.min(n, this.chunkRemaining));
+		if (skipped <= 0) {
+			throw new EOFException("Input stream closed.");
+		}
+		this.chunkRemaining -= skipped;
+		return skipped;
+	}
+
+	@Override
+	public int available() throws IOException {
+		return this.finished ? 0 : (int) Math.min(this.in.available(), this.chunkRemaining);
+	}
+
+	@Override
+	public void close() {
+	}
+
+	private boolean nextChunk() throws IOException {
+		if (this.finished) {
+			return false;
+		}
+		if (this.chunkRemaining > 0) {
+			return true;
+		}
+		if (this.chunkStarted && !this.readLine(MAX_CHUNK_LINE_LENGTH).isEmpty()) {
+			throw this.badRequest("Chunk data is not followed by CRLF");
+		}
+		long size = this.parseChunkSize(this.readLine(MAX_CHUNK_LINE_LENGTH));
+		if (size == 0) {
+			this.readTrailers();
+			this.finished = true;
+			return false;
+		}
+		this.bodySize += size;
+		if (this.maxBodySize > 0 && this.bodySize > this.maxBodySize) {
+			throw new PayloadTooLargeException("Chunked request body exceeds " + this.maxBodySize + " bytes",
+					this.firstLine);
+		}
+		this.chunkRemaining = size;
+		this.chunkStarted = true;
+		return true;
+	}
+
+	private long parseChunkSize(String line) {
+		int end = line.indexOf(';');
+		String size = (end == -1 ? line : line.substring(0, end)).trim();
+		if (size.isEmpty() || size.length() > 15) {
+			throw this.badRequest("Invalid chunk size: " + line);
+		}
+		long result = 0;
+		for (int i = 0; i < size.length(); i++) {
+			int digit = hexDigit(size.charAt(i));
+			if (digit == -1) {
+				throw this.badRequest("Invalid chunk size: " + line);
+			}
+			result = result * 16 + digit;
+		}
+		return result;
+	}
+
+	private static int hexDigit(char ch) {
+		if (ch >= '0' && ch <= '9') {
+			return ch - '0';
+		}
+		if (ch >= 'a' && ch <= 'f') {
+			return ch - 'a' + 10;
+		}
+		if (ch >= 'A' && ch <= 'F') {
+			return ch - 'A' + 10;
+		}
+		return -1;
+	}
+
+	private void readTrailers() throws IOException {
+		int trailerSize = 0;
+		int trailerCount = 0;
+		while (true) {
+			String line = this.readLine(this.maxTrailerSize - trailerSize);
+			if (line.isEmpty()) {
+				return;
+			}
+			trailerSize += line.length() + 2;
+			if (++trailerCount > this.maxTrailerCount) {
+				throw new RequestHeaderFieldsTooLargeException(
+						"Request has more than " + this.maxTrailerCount + " trailers", this.firstLine);
+			}
+			if (line.indexOf(':') <= 0) {
+				throw this.badRequest("Invalid trailer: " + line);
+			}
+		}
+	}
+
+	private String readLine(int maxLength) throws IOException {
+		StringBuilder line = new StringBuilder();
+		int b;
+		while ((b = this.in.read()) != '\n') {
+			if (b == -1) {
+				throw new EOFException("Input stream closed.");
+			}
+			if (b != '\r') {
+				if (line.length() >= maxLength) {
+					throw new RequestHeaderFieldsTooLargeException("Chunk size line or trailers are too large",
+							this.firstLine);
+				}
+				line.append((char) b);
+			}
+		}
+		return line.toString();
+	}
+
+	private BadRequestException badRequest(String message) {
+		return new BadRequestException(message, null, this.firstLine);
+	}
+}
@@ -0,0 +1,46 @@
+package io.barhan.http_server.impl;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+class ChunkedOutputStream extends OutputStream {
+	private static final byte[] CRLF = { '\r', '\n' };
+	private static final byte[] LAST_CHUNK = "0\r\n\r\n".getBytes(StandardCharsets.US_ASCII);
+
+	private final OutputStream out;
+
+	ChunkedOutputStream(OutputStream out) {
+		this.out = out;
+	}
+
+	@Override
+	public void write(int b) throws IOException {
+		this.write(new byte[] { (byte) b }, 0, 1);
+	}
+
+	@Override
+	public void write(byte[] b, int off, int len) throws IOException {
+		if (len == 0) {
+			return;
+		}
+		this.out.write(Integer.toHexString(len).getBytes(StandardCharsets.US_ASCII));
+		this.out.write(CRLF);
+		this.out.write(b, off, len);
+		this.out.write(CRLF);
+	}
+
+	@Override
+	public void flush() throws IOException {
+		this.out.flush();
+	}
+
+	void finish() throws IOException {
+		this.out.write(LAST_CHUNK);
+	}
+
+	@Override
+	public void close() throws IOException {
+		this.finish();
+	}
+}
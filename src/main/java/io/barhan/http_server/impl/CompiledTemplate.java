@@ -0,0 +1,71 @@
+package io.barhan.http_server.impl;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import io.barhan.http_server.HtmlTemplateManager;
+
+class CompiledTemplate {
+	private static final String PLACEHOLDER_START = "${";
+	private static final String PLACEHOLDER_END = "}";
+
+	private final String[] literals;
+	private final String[] names;
+	private final String[] placeholders;
+	private final int literalLength;
+
+	private CompiledTemplate(List<String> literals, List<String> names) {
+		this.literals = literals.toArray(new String[literals.size()]);
+		this.names = names.toArray(new String[names.size()]);
+		this.placeholders = new String[this.names.length];
+		int length = 0;
+		for (String literal : this.literals) {
+			length += literal.length();
+		}
+		for (int i = 0; i < this.names.length; i++) {
+			this.placeholders[i] = PLACEHOLDER_START + this.names[i] + PLACEHOLDER_END;
+		}
+		this.literalLength = length;
+	}
+
+	static CompiledTemplate compile(String template) {
+		List<String> literals = new ArrayList<>();
+		List<String> names = new ArrayList<>();
+		int position = 0;
+		while (true) {
+			int start = template.indexOf(PLACEHOLDER_START, position);
+			int end = start != -1 ? template.indexOf(PLACEHOLDER_END, start + PLACEHOLDER_START.length()) : -1;
+			if (end == -1) {
+				literals.add(template.substring(position));
+				return new CompiledTemplate(literals, names);
+			}
+			literals.add(template.substring(position, start));
+			names.add(template.substring(start + PLACEHOLDER_START.length(), end));
+			position = end + PLACEHOLDER_END.length();
+		}
+	}
+
+	int getLiteralLength() {
+		return this.literalLength;
+	}
+
+	void render(Map<String, Object> arguments, Writer out) throws IOException {
+		for (int i = 0; i < this.names.length; i++) {
+			out.write(this.literals[i]);
+			Object value = arguments.get(this.names[i]);
+			if (value instanceof HtmlTemplateManager.Fragment) {
+				((HtmlTemplateManager.Fragment) value).writeTo(out);
+			} else if (value instanceof CharSequence) {
+				out.append((CharSequence) value);
+			} else if (value != null || arguments.containsKey(this.names[i])) {
+				out.write(String.valueOf(value));
+			} else {
+				out.write(this.placeholders[i]);
+			}
+		}
+		out.write(this.literals[this.names.length]);
+	}
+}
@@ -0,0 +1,46 @@
+package io.barhan.http_server.impl;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+class CompositeResponseBody implements ResponseBody {
+	private final List<ResponseBody> parts;
+	private final long length;
+
+	CompositeResponseBody(List<ResponseBody> parts) {
+		this.parts = parts;
+		long length = 0;
+		for (ResponseBody part : parts) {
+			length += part.getLength();
+		}
+		this.length = length;
+	}
+
+	@Override
+	public long getLength() {
+		return this.length;
+	}
+
+	@Override
+	public void writeTo(OutputStream out) throws IOException {
+		for (ResponseBody part : this.parts) {
+			part.writeTo(out);
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		IOException failure = null;
+		for (ResponseBody part : this.parts) {
+			try {
+				part.close();
+			} catch (IOException e) {
+				failure = e;
+			}
+		}
+		if (failure != null) {
+			throw failure;
+		}
+	}
+}
@@ -0,0 +1,303 @@
+package io.barhan.http_server.impl;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.lang.StringEscapeUtils;
+
+import io.barhan.http_server.HtmlTemplateManager;
+import io.barhan.http_server.HttpRequest;
+import io.barhan.http_server.HttpResponse;
+import io.barhan.http_server.HttpServerContext;
+import io.barhan.http_server.utils.DataUtils;
+
+class DirectoryListing {
+	static final String SORT_NAME = "name";
+	static final String SORT_SIZE = "size";
+	static final String SORT_MTIME = "mtime";
+
+	private final int maxEntries;
+	private final int maxEntrySize;
+	private final Map<String, CachedListing> cache = new LinkedHashMap<>(16, 0.75f, true);
+
+	DirectoryListing(int maxEntries, int maxEntrySize) {
+		this.maxEntries = maxEntries;
+		this.maxEntrySize = maxEntrySize;
+	}
+
+	void render(HttpServerContext context, HttpRequest request, HttpResponse response, Path dir) throws IOException {
+		Query query = new Query(request.getParams());
+		FileTime lastModified = Files.getLastModifiedTime(dir);
+		String key = this.maxEntries > 0 && query.isCacheable() ? dir + "?" + query : null;
+		if (key != null) {
+			byte[] content = this.getCached(key, lastModified);
+			if (content != null) {
+				response.setBody(content);
+				return;
+			}
+		}
+		if (response.isHeadersOnly() && response instanceof ReadableHttpResponseImpl) {
+			((ReadableHttpResponseImpl) response).setResponseBody(new LengthOnlyResponseBody(-1));
+			return;
+		}
+		String root = context.getRootPath().toString();
+		String title = "List of files for " + dir.getFileName();
+		HtmlTemplateManager.Fragment body = out -> this.writeEntries(root, dir, query, out);
+		Map<String, Object> args = DataUtils
+				.buildMap(new Object[][] { { "TITLE", title }, { "HEADER", title }, { "BODY", body } });
+		if (key == null) {
+			context.getHtmlTemplateManager().processTemplate("list.html", args, response.getWriter());
+			return;
+		}
+		CapturingWriter out = new CapturingWriter(response.getWriter(), this.maxEntrySize);
+		context.getHtmlTemplateManager().processTemplate("list.html", args, out);
+		String content = out.getCapturedContent();
+		if (content != null) {
+			this.put(key, new CachedListing(lastModified, content.getBytes(StandardCharsets.UTF_8)));
+		}
+	}
+
+	private synchronized byte[] getCached(String key, FileTime lastModified) {
+		CachedListing listing = this.cache.get(key);
+		if (listing == null) {
+			return null;
+		}
+		if (!listing.lastModified.equals(lastModified)) {
+			this.cache.remove(key);
+			return null;
+		}
+		return listing.content;
+	}
+
+	private synchronized void put(String key, CachedListing listing) {
+		this.cache.put(key, listing);
+		if (this.cache.size() > this.maxEntries) {
+			this.cache.remove(this.cache.keySet().iterator().next());
+		}
+	}
+
+	synchronized int getCachedCount() {
+		return this.cache.size();
+	}
+
+	private void writeEntries(String root, Path dir, Query query, Writer out) throws IOException {
+		boolean hasNext;
+		if (query.sort == null) {
+			hasNext = this.writeUnsorted(root, dir, query, out);
+		} else {
+			hasNext = this.writeSorted(root, dir, query, out);
+		}
+		if (query.pageSize > 0) {
+			this.writePageLinks(query, hasNext, out);
+		}
+	}
+
+	private boolean writeUnsorted(String root, Path dir, Query query, Writer out) throws IOException {
+		long skip = query.getOffset();
+		long remaining = query.pageSize > 0 ? query.pageSize : Long.MAX_VALUE;
+		try (DirectoryStream<Path> directoryStream = Files.newDirectoryStream(dir)) {
+			for (Path path : directoryStream) {
+				if (skip > 0) {
+					skip--;
+				} else if (remaining == 0) {
+					return true;
+				} else {
+					this.writeEntry(root, path, out);
+					remaining--;
+				}
+			}
+		}
+		return false;
+	}
+
+	private boolean writeSorted(String root, Path dir, Query query, Writer out) throws IOException {
+		List<Entry> entries = new ArrayList<>();
+		try (DirectoryStream<Path> directoryStream = Files.newDirectoryStream(dir)) {
+			for (Path path : directoryStream) {
+				BasicFileAttributes attributes = null;
+				if (!SORT_NAME.equals(query.sort)) {
+					try {
+						attributes = Files.readAttributes(path, BasicFileAttributes.class);
+					} catch (NoSuchFileException e) {
+						continue;
+					}
+				}
+				entries.add(new Entry(path, attributes));
+			}
+		}
+		Collections.sort(entries, this.getComparator(query));
+		long offset = Math.min(query.getOffset(), entries.size());
+		long end = query.pageSize > 0 ? Math.min(offset + query.pageSize, entries.size()) : entries.size();
+		for (int i = (int) offset; i < end; i++) {
+			this.writeEntry(root, entries.get(i).path, out);
+		}
+		return end < entries.size();
+	}
+
+	private Comparator<Entry> getComparator(Query query) {
+		Comparator<Entry> comparator;
+		if (SORT_SIZE.equals(query.sort)) {
+			comparator = Comparator.comparingLong(e -> e.attributes.size());
+		} else if (SORT_MTIME.equals(query.sort)) {
+			comparator = Comparator.comparing(e -> e.attributes.lastModifiedTime());
+		} else {
+			comparator = Comparator.comparing(e -> e.name);
+		}
+		comparator = comparator.thenComparing(e -> e.name);
+		return query.descending ? comparator.reversed() : comparator;
+	}
+
+	private void writeEntry(String root, Path path, Writer out) throws IOException {
+		out.write("<a href=\"");
+		out.write(StringEscapeUtils.escapeHtml(path.toString().replace(root, "")));
+		out.write("\">");
+		out.write(StringEscapeUtils.escapeHtml(String.valueOf(path.getFileName())));
+		out.write("</a><br>\r\n");
+	}
+
+	private void writePageLinks(Query query, boolean hasNext, Writer out) throws IOException {
+		out.write("<p>");
+		if (query.page > 1) {
+			out.write("<a href=\"?" + StringEscapeUtils.escapeHtml(query.toQueryString(query.page - 1))
+					+ "\">Previous</a> ");
+		}
+		out.write("Page " + query.page);
+		if (hasNext) {
+			out.write(" <a href=\"?" + StringEscapeUtils.escapeHtml(query.toQueryString(query.page + 1))
+					+ "\">Next</a>");
+		}
+		out.write("</p>\r\n");
+	}
+
+	private static int parsePositiveInt(String value, int defaultValue) {
+		if (value == null) {
+			return defaultValue;
+		}
+		try {
+			int result = Integer.parseInt(value.trim());
+			return result > 0 ? result : defaultValue;
+		} catch (NumberFormatException e) {
+			return defaultValue;
+		}
+	}
+
+	private static class Query {
+		private final String sort;
+		private final boolean descending;
+		private final int page;
+		private final int pageSize;
+
+		Query(Map<String, String> params) {
+			String sort = params.get("sort");
+			this.sort = SORT_NAME.equals(sort) || SORT_SIZE.equals(sort) || SORT_MTIME.equals(sort) ? sort : null;
+			this.descending = this.sort != null && "desc".equals(params.get("order"));
+			this.pageSize = parsePositiveInt(params.get("size"), 0);
+			this.page = this.pageSize > 0 ? parsePositiveInt(params.get("page"), 1) : 1;
+		}
+
+		boolean isCacheable() {
+			return this.sort == null || SORT_NAME.equals(this.sort);
+		}
+
+		long getOffset() {
+			return (long) (this.page - 1) * this.pageSize;
+		}
+
+		String toQueryString(int page) {
+			StringBuilder query = new StringBuilder();
+			if (this.sort != null) {
+				query.append("sort=").append(this.sort).append("&order=").append(this.descending ? "desc" : "asc")
+						.append('&');
+			}
+			return query.append("page=").append(page).append("&size=").append(this.pageSize).toString();
+		}
+
+		@Override
+		public String toString() {
+			return this.toQueryString(this.page);
+		}
+	}
+
+	private static class Entry {
+		private final Path path;
+		private final String name;
+		private final BasicFileAttributes attributes;
+
+		Entry(Path path, BasicFileAttributes attributes) {
+			this.path = path;
+			this.name = String.valueOf(path.getFileName());
+			this.attributes = attributes;
+		}
+	}
+
+	private static class CachedListing {
+		private final FileTime lastModified;
+		private final byte[] content;
+
+		CachedListing(FileTime lastModified, byte[] content) {
+			this.lastModified = lastModified;
+			this.content = content;
+		}
+	}
+
+	private static class CapturingWriter extends Writer {
+		private final Writer out;
+		private final int maxSize;
+		private StringBuilder captured = new StringBuilder();
+
+		CapturingWriter(Writer out, int maxSize) {
+			this.out = out;
+			this.maxSize = maxSize;
+		}
+
+		@Override
+		public void write(char[] cbuf, int off, int len) throws IOException {
+			this.out.write(cbuf, off, len);
+			if (this.reserve(len)) {
+				this.captured.append(cbuf, off, len);
+			}
+		}
+
+		@Override
+		public void write(String str, int off, int len) throws IOException {
+			this.out.write(str, off, len);
+			if (this.reserve(len)) {
+				this.captured.append(str, off, off + len);
+			}
+		}
+
+		private boolean reserve(int len) {
+			if (this.captured != null && this.captured.length() + len > this.maxSize) {
+				this.captured = null;
+			}
+			return this.captured != null;
+		}
+
+		String getCapturedContent() {
+			return this.captured != null ? this.captured.toString() : null;
+		}
+
+		@Override
+		public void flush() throws IOException {
+			this.out.flush();
+		}
+
+		@Override
+		public void close() throws IOException {
+			this.out.flush();
+		}
+	}
+}
@@ -0,0 +1,53 @@
+package io.barhan.http_server.impl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.apache.commons.io.IOUtils;
+
+class FileResponseBody implements ResponseBody {
+	private final Path path;
+	private final long position;
+	private final long length;
+
+	FileResponseBody(Path path, long length) {
+		this(path, 0, length);
+	}
+
+	FileResponseBody(Path path, long position, long length) {
+		this.path = path;
+		this.position = position;
+		this.length = length;
+	}
+
+	Path getPath() {
+		return this.path;
+	}
+
+	@Override
+	public long getLength() {
+		return this.length;
+	}
+
+	@Override
+	public void writeTo(OutputStream out) throws IOException {
+		try (FileChannel file = FileChannel.open(this.path, StandardOpenOption.READ)) {
+			if (out instanceof FileTransferTarget) {
+				((FileTransferTarget) out).transferFrom(file, this.position, this.length);
+			} else {
+				InputStream in = Channels.newInputStream(file.position(this.position));
+				IOUtils.copyLarge(in, out, 0, this.length);
+			}
+		}
+	}
+
+	@Override
+	public ResponseBody slice(long position, long length) {
+		return new FileResponseBody(this.path, this.position + position, length);
+	}
+}
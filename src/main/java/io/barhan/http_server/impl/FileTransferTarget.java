@@ -0,0 +1,13 @@
+package io.barhan.http_server.impl;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+interface FileTransferTarget {
+	void transferFrom(FileChannel file, long position, long count) throws IOException;
+
+	void transferFrom(ByteBuffer buffer) throws IOException;
+
+	void write(ByteBuffer[] buffers) throws IOException;
+}
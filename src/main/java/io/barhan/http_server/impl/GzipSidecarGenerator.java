@@ -0,0 +1,133 @@
+package io.barhan.http_server.impl;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.commons.io.FilenameUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.barhan.http_server.HttpServerContext;
+import io.barhan.http_server.utils.HttpUtils;
+
+class GzipSidecarGenerator implements Closeable {
+	private static final Logger LOGGER = LoggerFactory.getLogger(GzipSidecarGenerator.class);
+	private static final String SIDECAR_EXTENSION = ".gz";
+
+	private final WebRootWatcher watcher;
+	private final HttpServerContext context;
+	private final long minSize;
+	private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+		Thread thread = new Thread(r, "GzipSidecarGenerator");
+		thread.setDaemon(true);
+		thread.setPriority(Thread.MIN_PRIORITY);
+		return thread;
+	});
+
+	GzipSidecarGenerator(WebRootWatcher watcher, HttpServerContext context, long minSize) {
+		this.watcher = watcher;
+		this.context = context;
+		this.minSize = minSize;
+	}
+
+	static Path getSidecarPath(Path file) {
+		return Paths.get(getSidecarPath(file.toString()));
+	}
+
+	static String getSidecarPath(String file) {
+		return file + SIDECAR_EXTENSION;
+	}
+
+	void start() {
+		this.watcher.addListener(path -> this.submit(() -> this.generateAll(path)));
+		this.watcher.ensureStarted();
+		this.submit(() -> this.generateAll(this.watcher.getRoot()));
+	}
+
+	private void submit(Runnable task) {
+		try {
+			this.executor.execute(task);
+		} catch (RejectedExecutionException e) {
+			LOGGER.debug("Gzip sidecar generator stopped");
+		}
+	}
+
+	void generateAll(Path dir) {
+		if (!Files.isDirectory(dir)) {
+			this.generate(dir);
+			return;
+		}
+		try (Stream<Path> files = Files.walk(dir)) {
+			files.forEach(this::generate);
+		} catch (IOException | RuntimeException e) {
+			LOGGER.warn("Generating gzip sidecars failed: " + e.getMessage(), e);
+		}
+	}
+
+	private void generate(Path file) {
+		try {
+			if (!this.isCandidate(file)) {
+				return;
+			}
+			BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+			if (!attributes.isRegularFile() || attributes.size() < this.minSize) {
+				return;
+			}
+			Path sidecar = getSidecarPath(file);
+			if (Files.exists(sidecar)
+					&& Files.getLastModifiedTime(sidecar).compareTo(attributes.lastModifiedTime()) >= 0) {
+				return;
+			}
+			this.compress(file, sidecar, attributes.lastModifiedTime());
+		} catch (NoSuchFileException e) {
+			LOGGER.debug("File removed before compression: {}", file);
+		} catch (IOException e) {
+			LOGGER.warn("Generating gzip sidecar for " + file + " failed: " + e.getMessage(), e);
+		}
+	}
+
+	private boolean isCandidate(Path file) {
+		String name = file.getFileName().toString();
+		if (name.endsWith(SIDECAR_EXTENSION) || name.startsWith(".")) {
+			return false;
+		}
+		return HttpUtils.isCompressible(this.context.getContentType(FilenameUtils.getExtension(name)));
+	}
+
+	private void compress(Path file, Path sidecar, FileTime lastModified) throws IOException {
+		Path temp = sidecar.resolveSibling("." + sidecar.getFileName() + ".tmp");
+		try {
+			try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(temp)) {
+				{
+					this.def.setLevel(Deflater.BEST_COMPRESSION);
+				}
+			}) {
+				Files.copy(file, out);
+			}
+			Files.setLastModifiedTime(temp, lastModified);
+			Files.move(temp, sidecar, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			LOGGER.debug("Generated gzip sidecar {}", sidecar);
+		} finally {
+			Files.deleteIfExists(temp);
+		}
+	}
+
+	@Override
+	public void close() {
+		this.executor.shutdownNow();
+	}
+}
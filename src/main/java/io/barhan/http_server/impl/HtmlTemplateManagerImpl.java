@@ -2,51 +2,75 @@ package io.barhan.http_server.impl;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.Writer;
 import java.nio.charset.StandardCharsets;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.output.StringBuilderWriter;
 
 import io.barhan.http_server.HtmlTemplateManager;
 import io.barhan.http_server.exception.HttpServerException;
 
 class HtmlTemplateManagerImpl implements HtmlTemplateManager {
-	private final Map<String, String> templates = new HashMap<>();
+	static final String[] BUNDLED_TEMPLATES = { "error.html", "list.html", "server-info.html" };
+	private static final int MAX_RETAINED_BUFFER_SIZE = 65536;
+
+	private final ConcurrentMap<String, CompiledTemplate> templates = new ConcurrentHashMap<>();
+	private final ThreadLocal<StringBuilder> buffers = ThreadLocal.withInitial(StringBuilder::new);
+
+	void preloadTemplates() {
+		for (String templateName : BUNDLED_TEMPLATES) {
+			this.getTemplate(templateName);
+		}
+	}
 
 	@Override
 	public String processTemplate(String templateName, Map<String, Object> arguments) {
-		String template = this.getTemplate(templateName);
-		return this.populateTemplate(template, arguments);
+		CompiledTemplate template = this.getTemplate(templateName);
+		StringBuilder buffer = this.buffers.get();
+		buffer.setLength(0);
+		buffer.ensureCapacity(template.getLiteralLength());
+		try {
+			template.render(arguments, new StringBuilderWriter(buffer));
+		} catch (IOException e) {
+			throw new HttpServerException("Rendering template " + templateName + " failed: " + e.getMessage(), e);
+		}
+		String html = buffer.toString();
+		if (buffer.capacity() > MAX_RETAINED_BUFFER_SIZE) {
+			this.buffers.remove();
+		}
+		return html;
+	}
+
+	@Override
+	public void processTemplate(String templateName, Map<String, Object> arguments, Writer out) throws IOException {
+		this.getTemplate(templateName).render(arguments, out);
 	}
 
 	protected InputStream getClasspathResource(String name) {
 		return HtmlTemplateManagerImpl.class.getClassLoader().getResourceAsStream(name);
 	}
 
-	private String getTemplate(String templateName) {
-		String template = this.templates.get(templateName);
+	private CompiledTemplate getTemplate(String templateName) {
+		CompiledTemplate template = this.templates.get(templateName);
 		if (template == null) {
-			try (InputStream in = this.getClasspathResource("html/templates/" + templateName)) {
-				if (in == null) {
-					throw new HttpServerException(
-							"Classpath resource \"html/templates/" + templateName + "\" not found!");
-				}
-				template = IOUtils.toString(in, StandardCharsets.UTF_8);
-				this.templates.put(templateName, template);
-			} catch (IOException e) {
-				throw new HttpServerException("Cannot load template: " + templateName, e);
-			}
+			template = this.templates.computeIfAbsent(templateName, this::loadTemplate);
 		}
 		return template;
 	}
 
-	private String populateTemplate(String template, Map<String, Object> args) {
-		String html = template;
-		for (Map.Entry<String, Object> entry : args.entrySet()) {
-			html = html.replace("${" + entry.getKey() + "}", String.valueOf(entry.getValue()));
+	private CompiledTemplate loadTemplate(String templateName) {
+		try (InputStream in = this.getClasspathResource("html/templates/" + templateName)) {
+			if (in == null) {
+				throw new HttpServerException("Classpath resource \"html/templates/" + templateName + "\" not found!");
+			}
+			return CompiledTemplate.compile(IOUtils.toString(in, StandardCharsets.UTF_8));
+		} catch (IOException e) {
+			throw new HttpServerException("Cannot load template: " + templateName, e);
 		}
-		return html;
 	}
 
 }
@@ -0,0 +1,36 @@
+package io.barhan.http_server.impl;
+
+import io.barhan.http_server.utils.HttpUtils;
+
+final class HttpDateCache {
+	private static final int SIZE = 64;
+	private static final Entry[] ENTRIES = new Entry[SIZE];
+
+	private HttpDateCache() {
+	}
+
+	static String now() {
+		return format(System.currentTimeMillis());
+	}
+
+	static String format(long millis) {
+		long seconds = Math.floorDiv(millis, 1000);
+		int index = (int) (seconds & (SIZE - 1));
+		Entry entry = ENTRIES[index];
+		if (entry == null || entry.seconds != seconds) {
+			entry = new Entry(seconds, HttpUtils.formatHttpDate(seconds * 1000));
+			ENTRIES[index] = entry;
+		}
+		return entry.text;
+	}
+
+	private static final class Entry {
+		private final long seconds;
+		private final String text;
+
+		Entry(long seconds, String text) {
+			this.seconds = seconds;
+			this.text = text;
+		}
+	}
+}
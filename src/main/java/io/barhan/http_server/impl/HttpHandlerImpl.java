@@ -1,82 +1,168 @@
 package io.barhan.http_server.impl;
 
 import java.io.IOException;
-import java.io.InputStream;
-import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.Date;
-import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.io.FilenameUtils;
 
+import io.barhan.http_server.Constants;
 import io.barhan.http_server.HttpHandler;
 import io.barhan.http_server.HttpRequest;
 import io.barhan.http_server.HttpResponse;
 import io.barhan.http_server.HttpServerContext;
-import io.barhan.http_server.utils.DataUtils;
+import io.barhan.http_server.utils.HttpUtils;
 
 class HttpHandlerImpl implements HttpHandler {
+    private final StaticFileCache staticFileCache;
+    private final String etagMode;
+    private final WebRootIndex webRootIndex;
+    private final DirectoryListing directoryListing;
+
+    HttpHandlerImpl(StaticFileCache staticFileCache, String etagMode, WebRootIndex webRootIndex,
+            DirectoryListing directoryListing) {
+        this.staticFileCache = staticFileCache;
+        this.etagMode = etagMode;
+        this.webRootIndex = webRootIndex;
+        this.directoryListing = directoryListing;
+    }
 
     @Override
     public void handle(HttpServerContext context, HttpRequest request, HttpResponse response) throws IOException {
         String url = request.getURI();
-        Path path = Paths.get(context.getRootPath().toString() + url);
+        if (this.webRootIndex != null && this.webRootIndex.isActive()) {
+            WebRootIndex.Entry entry = this.webRootIndex.get(url);
+            if (entry == null) {
+                response.setStatus(404);
+            } else if (entry.isDirectory()) {
+                this.directoryListing.render(context, request, response, entry.getPath());
+            } else {
+                this.handleFileUrl(context, request, response, entry.getPath(), entry);
+            }
+            return;
+        }
+        Path path = Paths.get(context.getRootPath().toString() + url).normalize();
         if (Files.exists(path)) {
             if (Files.isDirectory(path)) {
-                this.handleDirectoryUrl(context, response, path);
+                this.directoryListing.render(context, request, response, path);
                 return;
             }
-            this.handleFileUrl(context, response, path);
+            this.handleFileUrl(context, request, response, path, null);
             return;
         }
         response.setStatus(404);
     }
 
-    private void handleFileUrl(HttpServerContext context, HttpResponse response, Path path) throws IOException {
-        this.setEntityHeaders(context, response, path);
-        try (InputStream in = Files.newInputStream(path, StandardOpenOption.READ)) {
-            response.setBody(in);
-        }
-    }
-
-    private void setEntityHeaders(HttpServerContext context, HttpResponse response, Path path) throws IOException {
+    private void handleFileUrl(HttpServerContext context, HttpRequest request, HttpResponse response, Path path,
+            WebRootIndex.Entry entry) throws IOException {
         String extension = FilenameUtils.getExtension(path.toString());
-        response.setHeader("Content-Type", context.getContentType(extension));
-        response.setHeader("Last-Modified", Files.getLastModifiedTime(path, LinkOption.NOFOLLOW_LINKS));
+        StaticFile file = this.getStaticFile(context, path, extension, entry);
+        StaticFile representation = file;
+        if (HttpUtils.isCompressible(file.getContentType())) {
+            response.setHeader("Vary", "Accept-Encoding");
+            StaticFile sidecar = this.getGzipSidecar(context, request, response, file, entry);
+            if (sidecar != null) {
+                response.setHeader("Content-Encoding", "gzip");
+                representation = sidecar;
+            }
+        }
+        String etag = this.getETag(representation);
+        response.setHeader("Content-Type", file.getContentType());
+        response.setHeader("Last-Modified", representation.getLastModified());
+        response.setHeader("ETag", etag);
+        response.setHeader("Accept-Ranges", "bytes");
         Integer expiresDays = context.getExpiresDaysForResource(extension);
         if (expiresDays != null) {
             response.setHeader("Expires", new Date(System.currentTimeMillis() + TimeUnit.DAYS.toMillis(expiresDays)));
         }
+        if (this.isNotModified(request, response, representation, etag)) {
+            response.setStatus(304);
+            return;
+        }
+        if (!response.isHeadersOnly()) {
+            representation = this.loadContent(context, representation);
+        }
+        representation.setBody(response);
+    }
+
+    private String getETag(StaticFile file) {
+        if (Constants.WEAK_ETAG.equals(this.etagMode)) {
+            return "W/" + file.getETag();
+        }
+        if (Constants.CONTENT_ETAG.equals(this.etagMode)) {
+            return file.getContentETag();
+        }
+        return file.getETag();
     }
 
-    private void handleDirectoryUrl(HttpServerContext context, HttpResponse response, Path path) throws IOException {
-        String content = this.getResponseForDirectory(context, path);
-        response.setBody(content);
+    private boolean isNotModified(HttpRequest request, HttpResponse response, StaticFile file, String etag) {
+        if (!Constants.GET.equals(request.getMethod()) && !Constants.HEAD.equals(request.getMethod())) {
+            return false;
+        }
+        String ifNoneMatch = request.getHeaders().get("If-None-Match");
+        if (ifNoneMatch != null) {
+            for (String candidate : new String[]{etag, ResponseCompressor.getEncodedETag(etag, ResponseCompressor.GZIP),
+                    ResponseCompressor.getEncodedETag(etag, ResponseCompressor.DEFLATE)}) {
+                if (HttpUtils.isETagMatched(ifNoneMatch, candidate)) {
+                    response.setHeader("ETag", candidate);
+                    return true;
+                }
+            }
+            return false;
+        }
+        long ifModifiedSince = HttpUtils.parseHttpDate(request.getHeaders().get("If-Modified-Since"));
+        return ifModifiedSince >= 0 && file.getLastModified().toMillis() / 1000 <= ifModifiedSince / 1000;
     }
 
-    private String getResponseForDirectory(HttpServerContext context, Path dir) throws IOException {
-        String root = context.getRootPath().toString();
-        StringBuilder htmlBody = new StringBuilder();
+    private StaticFile getStaticFile(HttpServerContext context, Path path, String extension,
+            WebRootIndex.Entry entry) throws IOException {
+        StaticFile file = Constants.CONTENT_ETAG.equals(this.etagMode) ? this.staticFileCache.get(context, path)
+                : this.staticFileCache.getIfPresent(path);
+        if (file != null) {
+            return file;
+        }
+        if (entry != null) {
+            return entry.getFile();
+        }
+        BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class,
+                LinkOption.NOFOLLOW_LINKS);
+        return new StaticFile(path, context.getContentType(extension), attributes.lastModifiedTime(),
+                attributes.size());
+    }
 
-        try (DirectoryStream<Path> directoryStream = Files.newDirectoryStream(dir)) {
-            for (Path path : directoryStream) {
-                htmlBody.append("<a href=\"").append(getHref(root, path)).append("\">").append(path.getFileName())
-                        .append("</a><br>\r\n");
-            }
+    private StaticFile loadContent(HttpServerContext context, StaticFile file) throws IOException {
+        if (file.getContent() != null) {
+            return file;
         }
-        Map<String, Object> args = DataUtils
-                .buildMap(new Object[][]{{"TITLE", "List of files for " + dir.getFileName()},
-                        {"HEADER", "List of files for " + dir.getFileName()}, {"BODY", htmlBody}});
-        return context.getHtmlTemplateManager().processTemplate("list.html", args);
+        StaticFile cached = this.staticFileCache.get(context, file.getPath());
+        return cached != null && cached.getETag().equals(file.getETag()) ? cached : file;
     }
 
-    private String getHref(String root, Path path) {
-        return path.toString().replace(root, "");
+    private StaticFile getGzipSidecar(HttpServerContext context, HttpRequest request, HttpResponse response,
+            StaticFile file, WebRootIndex.Entry entry) throws IOException {
+        if (!HttpUtils.isEncodingAccepted(request.getHeaders().get("Accept-Encoding"), "gzip")) {
+            return null;
+        }
+        WebRootIndex.Entry sidecarEntry = null;
+        if (entry != null) {
+            sidecarEntry = this.webRootIndex.get(GzipSidecarGenerator.getSidecarPath(entry.getUri()));
+            if (sidecarEntry == null || sidecarEntry.isDirectory()) {
+                return null;
+            }
+        }
+        try {
+            StaticFile sidecar = this.getStaticFile(context, GzipSidecarGenerator.getSidecarPath(file.getPath()),
+                    "gz", sidecarEntry);
+            return sidecar.isNotOlderThan(file) ? sidecar : null;
+        } catch (NoSuchFileException e) {
+            return null;
+        }
     }
 
 }
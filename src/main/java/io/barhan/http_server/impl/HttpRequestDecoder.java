@@ -0,0 +1,325 @@
+package io.barhan.http_server.impl;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import io.barhan.http_server.Constants;
+import io.barhan.http_server.exception.BadRequestException;
+import io.barhan.http_server.exception.RequestHeaderFieldsTooLargeException;
+
+class HttpRequestDecoder {
+	private static final String CONTENT_LENGTH = "Content-Length";
+	private static final String TRANSFER_ENCODING = "Transfer-Encoding";
+
+	private enum State {
+		METHOD, URI, VERSION, LINE_START, HEADER_NAME, HEADER_VALUE_START, HEADER_VALUE, COMPLETE
+	}
+
+	private final int maxHeaderSize;
+	private final int maxHeaderCount;
+
+	private State state = State.METHOD;
+	private byte[] token = new byte[64];
+	private int tokenLength;
+	private byte[] headerData = new byte[256];
+	private int headerDataLength;
+	private int[] headerOffsets = new int[32];
+	private int headerCount;
+	private int nameStart = -1;
+	private int nameEnd;
+	private int valueStart;
+	private int valueEnd;
+	private boolean folded;
+	private int headSize;
+	private String method;
+	private String uri;
+	private String httpVersion;
+	private int contentLength = -1;
+	private boolean transferEncoding;
+	private RequestHeaders headers;
+
+	HttpRequestDecoder(int maxHeaderSize, int maxHeaderCount) {
+		this.maxHeaderSize = maxHeaderSize;
+		this.maxHeaderCount = maxHeaderCount;
+	}
+
+	void reset() {
+		this.state = State.METHOD;
+		this.tokenLength = 0;
+		this.headerDataLength = 0;
+		this.headerCount = 0;
+		this.nameStart = -1;
+		this.nameEnd = 0;
+		this.valueStart = 0;
+		this.valueEnd = 0;
+		this.folded = false;
+		this.headSize = 0;
+		this.method = null;
+		this.uri = null;
+		this.httpVersion = null;
+		this.contentLength = -1;
+		this.transferEncoding = false;
+		this.headers = null;
+	}
+
+	boolean decode(ByteBuffer buffer) {
+		while (this.state != State.COMPLETE && buffer.hasRemaining()) {
+			byte b = buffer.get();
+			if (this.headSize == 0 && this.state == State.METHOD && (b == '\r' || b == '\n')) {
+				continue;
+			}
+			if (++this.headSize > this.maxHeaderSize) {
+				throw new RequestHeaderFieldsTooLargeException(
+						"Request line and headers exceed " + this.maxHeaderSize + " bytes", this.getFirstLine());
+			}
+			this.decode(b);
+		}
+		return this.state == State.COMPLETE;
+	}
+
+	private void decode(byte b) {
+		switch (this.state) {
+		case METHOD:
+			if (b == ' ') {
+				this.method = this.requireToken("Request method is missing", Constants.ALLOWED_METHODS);
+				this.state = State.URI;
+			} else if (b == '\r' || b == '\n') {
+				throw this.badRequest("Incomplete request line");
+			} else {
+				this.append(b);
+			}
+			break;
+		case URI:
+			if (b == ' ') {
+				this.uri = this.requireToken("Request URI is missing", Collections.<String>emptyList());
+				this.state = State.VERSION;
+			} else if (b == '\r' || b == '\n') {
+				throw this.badRequest("Incomplete request line");
+			} else {
+				this.append(b);
+			}
+			break;
+		case VERSION:
+			if (b == '\n') {
+				this.httpVersion = this.requireToken("HTTP version is missing",
+						Collections.singletonList(Constants.SUPPORTED_HTTP_VERSION));
+				this.state = State.LINE_START;
+			} else if (b != '\r') {
+				this.append(b);
+			}
+			break;
+		case LINE_START:
+			if (b == '\n') {
+				this.finishHeader();
+				if (this.contentLength != -1 && this.transferEncoding) {
+					throw this.badRequest("Request has both Content-Length and Transfer-Encoding");
+				}
+				this.state = State.COMPLETE;
+			} else if (b == ' ' || b == '\t') {
+				if (this.nameStart == -1) {
+					throw this.badRequest("Header continuation without header");
+				}
+				this.headerDataLength = this.valueEnd;
+				this.folded = true;
+				this.state = State.HEADER_VALUE_START;
+			} else if (b == ':') {
+				throw this.badRequest("Header name is missing");
+			} else if (b != '\r') {
+				this.finishHeader();
+				this.nameStart = this.headerDataLength;
+				this.appendHeaderData(b);
+				this.state = State.HEADER_NAME;
+			}
+			break;
+		case HEADER_NAME:
+			if (b == ':') {
+				this.nameEnd = this.headerDataLength;
+				this.valueStart = this.headerDataLength;
+				this.valueEnd = this.headerDataLength;
+				this.state = State.HEADER_VALUE_START;
+			} else if (b == '\r' || b == '\n' || b == ' ' || b == '\t') {
+				throw this.badRequest("Invalid header name");
+			} else {
+				this.appendHeaderData(b);
+			}
+			break;
+		case HEADER_VALUE_START:
+			if (b == '\r' || b == '\n') {
+				this.decodeValue(b);
+			} else if (b != ' ' && b != '\t') {
+				if (this.folded && this.valueEnd > this.valueStart) {
+					this.appendHeaderData((byte) ' ');
+				}
+				this.folded = false;
+				this.state = State.HEADER_VALUE;
+				this.decodeValue(b);
+			}
+			break;
+		case HEADER_VALUE:
+			this.decodeValue(b);
+			break;
+		default:
+			break;
+		}
+	}
+
+	private void decodeValue(byte b) {
+		if (b == '\n') {
+			this.folded = false;
+			this.state = State.LINE_START;
+		} else if (b != '\r') {
+			this.appendHeaderData(b);
+			if (b != ' ' && b != '\t') {
+				this.valueEnd = this.headerDataLength;
+			}
+		}
+	}
+
+	private void finishHeader() {
+		if (this.nameStart == -1) {
+			return;
+		}
+		if (this.headerCount >= this.maxHeaderCount) {
+			throw new RequestHeaderFieldsTooLargeException("Request has more than " + this.maxHeaderCount + " headers",
+					this.getFirstLine());
+		}
+		if (this.headerOffsets.length < (this.headerCount + 1) * 4) {
+			this.headerOffsets = Arrays.copyOf(this.headerOffsets, this.headerOffsets.length * 2);
+		}
+		int offset = this.headerCount++ * 4;
+		this.headerOffsets[offset] = this.nameStart;
+		this.headerOffsets[offset + 1] = this.nameEnd;
+		this.headerOffsets[offset + 2] = this.valueStart;
+		this.headerOffsets[offset + 3] = this.valueEnd;
+		if (this.isHeaderName(CONTENT_LENGTH)) {
+			int contentLength = this.parseContentLength();
+			if (this.contentLength != -1 && this.contentLength != contentLength) {
+				throw this.badRequest("Conflicting Content-Length headers");
+			}
+			this.contentLength = contentLength;
+		} else if (this.isHeaderName(TRANSFER_ENCODING)) {
+			if (this.transferEncoding) {
+				throw this.badRequest("Duplicate Transfer-Encoding headers");
+			}
+			this.transferEncoding = true;
+		}
+		this.headerDataLength = this.valueEnd;
+		this.nameStart = -1;
+	}
+
+	private boolean isHeaderName(String name) {
+		if (this.nameEnd - this.nameStart != name.length()) {
+			return false;
+		}
+		for (int i = 0; i < name.length(); i++) {
+			int b = this.headerData[this.nameStart + i];
+			char ch = name.charAt(i);
+			if (b != ch && (b | 0x20) != (ch | 0x20)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private int parseContentLength() {
+		long value = 0;
+		for (int i = this.valueStart; i < this.valueEnd; i++) {
+			int digit = this.headerData[i] - '0';
+			if (digit < 0 || digit > 9 || value > Integer.MAX_VALUE) {
+				value = -1;
+				break;
+			}
+			value = value * 10 + digit;
+		}
+		if (value < 0 || value > Integer.MAX_VALUE || this.valueStart == this.valueEnd) {
+			throw this.badRequest("Invalid Content-Length: "
+					+ new String(this.headerData, this.valueStart, this.valueEnd - this.valueStart, StandardCharsets.UTF_8));
+		}
+		return (int) value;
+	}
+
+	private void appendHeaderData(byte b) {
+		if (this.headerDataLength == this.headerData.length) {
+			this.headerData = Arrays.copyOf(this.headerData, this.headerData.length * 2);
+		}
+		this.headerData[this.headerDataLength++] = b;
+	}
+
+	private String requireToken(String message, List<String> knownValues) {
+		if (this.tokenLength == 0) {
+			throw this.badRequest(message);
+		}
+		String value = null;
+		for (String knownValue : knownValues) {
+			if (this.tokenEquals(knownValue)) {
+				value = knownValue;
+				break;
+			}
+		}
+		if (value == null) {
+			value = new String(this.token, 0, this.tokenLength, StandardCharsets.UTF_8);
+		}
+		this.tokenLength = 0;
+		return value;
+	}
+
+	private boolean tokenEquals(String value) {
+		if (value.length() != this.tokenLength) {
+			return false;
+		}
+		for (int i = 0; i < this.tokenLength; i++) {
+			if (this.token[i] != value.charAt(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private void append(byte b) {
+		if (this.tokenLength == this.token.length) {
+			byte[] temp = this.token;
+			this.token = new byte[temp.length * 2];
+			System.arraycopy(temp, 0, this.token, 0, this.tokenLength);
+		}
+		this.token[this.tokenLength++] = b;
+	}
+
+	private BadRequestException badRequest(String message) {
+		return new BadRequestException(message, null, this.getFirstLine());
+	}
+
+	String getFirstLine() {
+		if (this.httpVersion == null) {
+			return null;
+		}
+		return this.method + " " + this.uri + " " + this.httpVersion;
+	}
+
+	String getMethod() {
+		return this.method;
+	}
+
+	String getUri() {
+		return this.uri;
+	}
+
+	String getHttpVersion() {
+		return this.httpVersion;
+	}
+
+	Map<String, String> getHeaders() {
+		if (this.headers == null) {
+			this.headers = new RequestHeaders(Arrays.copyOf(this.headerData, this.headerDataLength),
+					Arrays.copyOf(this.headerOffsets, this.headerCount * 4), this.headerCount);
+		}
+		return this.headers;
+	}
+
+	int getContentLength() {
+		return this.contentLength;
+	}
+}
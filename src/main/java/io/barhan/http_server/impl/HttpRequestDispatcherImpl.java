@@ -14,20 +14,22 @@ import io.barhan.http_server.exception.HttpServerException;
 class HttpRequestDispatcherImpl implements HttpRequestDispatcher {
 
     private final HttpHandler defaultHttpHandler;
-    private final Map<String, HttpHandler> httpHandlers;
+    private final HttpRouter router;
 
     HttpRequestDispatcherImpl(HttpHandler defaultHttpHandler, Map<String, HttpHandler> httpHandlers) {
         Objects.requireNonNull(defaultHttpHandler, "Default http handler cannot be null!");
         Objects.requireNonNull(httpHandlers, "http handlers cannot be null!");
         this.defaultHttpHandler = defaultHttpHandler;
-        this.httpHandlers = httpHandlers;
+        this.router = new HttpRouter(httpHandlers);
     }
 
     @Override
     public void handle(HttpServerContext context, HttpRequest request, HttpResponse response) throws IOException {
         try {
-            HttpHandler handler = this.getHttpHandler(request);
-            handler.handle(context, request, response);
+            HttpHandler handler = this.getHttpHandler(request, response);
+            if (handler != null) {
+                handler.handle(context, request, response);
+            }
         } catch (RuntimeException e) {
             if (e instanceof HttpServerException) {
                 throw e;
@@ -37,10 +39,20 @@ class HttpRequestDispatcherImpl implements HttpRequestDispatcher {
 
     }
 
-    private HttpHandler getHttpHandler(HttpRequest request) {
-        HttpHandler handler = this.httpHandlers.get(request.getURI());
+    private HttpHandler getHttpHandler(HttpRequest request, HttpResponse response) {
+        int[] captures = this.router.getCaptures();
+        HttpRouter.Route route = this.router.match(request.getURI(), captures);
+        if (route == null) {
+            return this.defaultHttpHandler;
+        }
+        HttpHandler handler = route.getHandler(request.getMethod());
         if (handler == null) {
-            handler = this.defaultHttpHandler;
+            response.setStatus(405);
+            response.setHeader("Allow", route.getAllow());
+            return null;
+        }
+        if (route.hasParams() && request instanceof HttpRequestImpl) {
+            ((HttpRequestImpl) request).setPathParams(route.getParams(request.getURI(), captures));
         }
         return handler;
     }
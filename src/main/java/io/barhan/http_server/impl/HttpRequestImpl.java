@@ -1,9 +1,18 @@
 package io.barhan.http_server.impl;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.Map;
 
+import org.apache.commons.io.IOUtils;
+
 import io.barhan.http_server.HttpRequest;
+import io.barhan.http_server.exception.BadRequestException;
+import io.barhan.http_server.exception.HttpServerException;
+import io.barhan.http_server.utils.HttpUtils;
 
 class HttpRequestImpl implements HttpRequest {
 	private final String method;
@@ -11,21 +20,37 @@ class HttpRequestImpl implements HttpRequest {
 	private final String httpVersion;
 	private final String remoteAddress;
 	private final Map<String, String> headers;
-	private final Map<String, String> params;
+	private String paramString;
+	private Map<String, String> params;
+	private Map<String, String> pathParams = Collections.emptyMap();
+	private final InputStream body;
+	private boolean formBody;
+	private String firstLine;
 
 	public HttpRequestImpl(String method, String uri, String httpVersion, String remoteAddress,
 			Map<String, String> headers, Map<String, String> params) {
+		this(method, uri, httpVersion, remoteAddress, headers, null, null, false);
+		this.params = Collections.unmodifiableMap(params);
+	}
+
+	HttpRequestImpl(String method, String uri, String httpVersion, String remoteAddress, Map<String, String> headers,
+			String paramString, InputStream body, boolean formBody) {
 		this.method = method;
 		this.uri = uri;
 		this.httpVersion = httpVersion;
 		this.remoteAddress = remoteAddress;
-		this.headers = Collections.unmodifiableMap(headers);
-		this.params = Collections.unmodifiableMap(params);
+		this.headers = headers instanceof RequestHeaders ? headers : Collections.unmodifiableMap(headers);
+		this.paramString = paramString;
+		this.body = body != null ? body : new ByteArrayInputStream(new byte[0]);
+		this.formBody = formBody && body != null;
 	}
 
 	@Override
 	public String getFirstLine() {
-		return String.format("%s %s %s", this.getMethod(), this.getURI(), this.getHTTPVersion());
+		if (this.firstLine == null) {
+			this.firstLine = this.method + " " + this.uri + " " + this.httpVersion;
+		}
+		return this.firstLine;
 	}
 
 	@Override
@@ -55,7 +80,42 @@ class HttpRequestImpl implements HttpRequest {
 
 	@Override
 	public Map<String, String> getParams() {
+		if (this.params == null) {
+			if (this.formBody) {
+				this.paramString = this.readBody();
+				this.formBody = false;
+			}
+			try {
+				this.params = Collections.unmodifiableMap(HttpUtils.parseParams(this.paramString));
+			} catch (IllegalArgumentException e) {
+				throw new BadRequestException("Error on parsing HTTP request: " + e.getMessage(), e,
+						this.getFirstLine());
+			}
+			this.paramString = null;
+		}
 		return this.params;
 	}
 
+	private String readBody() {
+		try {
+			return new String(IOUtils.toByteArray(this.body), StandardCharsets.UTF_8);
+		} catch (IOException e) {
+			throw new HttpServerException("Can't read request body: " + e.getMessage(), e);
+		}
+	}
+
+	@Override
+	public InputStream getBody() {
+		return this.body;
+	}
+
+	@Override
+	public Map<String, String> getPathParams() {
+		return this.pathParams;
+	}
+
+	void setPathParams(Map<String, String> pathParams) {
+		this.pathParams = Collections.unmodifiableMap(pathParams);
+	}
+
 }
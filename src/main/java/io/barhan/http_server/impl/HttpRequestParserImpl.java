@@ -1,163 +1,122 @@
 package io.barhan.http_server.impl;
 
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.UnsupportedEncodingException;
-import java.net.URLDecoder;
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.LinkedHashMap;
-import java.util.List;
-import java.util.Map;
 
 import io.barhan.http_server.Constants;
 import io.barhan.http_server.HttpRequest;
 import io.barhan.http_server.config.HttpRequestParser;
 import io.barhan.http_server.exception.BadRequestException;
+import io.barhan.http_server.exception.ExpectationFailedException;
 import io.barhan.http_server.exception.HttpServerException;
 import io.barhan.http_server.exception.HttpVersionNotSupportedException;
 import io.barhan.http_server.exception.MethodNotAllowedException;
-import io.barhan.http_server.utils.DataUtils;
-import io.barhan.http_server.utils.HttpUtils;
+import io.barhan.http_server.exception.PayloadTooLargeException;
 
 class HttpRequestParserImpl implements HttpRequestParser {
+    private static final String FORM_CONTENT_TYPE = "application/x-www-form-urlencoded";
+    private static final String CHUNKED = "chunked";
+    private static final String CONTINUE_EXPECTATION = "100-continue";
+
+    private final int maxHeaderSize;
+    private final int maxHeaderCount;
+    private final int maxBodySize;
+
+    HttpRequestParserImpl(int maxHeaderSize, int maxHeaderCount, int maxBodySize) {
+        this.maxHeaderSize = maxHeaderSize;
+        this.maxHeaderCount = maxHeaderCount;
+        this.maxBodySize = maxBodySize;
+    }
 
     @Override
     public HttpRequest parseHttpRequest(InputStream inputStream, String remoteAddress)
             throws HttpServerException, IOException {
-        String firstLine = null;
+        RequestInputStream in = RequestInputStream.wrap(inputStream);
+        HttpRequestDecoder decoder = in.getDecoder(this.maxHeaderSize, this.maxHeaderCount);
         try {
-            ParsedRequest request = this.parseInputStream(inputStream);
-            return this.convertParsedRequestToHttpRequest(request, remoteAddress);
+            in.skipBody();
+            in.throwHeadFailure();
+            while (!decoder.decode(in.getBuffer())) {
+                if (!in.fill()) {
+                    throw new EOFException("Input stream closed.");
+                }
+            }
+            return this.convertDecodedRequestToHttpRequest(decoder, in, remoteAddress);
         } catch (RuntimeException e) {
             if (e instanceof HttpServerException) {
                 throw e;
             }
-            throw new BadRequestException("Error on parsing HTTP request: " + e.getMessage(), e, firstLine);
-        }
-    }
-
-    public HttpRequest convertParsedRequestToHttpRequest(ParsedRequest request, String remoteAddress)
-            throws IOException {
-        String[] firstLineData = request.firstLine.split(" ");
-        String method = firstLineData[0];
-        String uri = firstLineData[1];
-        String httpVersion = firstLineData[2];
-        validateHttpVersion(request.firstLine, httpVersion);
-        Map<String, String> headers = this.parseHeaders(request.headersLine);
-        ProcessedUri processedUri = this.extractParamsIfPresent(method, uri, httpVersion, request.messageBody);
-        return new HttpRequestImpl(method, processedUri.uri, httpVersion, remoteAddress, headers, processedUri.params);
-    }
-
-    private void validateHttpVersion(String firstLine, String httpVersion) {
-        if (!Constants.SUPPORTED_HTTP_VERSION.equals(httpVersion)) {
-            throw new HttpVersionNotSupportedException(
-                    "This server only supports " + Constants.SUPPORTED_HTTP_VERSION + " protocol", firstLine);
-        }
-    }
-
-    private Map<String, String> parseHeaders(List<String> list) {
-        Map<String, String> map = new LinkedHashMap<>();
-        String prevName = null;
-        for (String headerItem : list) {
-            prevName = this.putHeader(prevName, map, headerItem);
-        }
-        return map;
-    }
-
-    private String putHeader(String prevName, Map<String, String> map, String header) {
-        if (header.charAt(0) == ' ') {
-            String value = map.get(prevName) + header.trim();
-            map.put(prevName, value);
-            return prevName;
+            throw new BadRequestException("Error on parsing HTTP request: " + e.getMessage(), e,
+                    decoder.getFirstLine());
         }
-        int index = header.indexOf(':');
-        String name = HttpUtils.normalizeHeaderName(header.substring(0, index));
-        String value = header.substring(index + 1).trim();
-        map.put(name, value);
-        return name;
     }
 
-    private ParsedRequest parseInputStream(InputStream inputStream) throws IOException {
-        String firstLineAndHeaders = HttpUtils.readFirstLineAndHeaders(inputStream);
-        int contentLengthIndex = HttpUtils.getContentLengthIndex(firstLineAndHeaders);
-        if (contentLengthIndex != -1) {
-            int contentLength = HttpUtils.getContentLengthValue(firstLineAndHeaders, contentLengthIndex);
-            String messageBody = HttpUtils.readMessageBody(inputStream, contentLength);
-            return new ParsedRequest(firstLineAndHeaders, messageBody);
-        }
-        return new ParsedRequest(firstLineAndHeaders, null);
-    }
-
-    private ProcessedUri extractParamsIfPresent(String method, String uri, String httpVersion, String messageBody)
-            throws IOException {
-        Map<String, String> params = Collections.emptyMap();
+    private HttpRequest convertDecodedRequestToHttpRequest(HttpRequestDecoder decoder, RequestInputStream in,
+            String remoteAddress) {
+        String method = decoder.getMethod();
+        String uri = decoder.getUri();
+        String httpVersion = decoder.getHttpVersion();
+        validateHttpVersion(decoder.getFirstLine(), httpVersion);
+        String paramString = null;
+        boolean formBody = false;
         if (Constants.GET.equalsIgnoreCase(method) || Constants.HEAD.equalsIgnoreCase(method)) {
             int indexOfDelimeter = uri.indexOf('?');
             if (indexOfDelimeter != -1) {
-                return extractParamsFromUri(uri, indexOfDelimeter);
+                paramString = uri.substring(indexOfDelimeter + 1);
+                uri = uri.substring(0, indexOfDelimeter);
             }
         } else if (Constants.POST.equalsIgnoreCase(method)) {
-            if (messageBody != null && !"".equals(messageBody)) {
-                params = this.getParams(messageBody);
-            }
+            formBody = isFormContentType(decoder.getHeaders().get("Content-Type"));
         } else {
-            throw new MethodNotAllowedException(method, String.format("%s %s %s", method, uri, httpVersion));
+            throw new MethodNotAllowedException(method, decoder.getFirstLine());
         }
-        return new ProcessedUri(uri, params);
+        InputStream body = this.openBody(decoder, in);
+        return new HttpRequestImpl(method, uri, httpVersion, remoteAddress, decoder.getHeaders(), paramString, body,
+                formBody);
     }
 
-    private ProcessedUri extractParamsFromUri(String uri, int indexOfDelimeter) throws UnsupportedEncodingException {
-        String paramString = uri.substring(indexOfDelimeter + 1);
-        Map<String, String> params = this.getParams(paramString);
-        uri = uri.substring(0, indexOfDelimeter);
-        return new ProcessedUri(uri, params);
-    }
-
-    private Map<String, String> getParams(String paramString) throws UnsupportedEncodingException {
-        Map<String, String> map = new HashMap<>();
-        String[] params = paramString.split("&");
-        for (String param : params) {
-            String[] items = param.split("=");
-            if (items.length == 1) {
-                items = new String[]{items[0], ""};
-            }
-            String name = items[0];
-            String value = map.get(name);
-            if (value != null) {
-                value += "," + URLDecoder.decode(items[1], "UTF-8");
-            } else {
-                value = URLDecoder.decode(items[1], "UTF-8");
+    private InputStream openBody(HttpRequestDecoder decoder, RequestInputStream in) {
+        String firstLine = decoder.getFirstLine();
+        boolean expectContinue = isContinueExpected(decoder.getHeaders().get("Expect"), firstLine);
+        String transferEncoding = decoder.getHeaders().get("Transfer-Encoding");
+        if (transferEncoding != null) {
+            if (!CHUNKED.equalsIgnoreCase(transferEncoding.trim())) {
+                throw new BadRequestException("Unsupported Transfer-Encoding: " + transferEncoding, null, firstLine);
             }
-            map.put(name, value);
+            return in.openBody(new ChunkedInputStream(in, firstLine, this.maxBodySize, this.maxHeaderSize,
+                    this.maxHeaderCount), expectContinue);
+        }
+        int contentLength = decoder.getContentLength();
+        if (contentLength <= 0) {
+            return null;
+        }
+        if (this.maxBodySize > 0 && contentLength > this.maxBodySize) {
+            throw new PayloadTooLargeException(
+                    "Request body of " + contentLength + " bytes exceeds " + this.maxBodySize + " bytes", firstLine);
         }
-        return map;
+        return in.openBody(new RequestBodyInputStream(in, contentLength), expectContinue);
     }
 
-    private static class ParsedRequest {
-        private final String firstLine;
-        private final List<String> headersLine;
-        private final String messageBody;
-
-        public ParsedRequest(String firstLineAndHeaders, String messageBody) {
-            List<String> list = DataUtils.convertToLineList(firstLineAndHeaders);
-            this.firstLine = list.remove(0);
-            if (list.isEmpty()) {
-                this.headersLine = Collections.emptyList();
-            } else {
-                this.headersLine = Collections.unmodifiableList(list);
-            }
-            this.messageBody = messageBody;
+    private static boolean isContinueExpected(String expect, String firstLine) {
+        if (expect == null) {
+            return false;
         }
+        if (!CONTINUE_EXPECTATION.equalsIgnoreCase(expect.trim())) {
+            throw new ExpectationFailedException("Unsupported expectation: " + expect, firstLine);
+        }
+        return true;
     }
 
-    private static class ProcessedUri {
-        final String uri;
-        final Map<String, String> params;
+    private static boolean isFormContentType(String contentType) {
+        return contentType == null || contentType.regionMatches(true, 0, FORM_CONTENT_TYPE, 0,
+                FORM_CONTENT_TYPE.length());
+    }
 
-        public ProcessedUri(String uri, Map<String, String> params) {
-            this.uri = uri;
-            this.params = params;
+    private void validateHttpVersion(String firstLine, String httpVersion) {
+        if (!Constants.SUPPORTED_HTTP_VERSION.equals(httpVersion)) {
+            throw new HttpVersionNotSupportedException(
+                    "This server only supports " + Constants.SUPPORTED_HTTP_VERSION + " protocol", firstLine);
         }
     }
 }
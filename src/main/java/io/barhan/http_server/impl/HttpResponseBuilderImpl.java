@@ -1,8 +1,10 @@
 package io.barhan.http_server.impl;
 
-import java.util.Date;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.Map;
 
+import io.barhan.http_server.HttpRequest;
 import io.barhan.http_server.config.HttpResponseBuilder;
 import io.barhan.http_server.config.HttpServerConfig;
 import io.barhan.http_server.config.ReadableHttpResponse;
@@ -10,18 +12,25 @@ import io.barhan.http_server.utils.DataUtils;
 
 class HttpResponseBuilderImpl extends AbstractHttpConfigurableComponent implements HttpResponseBuilder {
 
-	public HttpResponseBuilderImpl(HttpServerConfig httpServerConfig) {
+	private final MappedFileCache mappedFileCache;
+	private final ResponseCompressor responseCompressor;
+	private final ByteRangeSelector byteRangeSelector = new ByteRangeSelector();
+
+	public HttpResponseBuilderImpl(HttpServerConfig httpServerConfig, MappedFileCache mappedFileCache,
+			ResponseCompressor responseCompressor) {
 		super(httpServerConfig);
+		this.mappedFileCache = mappedFileCache;
+		this.responseCompressor = responseCompressor;
 	}
 
 	private ReadableHttpResponse createReadableHttpResponseInstance() {
-		return new ReadableHttpResponseImpl();
+		return new ReadableHttpResponseImpl(this.mappedFileCache);
 	}
 
 	@Override
 	public ReadableHttpResponse buildNewHttpResponse() {
 		ReadableHttpResponse response = this.createReadableHttpResponseInstance();
-		response.setHeader("Date", new Date());
+		response.setHeader("Date", HttpDateCache.now());
 		response.setHeader("Server", httpServerConfig.getServerInfo().getName());
 		response.setHeader("Content-Language", "en");
 		response.setHeader("Connection", "close");
@@ -30,16 +39,38 @@ class HttpResponseBuilderImpl extends AbstractHttpConfigurableComponent implemen
 	}
 
 	@Override
-	public void prepareHttpResponse(ReadableHttpResponse response, boolean clearBody) {
+	public void prepareHttpResponse(HttpRequest request, ReadableHttpResponse response, boolean clearBody) {
+		if (response instanceof ReadableHttpResponseImpl) {
+			this.byteRangeSelector.select(request, (ReadableHttpResponseImpl) response);
+		}
 		if (response.getStatus() >= 400 && response.isBodyEmpty()) {
 			this.setDefaultResponseErrorBody(response);
 		}
-		this.setContentLength(response);
+		if (!clearBody && this.responseCompressor != null) {
+			this.responseCompressor.compress(request, response);
+		}
+		if (response.getStatus() == 304) {
+			response.getHeaders().remove("Content-Type");
+		} else {
+			this.setContentLength(response);
+		}
 		if (clearBody) {
 			this.clearBody(response);
 		}
 	}
 
+	@Override
+	public OutputStream commitHttpResponse(HttpRequest request, ReadableHttpResponse response, OutputStream out)
+			throws IOException {
+		response.getHeaders().remove("Content-Length");
+		response.setHeader("Transfer-Encoding", "chunked");
+		String encoding = this.responseCompressor != null
+				? this.responseCompressor.negotiateCommitted(request, response) : null;
+		httpServerConfig.getHttpResponseWriter().writeHttpResponse(out, response);
+		OutputStream body = new ChunkedOutputStream(out);
+		return encoding != null ? this.responseCompressor.createOutputStream(body, encoding) : body;
+	}
+
 	private void setDefaultResponseErrorBody(ReadableHttpResponse response) {
 		Map<String, Object> args = DataUtils.buildMap(new Object[][] { { "STATUS-CODE", response.getStatus() },
 				{ "STATUS-MESSAGE", httpServerConfig.getStatusMessage(response.getStatus()) } });
@@ -49,7 +80,9 @@ class HttpResponseBuilderImpl extends AbstractHttpConfigurableComponent implemen
 	}
 
 	private void setContentLength(ReadableHttpResponse response) {
-		response.setHeader("Content-Length", response.getBodyLength());
+		if (response.getBodyLength() >= 0) {
+			response.setHeader("Content-Length", response.getBodyLength());
+		}
 	}
 
 	private void clearBody(ReadableHttpResponse response) {
@@ -0,0 +1,273 @@
+package io.barhan.http_server.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.lang.StringUtils;
+
+import io.barhan.http_server.Constants;
+import io.barhan.http_server.HttpHandler;
+import io.barhan.http_server.exception.HttpServerConfigException;
+
+class HttpRouter {
+	static final String WILDCARD = "*";
+
+	private final Node root = new Node();
+	private final ThreadLocal<int[]> captures;
+	private int maxCaptures;
+
+	HttpRouter(Map<String, HttpHandler> httpHandlers) {
+		for (Map.Entry<String, HttpHandler> entry : httpHandlers.entrySet()) {
+			this.addRoute(entry.getKey(), entry.getValue());
+		}
+		this.root.compile();
+		int size = Math.max(1, this.maxCaptures) * 2;
+		this.captures = ThreadLocal.withInitial(() -> new int[size]);
+	}
+
+	private void addRoute(String key, HttpHandler handler) {
+		String method = null;
+		String pattern = key;
+		int space = key.indexOf(' ');
+		if (space != -1) {
+			method = key.substring(0, space);
+			pattern = key.substring(space + 1).trim();
+			if (!Constants.ALLOWED_METHODS.contains(method)) {
+				throw new HttpServerConfigException(
+						"Route method should be one of " + Constants.ALLOWED_METHODS + ", but was " + method);
+			}
+		}
+		if (!pattern.startsWith("/")) {
+			throw new HttpServerConfigException("Route should start with '/': " + key);
+		}
+		String[] segments = pattern.substring(1).split("/", -1);
+		List<String> paramNames = new ArrayList<>();
+		Node node = this.root;
+		Route route = null;
+		for (int i = 0; i < segments.length; i++) {
+			String segment = segments[i];
+			if (WILDCARD.equals(segment)) {
+				if (i != segments.length - 1) {
+					throw new HttpServerConfigException("Wildcard should be the last route segment: " + key);
+				}
+				paramNames.add(WILDCARD);
+				if (node.wildcardRoute == null) {
+					node.wildcardRoute = new Route();
+				}
+				route = node.wildcardRoute;
+			} else if (segment.startsWith("{") && segment.endsWith("}") && segment.length() > 2) {
+				paramNames.add(segment.substring(1, segment.length() - 1));
+				if (node.paramChild == null) {
+					node.paramChild = new Node();
+				}
+				node = node.paramChild;
+			} else {
+				node = node.staticChildren.computeIfAbsent(segment, s -> new Node());
+			}
+		}
+		if (route == null) {
+			if (node.route == null) {
+				node.route = new Route();
+			}
+			route = node.route;
+		}
+		route.add(key, method, handler, paramNames.toArray(new String[paramNames.size()]));
+		this.maxCaptures = Math.max(this.maxCaptures, paramNames.size());
+	}
+
+	int[] getCaptures() {
+		return this.captures.get();
+	}
+
+	Route match(String uri, int[] captures) {
+		if (uri == null || uri.isEmpty() || uri.charAt(0) != '/') {
+			return null;
+		}
+		int end = uri.indexOf('?');
+		return this.match(this.root, uri, 1, end != -1 ? end : uri.length(), captures, 0);
+	}
+
+	private Route match(Node node, String uri, int start, int end, int[] captures, int depth) {
+		int slash = uri.indexOf('/', start);
+		if (slash == -1 || slash > end) {
+			slash = end;
+		}
+		Node child = node.findStaticChild(uri, start, slash);
+		if (child != null) {
+			Route route = this.matchChild(child, uri, slash, end, captures, depth);
+			if (route != null) {
+				return route;
+			}
+		}
+		if (node.paramChild != null && slash > start) {
+			captures[depth * 2] = start;
+			captures[depth * 2 + 1] = slash;
+			Route route = this.matchChild(node.paramChild, uri, slash, end, captures, depth + 1);
+			if (route != null) {
+				return route;
+			}
+		}
+		if (node.wildcardRoute != null) {
+			captures[depth * 2] = start;
+			captures[depth * 2 + 1] = end;
+			return node.wildcardRoute;
+		}
+		return null;
+	}
+
+	private Route matchChild(Node child, String uri, int slash, int end, int[] captures, int depth) {
+		if (slash < end) {
+			return this.match(child, uri, slash + 1, end, captures, depth);
+		}
+		if (child.route != null) {
+			return child.route;
+		}
+		if (child.wildcardRoute != null) {
+			captures[depth * 2] = end;
+			captures[depth * 2 + 1] = end;
+			return child.wildcardRoute;
+		}
+		return null;
+	}
+
+	private static int hash(String value, int start, int end) {
+		int hash = 0;
+		for (int i = start; i < end; i++) {
+			hash = 31 * hash + value.charAt(i);
+		}
+		return hash;
+	}
+
+	private static int spread(int hash) {
+		return hash ^ (hash >>> 16);
+	}
+
+	private static class Node {
+		private final Map<String, Node> staticChildren = new HashMap<>();
+		private String[] segments;
+		private int[] hashes;
+		private Node[] children;
+		private Node paramChild;
+		private Route route;
+		private Route wildcardRoute;
+
+		private void compile() {
+			int capacity = Integer.highestOneBit(Math.max(1, this.staticChildren.size() * 2 - 1)) << 1;
+			this.segments = new String[capacity];
+			this.hashes = new int[capacity];
+			this.children = new Node[capacity];
+			for (Map.Entry<String, Node> entry : this.staticChildren.entrySet()) {
+				String segment = entry.getKey();
+				int hash = segment.hashCode();
+				int slot = spread(hash) & (capacity - 1);
+				while (this.segments[slot] != null) {
+					slot = (slot + 1) & (capacity - 1);
+				}
+				this.segments[slot] = segment;
+				this.hashes[slot] = hash;
+				this.children[slot] = entry.getValue();
+				entry.getValue().compile();
+			}
+			if (this.paramChild != null) {
+				this.paramChild.compile();
+			}
+			if (this.route != null) {
+				this.route.compile();
+			}
+			if (this.wildcardRoute != null) {
+				this.wildcardRoute.compile();
+			}
+		}
+
+		private Node findStaticChild(String uri, int start, int end) {
+			if (this.staticChildren.isEmpty()) {
+				return null;
+			}
+			int hash = hash(uri, start, end);
+			int length = end - start;
+			int mask = this.segments.length - 1;
+			for (int slot = spread(hash) & mask; this.segments[slot] != null; slot = (slot + 1) & mask) {
+				String segment = this.segments[slot];
+				if (this.hashes[slot] == hash && segment.length() == length
+						&& uri.regionMatches(start, segment, 0, length)) {
+					return this.children[slot];
+				}
+			}
+			return null;
+		}
+	}
+
+	static class Route {
+		private final HttpHandler[] methodHandlers = new HttpHandler[Constants.ALLOWED_METHODS.size()];
+		private HttpHandler handler;
+		private String[] paramNames;
+		private String allow;
+
+		private void add(String key, String method, HttpHandler httpHandler, String[] paramNames) {
+			if (this.paramNames != null && !Arrays.equals(this.paramNames, paramNames)) {
+				throw new HttpServerConfigException("Route " + key + " should use the same parameter names as "
+						+ Arrays.toString(this.paramNames));
+			}
+			this.paramNames = paramNames;
+			HttpHandler previous = method != null ? this.methodHandlers[Constants.ALLOWED_METHODS.indexOf(method)]
+					: this.handler;
+			if (previous != null) {
+				throw new HttpServerConfigException("Http handler already exists for route=" + key
+						+ ". Http handler class: " + previous.getClass().getName());
+			}
+			if (method != null) {
+				this.methodHandlers[Constants.ALLOWED_METHODS.indexOf(method)] = httpHandler;
+			} else {
+				this.handler = httpHandler;
+			}
+		}
+
+		private void compile() {
+			int get = Constants.ALLOWED_METHODS.indexOf(Constants.GET);
+			int head = Constants.ALLOWED_METHODS.indexOf(Constants.HEAD);
+			if (this.methodHandlers[head] == null) {
+				this.methodHandlers[head] = this.methodHandlers[get];
+			}
+			List<String> allowed = new ArrayList<>();
+			for (int i = 0; i < this.methodHandlers.length; i++) {
+				if (this.methodHandlers[i] != null) {
+					allowed.add(Constants.ALLOWED_METHODS.get(i));
+				}
+			}
+			this.allow = StringUtils.join(allowed, ", ");
+		}
+
+		HttpHandler getHandler(String method) {
+			for (int i = 0; i < this.methodHandlers.length; i++) {
+				if (this.methodHandlers[i] != null && Constants.ALLOWED_METHODS.get(i).equals(method)) {
+					return this.methodHandlers[i];
+				}
+			}
+			return this.handler;
+		}
+
+		String getAllow() {
+			return this.allow;
+		}
+
+		boolean hasParams() {
+			return this.paramNames.length > 0;
+		}
+
+		Map<String, String> getParams(String uri, int[] captures) {
+			if (this.paramNames.length == 0) {
+				return Collections.emptyMap();
+			}
+			Map<String, String> params = new LinkedHashMap<>();
+			for (int i = 0; i < this.paramNames.length; i++) {
+				params.put(this.paramNames[i], uri.substring(captures[i * 2], captures[i * 2 + 1]));
+			}
+			return params;
+		}
+	}
+}
@@ -8,16 +8,22 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.ThreadFactory;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import io.barhan.http_server.Constants;
 import io.barhan.http_server.HandlerConfig;
 import io.barhan.http_server.HtmlTemplateManager;
 import io.barhan.http_server.HttpHandler;
 import io.barhan.http_server.HttpServerContext;
 import io.barhan.http_server.ServerInfo;
+import io.barhan.http_server.StaticFileCacheMetrics;
+import io.barhan.http_server.WorkerPoolMetrics;
 import io.barhan.http_server.config.HttpClientSocketHandler;
 import io.barhan.http_server.config.HttpRequestDispatcher;
 import io.barhan.http_server.config.HttpRequestParser;
@@ -41,11 +47,31 @@ class HttpServerConfigImpl implements HttpServerConfig {
 	private final HttpResponseBuilder httpResponseBuilder;
 	private final HttpRequestDispatcher httpRequestDispatcher;
 	private final HttpHandler defaultHttpHandler;
+	private final WebRootWatcher webRootWatcher;
+	private final StaticFileCache staticFileCache;
+	private final MappedFileCache mappedFileCache;
+	private final GzipSidecarGenerator gzipSidecarGenerator;
+	private final WebRootIndex webRootIndex;
+	private final StaticFileCacheMetrics staticFileCacheMetrics = new StaticFileCacheMetrics();
 	private final ThreadFactory workerThreadFactory;
+	private final Executor pipelineExecutor;
 	private final HtmlTemplateManager htmlTemplateManager;
 	private final ServerInfo serverInfo;
 	private final List<String> staticExpiresExtensions;
 	private final int staticExpiresDays;
+	private final String connectorType;
+	private final String threadMode;
+	private final int workerQueueCapacity;
+	private final int acceptPause;
+	private final int retryAfter;
+	private final WorkerPoolMetrics workerPoolMetrics = new WorkerPoolMetrics();
+	private final int selectorCount;
+	private final int socketTimeout;
+	private final boolean tcpNoDelay;
+	private final int keepAliveMaxRequests;
+	private final int keepAliveTimeout;
+	private final int maxHeaderSize;
+	private final int maxHeaderCount;
 
 	public HttpServerConfigImpl(HandlerConfig handlerConfig, Properties properties) {
 		this.loadAllProperties(properties);
@@ -56,15 +82,51 @@ class HttpServerConfigImpl implements HttpServerConfig {
 		this.staticExpiresDays = Integer.parseInt(this.serverProperties.getProperty("webapp.static.expires.days"));
 		this.staticExpiresExtensions = Arrays
 				.asList(this.serverProperties.getProperty("webapp.static.expires.extensions").split(","));
+		this.connectorType = this.getOneOfProperty("server.connector", Constants.SUPPORTED_CONNECTORS);
+		this.threadMode = this.getOneOfProperty("server.thread.mode", Constants.SUPPORTED_THREAD_MODES);
+		this.workerQueueCapacity = this.getNonNegativeIntProperty("server.thread.queue.capacity");
+		this.acceptPause = this.getNonNegativeIntProperty("server.overload.accept-pause");
+		this.retryAfter = this.getPositiveIntProperty("server.overload.retry-after");
+		this.selectorCount = this.getPositiveIntProperty("server.connector.selector.count");
+		this.socketTimeout = this.getPositiveIntProperty("server.socket.timeout");
+		this.tcpNoDelay = Boolean.parseBoolean(this.serverProperties.getProperty("server.socket.tcp-no-delay"));
+		this.keepAliveMaxRequests = this.getPositiveIntProperty("server.keep-alive.max-requests");
+		this.keepAliveTimeout = this.getPositiveIntProperty("server.keep-alive.timeout");
+		this.maxHeaderSize = this.getPositiveIntProperty("server.request.max-header-size");
+		this.maxHeaderCount = this.getPositiveIntProperty("server.request.max-header-count");
 
 		this.httpServerContext = new HttpServerContextImpl(this);
-		this.httpRequestParser = new HttpRequestParserImpl();
+		this.webRootWatcher = new WebRootWatcher(this.rootPath);
+		this.mappedFileCache = new MappedFileCache(this.getNonNegativeLongProperty("webapp.static.mmap.threshold"),
+				this.getNonNegativeLongProperty("webapp.static.mmap.max-size"), this.webRootWatcher);
+		this.httpRequestParser = new HttpRequestParserImpl(this.maxHeaderSize, this.maxHeaderCount,
+				this.getNonNegativeIntProperty("server.request.max-body-size"));
 		this.httpResponseWriter = new HttpResponseWriterImpl(this);
-		this.httpResponseBuilder = new HttpResponseBuilderImpl(this);
-		this.defaultHttpHandler = new HttpHandlerImpl();
+		this.httpResponseBuilder = new HttpResponseBuilderImpl(this, this.mappedFileCache,
+				new ResponseCompressor(this.getCompressionLevel(),
+						this.getNonNegativeIntProperty("server.compression.min-size")));
+		this.staticFileCache = new StaticFileCache(this.getNonNegativeIntProperty("webapp.static.cache.max-size"),
+				this.getNonNegativeIntProperty("webapp.static.cache.max-entry-size"), this.webRootWatcher,
+				this.staticFileCacheMetrics);
+		this.gzipSidecarGenerator = new GzipSidecarGenerator(this.webRootWatcher, this.httpServerContext,
+				this.getNonNegativeIntProperty("webapp.static.gzip.min-size"));
+		if (Boolean.parseBoolean(this.serverProperties.getProperty("webapp.static.gzip.precompress"))) {
+			this.gzipSidecarGenerator.start();
+		}
+		this.webRootIndex = new WebRootIndex(this.webRootWatcher, this.httpServerContext);
+		if (Boolean.parseBoolean(this.serverProperties.getProperty("webapp.static.index"))) {
+			this.webRootIndex.start();
+		}
+		this.defaultHttpHandler = new HttpHandlerImpl(this.staticFileCache,
+				this.getOneOfProperty("webapp.static.etag", Constants.SUPPORTED_ETAG_MODES), this.webRootIndex,
+				new DirectoryListing(this.getNonNegativeIntProperty("webapp.static.listing.cache.max-entries"),
+						this.getNonNegativeIntProperty("webapp.static.listing.cache.max-entry-size")));
 		this.httpRequestDispatcher = new HttpRequestDispatcherImpl(this.defaultHttpHandler, this.httpHandlers);
 		this.workerThreadFactory = new ThreadFactoryImpl();
-		this.htmlTemplateManager = new HtmlTemplateManagerImpl();
+		this.pipelineExecutor = this.createPipelineExecutor();
+		HtmlTemplateManagerImpl htmlTemplateManager = new HtmlTemplateManagerImpl();
+		htmlTemplateManager.preloadTemplates();
+		this.htmlTemplateManager = htmlTemplateManager;
 	}
 
 	private void loadAllProperties(Properties properties) {
@@ -107,11 +169,57 @@ class HttpServerConfigImpl implements HttpServerConfig {
 				Integer.parseInt(this.serverProperties.getProperty("server.port")),
 				Integer.parseInt(this.serverProperties.getProperty("server.thread.count")));
 		if (si.getThreadCount() < 0) {
-			throw new HttpServerConfigException("server.thread.count should be >= 0, where 0 is UNLIMITED threads");
+			throw new HttpServerConfigException("server.thread.count should be >= 0, where 0 is derived from the CPU count");
 		}
 		return si;
 	}
 
+	private String getOneOfProperty(String name, List<String> supportedValues) {
+		String value = this.serverProperties.getProperty(name);
+		if (!supportedValues.contains(value)) {
+			throw new HttpServerConfigException(
+					name + " should be one of " + supportedValues + ", but was " + value);
+		}
+		return value;
+	}
+
+	private Executor createPipelineExecutor() {
+		int parallelism = this.getNonNegativeIntProperty("server.pipelining.parallelism");
+		return parallelism > 0 ? new ForkJoinPool(parallelism) : null;
+	}
+
+	private int getCompressionLevel() {
+		int level = Integer.parseInt(this.serverProperties.getProperty("server.compression.level"));
+		if (level < 0 || level > 9) {
+			throw new HttpServerConfigException("server.compression.level should be between 0 and 9");
+		}
+		return level;
+	}
+
+	private int getNonNegativeIntProperty(String name) {
+		int value = Integer.parseInt(this.serverProperties.getProperty(name));
+		if (value < 0) {
+			throw new HttpServerConfigException(name + " should be >= 0");
+		}
+		return value;
+	}
+
+	private long getNonNegativeLongProperty(String name) {
+		long value = Long.parseLong(this.serverProperties.getProperty(name));
+		if (value < 0) {
+			throw new HttpServerConfigException(name + " should be >= 0");
+		}
+		return value;
+	}
+
+	private int getPositiveIntProperty(String name) {
+		int value = Integer.parseInt(this.serverProperties.getProperty(name));
+		if (value <= 0) {
+			throw new HttpServerConfigException(name + " should be > 0");
+		}
+		return value;
+	}
+
 	protected Path createRootPath() {
 		Path path = Paths
 				.get(new File(this.serverProperties.getProperty("webapp.static.dir.root")).getAbsoluteFile().toURI());
@@ -125,6 +233,14 @@ class HttpServerConfigImpl implements HttpServerConfig {
 		return path;
 	}
 
+	protected Path getRootPath() {
+		return this.rootPath;
+	}
+
+	protected StaticFileCacheMetrics getStaticFileCacheMetrics() {
+		return this.staticFileCacheMetrics;
+	}
+
 	protected Properties getMimeTypesPropeties() {
 		return this.mimeTypesProperties;
 	}
@@ -158,6 +274,71 @@ class HttpServerConfigImpl implements HttpServerConfig {
 		return this.serverInfo;
 	}
 
+	@Override
+	public String getConnectorType() {
+		return this.connectorType;
+	}
+
+	@Override
+	public String getThreadMode() {
+		return this.threadMode;
+	}
+
+	@Override
+	public int getWorkerQueueCapacity() {
+		return this.workerQueueCapacity;
+	}
+
+	@Override
+	public int getAcceptPause() {
+		return this.acceptPause;
+	}
+
+	@Override
+	public int getRetryAfter() {
+		return this.retryAfter;
+	}
+
+	@Override
+	public WorkerPoolMetrics getWorkerPoolMetrics() {
+		return this.workerPoolMetrics;
+	}
+
+	@Override
+	public int getSelectorCount() {
+		return this.selectorCount;
+	}
+
+	@Override
+	public int getSocketTimeout() {
+		return this.socketTimeout;
+	}
+
+	@Override
+	public boolean isTcpNoDelay() {
+		return this.tcpNoDelay;
+	}
+
+	@Override
+	public int getKeepAliveMaxRequests() {
+		return this.keepAliveMaxRequests;
+	}
+
+	@Override
+	public int getKeepAliveTimeout() {
+		return this.keepAliveTimeout;
+	}
+
+	@Override
+	public int getMaxHeaderSize() {
+		return this.maxHeaderSize;
+	}
+
+	@Override
+	public int getMaxHeaderCount() {
+		return this.maxHeaderCount;
+	}
+
 	@Override
 	public String getStatusMessage(int statusCode) {
 		String message = this.statusProperties.getProperty(String.valueOf(statusCode));
@@ -194,6 +375,24 @@ class HttpServerConfigImpl implements HttpServerConfig {
 		return this.workerThreadFactory;
 	}
 
+	@Override
+	public Executor getPipelineExecutor() {
+		return this.pipelineExecutor;
+	}
+
+	@Override
+	public void close() {
+		this.gzipSidecarGenerator.close();
+		try {
+			this.webRootWatcher.close();
+		} catch (IOException e) {
+			LOGGER.warn("Closing web root watcher failed: " + e.getMessage(), e);
+		}
+		if (this.pipelineExecutor instanceof ExecutorService) {
+			((ExecutorService) this.pipelineExecutor).shutdownNow();
+		}
+	}
+
 	@Override
 	public HttpClientSocketHandler buildNewHttpClientSocketHandler(Socket clientSocket) {
 		return new HttpClientSocketHandlerImpl(clientSocket, this);
@@ -10,6 +10,8 @@ import io.barhan.http_server.Constants;
 import io.barhan.http_server.HtmlTemplateManager;
 import io.barhan.http_server.HttpServerContext;
 import io.barhan.http_server.ServerInfo;
+import io.barhan.http_server.StaticFileCacheMetrics;
+import io.barhan.http_server.WorkerPoolMetrics;
 
 class HttpServerContextImpl extends AbstractHttpConfigurableComponent implements HttpServerContext {
 
@@ -26,6 +28,16 @@ class HttpServerContextImpl extends AbstractHttpConfigurableComponent implements
         return this.getHttpServerConfig().getServerInfo();
     }
 
+    @Override
+    public WorkerPoolMetrics getWorkerPoolMetrics() {
+        return this.getHttpServerConfig().getWorkerPoolMetrics();
+    }
+
+    @Override
+    public StaticFileCacheMetrics getStaticFileCacheMetrics() {
+        return this.getHttpServerConfig().getStaticFileCacheMetrics();
+    }
+
     @Override
     public Collection<String> getSupportedRequestMethods() {
         return Constants.ALLOWED_METHODS;
@@ -45,7 +57,7 @@ class HttpServerContextImpl extends AbstractHttpConfigurableComponent implements
 
     @Override
     public Path getRootPath() {
-        return this.getHttpServerConfig().createRootPath();
+        return this.getHttpServerConfig().getRootPath();
     }
 
     @Override
@@ -2,6 +2,7 @@ package io.barhan.http_server.impl;
 
 import java.util.Properties;
 
+import io.barhan.http_server.Constants;
 import io.barhan.http_server.HandlerConfig;
 import io.barhan.http_server.HttpServer;
 import io.barhan.http_server.config.HttpServerConfig;
@@ -16,6 +17,9 @@ public class HttpServerFactory {
 
 	public HttpServer createHttpServer(HandlerConfig handlerConfig, Properties serverProperties) {
 		HttpServerConfig httpServerConfig = new HttpServerConfigImpl(handlerConfig, serverProperties);
+		if (Constants.NIO_CONNECTOR.equals(httpServerConfig.getConnectorType())) {
+			return new NioHttpServerImpl(httpServerConfig);
+		}
 		return new HttpServerImpl(httpServerConfig);
 	}
 }
@@ -1,70 +1,53 @@
 package io.barhan.http_server.impl;
 
 import java.io.IOException;
+import java.net.InetSocketAddress;
 import java.net.ServerSocket;
 import java.net.Socket;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ThreadFactory;
+import java.nio.channels.ServerSocketChannel;
+import java.util.concurrent.RejectedExecutionException;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import io.barhan.http_server.HttpServer;
 import io.barhan.http_server.config.HttpServerConfig;
 import io.barhan.http_server.exception.HttpServerException;
 
-class HttpServerImpl implements HttpServer {
+class HttpServerImpl extends AbstractHttpServer {
     private static final Logger LOGGER = LoggerFactory.getLogger(HttpServerImpl.class);
-    private final HttpServerConfig httpServerConfig;
     private final ServerSocket serverSocket;
-    private final ExecutorService executorService;
-    private final Thread mainServerThread;
-    private volatile boolean isServerStopped;
-    private volatile boolean stopRequest;
 
     protected HttpServerImpl(HttpServerConfig httpServerConfig) {
-        this.httpServerConfig = httpServerConfig;
-        this.executorService = this.createExecutorService();
-        this.mainServerThread = this.createMainServerThread(this.createServerRunnable());
+        super(httpServerConfig);
         this.serverSocket = this.createServerSocket();
-        this.isServerStopped = false;
     }
 
     protected ServerSocket createServerSocket() {
         try {
-            ServerSocket serverSocket = new ServerSocket(this.httpServerConfig.getServerInfo().getPort());
+            ServerSocket serverSocket = ServerSocketChannel.open().socket();
             serverSocket.setReuseAddress(true);
+            serverSocket.bind(new InetSocketAddress(this.getHttpServerConfig().getServerInfo().getPort()));
             return serverSocket;
         } catch (IOException e) {
-            throw new HttpServerException(
-                    "Creating server socket with port=" + this.httpServerConfig.getServerInfo().getPort() + " failed.",
-                    e);
+            throw new HttpServerException("Creating server socket with port="
+                    + this.getHttpServerConfig().getServerInfo().getPort() + " failed.", e);
         }
     }
 
-    protected ExecutorService createExecutorService() {
-        ThreadFactory threadFactory = this.httpServerConfig.getWorkerThreadFactory();
-        int threadCount = this.httpServerConfig.getServerInfo().getThreadCount();
-        if (threadCount > 0) {
-            return Executors.newFixedThreadPool(threadCount, threadFactory);
-        }
-        return Executors.newCachedThreadPool(threadFactory);
-    }
-
-    protected Thread createMainServerThread(Runnable r) {
-        Thread thread = new Thread(r, "Main Server Thread");
-        thread.setPriority(Thread.MAX_PRIORITY);
-        thread.setDaemon(false);
-        return thread;
-    }
-
+    @Override
     protected Runnable createServerRunnable() {
         return () -> {
-			while (!mainServerThread.isInterrupted()) {
+			while (!getMainServerThread().isInterrupted()) {
 				try {
+					awaitWorkerCapacity();
 					Socket clientSocket = serverSocket.accept();
-					executorService.submit(httpServerConfig.buildNewHttpClientSocketHandler(clientSocket));
+					try {
+						getExecutorService().submit(getHttpServerConfig().buildNewHttpClientSocketHandler(clientSocket));
+					} catch (RejectedExecutionException e) {
+						rejectClientSocket(clientSocket);
+					}
+				} catch (InterruptedException e) {
+					break;
 				} catch (IOException e) {
 					if (!serverSocket.isClosed()) {
 						LOGGER.error("Cannot accept client socket: " + e.getMessage(), e);
@@ -73,49 +56,20 @@ class HttpServerImpl implements HttpServer {
 					break;
 				}
 			}
-			if (stopRequest) {
-				System.exit(0);
-			}
+			afterServerLoop();
 		};
     }
 
-    @Override
-    public void start() {
-        if (this.mainServerThread.getState() != Thread.State.NEW) {
-            throw new HttpServerException(
-                    "Current sever already started or stopped! Create a new http server instance");
-        }
-        Runtime.getRuntime().addShutdownHook(this.getShutdownHook());
-        this.mainServerThread.start();
-        LOGGER.info("Server has been started: " + this.httpServerConfig.getServerInfo());
-
-    }
-
-    @Override
-    public void stop() {
-        LOGGER.info("Stop server command!");
-        this.stopRequest = true;
-        this.mainServerThread.interrupt();
-        try {
-            this.serverSocket.close();
+    private void rejectClientSocket(Socket clientSocket) {
+        try (Socket s = clientSocket) {
+            s.getOutputStream().write(this.getServiceUnavailableResponse());
         } catch (IOException e) {
-            LOGGER.warn("Closing server socket failed: " + e.getMessage(), e);
+            LOGGER.debug("Writing 503 response failed: {}", e.getMessage());
         }
-
     }
 
-    protected Thread getShutdownHook() {
-        return new Thread(() -> {
-			if (!isServerStopped) {
-				destroyHttpServer();
-			}
-
-		}, "ShutdownHook");
-    }
-
-    protected void destroyHttpServer() {
-        this.executorService.shutdownNow();
-        LOGGER.info("Server stopped");
-        this.isServerStopped = true;
+    @Override
+    protected void closeServerSocket() throws IOException {
+        this.serverSocket.close();
     }
 }
@@ -0,0 +1,20 @@
+package io.barhan.http_server.impl;
+
+import java.io.OutputStream;
+
+class LengthOnlyResponseBody implements ResponseBody {
+	private final long length;
+
+	LengthOnlyResponseBody(long length) {
+		this.length = length;
+	}
+
+	@Override
+	public long getLength() {
+		return this.length;
+	}
+
+	@Override
+	public void writeTo(OutputStream out) {
+	}
+}
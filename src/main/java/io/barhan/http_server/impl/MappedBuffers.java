@@ -0,0 +1,52 @@
+package io.barhan.http_server.impl;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+final class MappedBuffers {
+	private static final Logger LOGGER = LoggerFactory.getLogger(MappedBuffers.class);
+	private static final Object UNSAFE = findUnsafe();
+	private static final Method INVOKE_CLEANER = findInvokeCleaner();
+
+	static void unmap(ByteBuffer buffer) {
+		try {
+			if (INVOKE_CLEANER != null) {
+				INVOKE_CLEANER.invoke(UNSAFE, buffer);
+				return;
+			}
+			Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+			cleanerMethod.setAccessible(true);
+			Object cleaner = cleanerMethod.invoke(buffer);
+			if (cleaner != null) {
+				cleaner.getClass().getMethod("clean").invoke(cleaner);
+			}
+		} catch (ReflectiveOperationException | RuntimeException e) {
+			LOGGER.debug("Unmapping buffer failed, leaving it to the garbage collector: {}", e.getMessage());
+		}
+	}
+
+	private static Object findUnsafe() {
+		try {
+			Field field = Class.forName("sun.misc.Unsafe").getDeclaredField("theUnsafe");
+			field.setAccessible(true);
+			return field.get(null);
+		} catch (ReflectiveOperationException | RuntimeException e) {
+			return null;
+		}
+	}
+
+	private static Method findInvokeCleaner() {
+		try {
+			return UNSAFE != null ? UNSAFE.getClass().getMethod("invokeCleaner", ByteBuffer.class) : null;
+		} catch (NoSuchMethodException e) {
+			return null;
+		}
+	}
+
+	private MappedBuffers() {
+	}
+}
@@ -0,0 +1,64 @@
+package io.barhan.http_server.impl;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class MappedFile {
+	private static final long SEGMENT_SIZE = 1L << 30;
+
+	private final long length;
+	private final FileTime lastModified;
+	private final MappedByteBuffer[] segments;
+	private final AtomicInteger references = new AtomicInteger(1);
+
+	private MappedFile(long length, FileTime lastModified, MappedByteBuffer[] segments) {
+		this.length = length;
+		this.lastModified = lastModified;
+		this.segments = segments;
+	}
+
+	static MappedFile map(Path path, long length, FileTime lastModified) throws IOException {
+		MappedByteBuffer[] segments = new MappedByteBuffer[(int) ((length + SEGMENT_SIZE - 1) / SEGMENT_SIZE)];
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			for (int i = 0; i < segments.length; i++) {
+				long position = i * SEGMENT_SIZE;
+				segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, position,
+						Math.min(SEGMENT_SIZE, length - position));
+			}
+		}
+		return new MappedFile(length, lastModified, segments);
+	}
+
+	boolean matches(long length, FileTime lastModified) {
+		return this.length == length && this.lastModified.equals(lastModified);
+	}
+
+	long getLength() {
+		return this.length;
+	}
+
+	MappedByteBuffer[] getSegments() {
+		return this.segments;
+	}
+
+	void retain() {
+		this.references.incrementAndGet();
+	}
+
+	void release() {
+		if (this.references.decrementAndGet() == 0) {
+			for (MappedByteBuffer segment : this.segments) {
+				MappedBuffers.unmap(segment);
+			}
+		}
+	}
+
+	boolean isReleased() {
+		return this.references.get() == 0;
+	}
+}
@@ -0,0 +1,84 @@
+package io.barhan.http_server.impl;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+class MappedFileCache {
+	private final long threshold;
+	private final long maxSize;
+	private final WebRootWatcher watcher;
+	private final Map<Path, MappedFile> mappings = new LinkedHashMap<>(16, 0.75f, true);
+	private long size;
+
+	MappedFileCache(long threshold, long maxSize, WebRootWatcher watcher) {
+		this.threshold = threshold;
+		this.maxSize = maxSize;
+		this.watcher = watcher;
+		watcher.addListener(this::invalidate);
+	}
+
+	ResponseBody createBody(Path path, long length) throws IOException {
+		if (this.threshold == 0 || length < this.threshold || length > this.maxSize) {
+			return null;
+		}
+		path = path.toAbsolutePath().normalize();
+		if (!path.startsWith(this.watcher.getRoot()) || !this.watcher.ensureStarted()) {
+			return null;
+		}
+		return new MappedResponseBody(this.acquire(path, length));
+	}
+
+	private MappedFile acquire(Path path, long length) throws IOException {
+		FileTime lastModified = Files.getLastModifiedTime(path);
+		synchronized (this) {
+			MappedFile file = this.mappings.get(path);
+			if (file != null && file.matches(length, lastModified)) {
+				file.retain();
+				return file;
+			}
+		}
+		MappedFile file = MappedFile.map(path, length, lastModified);
+		file.retain();
+		synchronized (this) {
+			MappedFile previous = this.mappings.put(path, file);
+			if (previous != null) {
+				this.removed(previous);
+			}
+			this.size += length;
+			Iterator<MappedFile> it = this.mappings.values().iterator();
+			while (this.size > this.maxSize && it.hasNext()) {
+				MappedFile eldest = it.next();
+				if (eldest != file) {
+					it.remove();
+					this.removed(eldest);
+				}
+			}
+		}
+		return file;
+	}
+
+	synchronized void invalidate(Path path) {
+		Iterator<Map.Entry<Path, MappedFile>> it = this.mappings.entrySet().iterator();
+		while (it.hasNext()) {
+			Map.Entry<Path, MappedFile> entry = it.next();
+			if (entry.getKey().startsWith(path)) {
+				it.remove();
+				this.removed(entry.getValue());
+			}
+		}
+	}
+
+	synchronized long getMappedSize() {
+		return this.size;
+	}
+
+	private void removed(MappedFile file) {
+		this.size -= file.getLength();
+		file.release();
+	}
+}
@@ -0,0 +1,77 @@
+package io.barhan.http_server.impl;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+class MappedResponseBody implements ResponseBody {
+	private static final int COPY_BUFFER_SIZE = 8192;
+	private static final ThreadLocal<byte[]> COPY_BUFFERS = ThreadLocal.withInitial(() -> new byte[COPY_BUFFER_SIZE]);
+
+	private final MappedFile file;
+	private final long position;
+	private final long length;
+	private boolean closed;
+
+	MappedResponseBody(MappedFile file) {
+		this(file, 0, file.getLength());
+	}
+
+	private MappedResponseBody(MappedFile file, long position, long length) {
+		this.file = file;
+		this.position = position;
+		this.length = length;
+	}
+
+	@Override
+	public long getLength() {
+		return this.length;
+	}
+
+	@Override
+	public void writeTo(OutputStream out) throws IOException {
+		try {
+			long segmentStart = 0;
+			long end = this.position + this.length;
+			for (ByteBuffer segment : this.file.getSegments()) {
+				long segmentEnd = segmentStart + segment.capacity();
+				if (segmentEnd > this.position && segmentStart < end) {
+					ByteBuffer buffer = segment.duplicate();
+					buffer.limit((int) (Math.min(end, segmentEnd) - segmentStart));
+					buffer.position((int) (Math.max(this.position, segmentStart) - segmentStart));
+					this.write(buffer, out);
+				}
+				segmentStart = segmentEnd;
+			}
+		} catch (InternalError e) {
+			throw new IOException("Mapped file changed while it was being sent", e);
+		}
+	}
+
+	private void write(ByteBuffer buffer, OutputStream out) throws IOException {
+		if (out instanceof FileTransferTarget) {
+			((FileTransferTarget) out).transferFrom(buffer);
+			return;
+		}
+		byte[] chunk = COPY_BUFFERS.get();
+		while (buffer.hasRemaining()) {
+			int count = Math.min(chunk.length, buffer.remaining());
+			buffer.get(chunk, 0, count);
+			out.write(chunk, 0, count);
+		}
+	}
+
+	@Override
+	public ResponseBody slice(long position, long length) {
+		this.file.retain();
+		return new MappedResponseBody(this.file, this.position + position, length);
+	}
+
+	@Override
+	public void close() {
+		if (!this.closed) {
+			this.closed = true;
+			this.file.release();
+		}
+	}
+}
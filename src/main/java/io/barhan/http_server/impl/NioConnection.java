@@ -0,0 +1,332 @@
+package io.barhan.http_server.impl;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+class NioConnection {
+	private static final Logger LOGGER = LoggerFactory.getLogger(NioConnection.class);
+	private static final int INBOUND_BUFFER_SIZE = 8192;
+
+	private final SocketChannel channel;
+	private final NioEventLoop eventLoop;
+	private final Consumer<NioConnection> dispatcher;
+	private final String remoteAddress;
+	private final long timeoutNanos;
+	private final long keepAliveTimeoutNanos;
+	private final int maxHeaderSize;
+	private final int maxHeaderCount;
+	private final ByteBuffer inbound = ByteBuffer.allocate(INBOUND_BUFFER_SIZE);
+	private final ReentrantLock lock = new ReentrantLock();
+	private final Condition readable = this.lock.newCondition();
+	private final Condition writable = this.lock.newCondition();
+	private final RequestInputStream inputStream = new RequestInputStream(new ConnectionInputStream());
+	private final OutputStream outputStream = new ConnectionOutputStream();
+
+	private volatile SelectionKey selectionKey;
+	private boolean endOfStream;
+	private boolean readSuspended;
+	private boolean writeReady;
+	private boolean workerActive;
+	private boolean closed;
+	private long idleSince;
+	private int requestCount;
+
+	NioConnection(SocketChannel channel, NioEventLoop eventLoop, Consumer<NioConnection> dispatcher, int timeout,
+			int keepAliveTimeout, int maxHeaderSize, int maxHeaderCount) throws IOException {
+		this.channel = channel;
+		this.eventLoop = eventLoop;
+		this.dispatcher = dispatcher;
+		this.remoteAddress = String.valueOf(channel.getRemoteAddress());
+		this.timeoutNanos = TimeUnit.MILLISECONDS.toNanos(timeout);
+		this.keepAliveTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(keepAliveTimeout);
+		this.maxHeaderSize = maxHeaderSize;
+		this.maxHeaderCount = maxHeaderCount;
+		this.idleSince = System.nanoTime();
+	}
+
+	SocketChannel getChannel() {
+		return this.channel;
+	}
+
+	String getRemoteAddress() {
+		return this.remoteAddress;
+	}
+
+	RequestInputStream getInputStream() {
+		return this.inputStream;
+	}
+
+	OutputStream getOutputStream() {
+		return this.outputStream;
+	}
+
+	void setSelectionKey(SelectionKey selectionKey) {
+		this.selectionKey = selectionKey;
+	}
+
+	void onReadable() {
+		boolean dispatch = false;
+		boolean close = false;
+		this.lock.lock();
+		try {
+			if (!this.inbound.hasRemaining()) {
+				this.readSuspended = true;
+				this.selectionKey.interestOps(this.selectionKey.interestOps() & ~SelectionKey.OP_READ);
+				return;
+			}
+			if (this.channel.read(this.inbound) == -1) {
+				this.endOfStream = true;
+				this.selectionKey.interestOps(this.selectionKey.interestOps() & ~SelectionKey.OP_READ);
+			}
+			this.readable.signalAll();
+			if (!this.workerActive) {
+				if (this.inputStream.decodeAvailableHead(this.maxHeaderSize, this.maxHeaderCount)) {
+					this.workerActive = true;
+					dispatch = true;
+				} else if (this.endOfStream) {
+					close = true;
+				}
+			}
+		} catch (IOException e) {
+			LOGGER.debug("Reading client channel failed: {}", e.getMessage());
+			this.endOfStream = true;
+			close = !this.workerActive;
+			this.readable.signalAll();
+		} finally {
+			this.lock.unlock();
+		}
+		if (close) {
+			this.close();
+		} else if (dispatch) {
+			this.dispatcher.accept(this);
+		}
+	}
+
+	int nextRequestNumber() {
+		return ++this.requestCount;
+	}
+
+	boolean release() throws IOException {
+		this.lock.lock();
+		try {
+			if (this.endOfStream || this.closed
+					|| this.inputStream.decodeAvailableHead(this.maxHeaderSize, this.maxHeaderCount)) {
+				return false;
+			}
+			this.workerActive = false;
+			this.idleSince = System.nanoTime();
+			return true;
+		} finally {
+			this.lock.unlock();
+		}
+	}
+
+	void closeIfIdle(long now) {
+		boolean idle;
+		this.lock.lock();
+		try {
+			idle = !this.workerActive && now - this.idleSince > this.keepAliveTimeoutNanos;
+		} finally {
+			this.lock.unlock();
+		}
+		if (idle) {
+			LOGGER.debug("Closing idle connection: {}", this.remoteAddress);
+			this.close();
+		}
+	}
+
+	void onWritable() {
+		this.selectionKey.interestOps(this.selectionKey.interestOps() & ~SelectionKey.OP_WRITE);
+		this.lock.lock();
+		try {
+			this.writeReady = true;
+			this.writable.signalAll();
+		} finally {
+			this.lock.unlock();
+		}
+	}
+
+	void reject(byte[] response) {
+		try {
+			this.channel.write(ByteBuffer.wrap(response));
+		} catch (IOException e) {
+			LOGGER.debug("Writing rejection response failed: {}", e.getMessage());
+		}
+		this.close();
+	}
+
+	void close() {
+		this.lock.lock();
+		try {
+			this.closed = true;
+			this.readable.signalAll();
+			this.writable.signalAll();
+		} finally {
+			this.lock.unlock();
+		}
+		try {
+			this.channel.close();
+		} catch (IOException e) {
+			LOGGER.warn("Closing client channel failed: " + e.getMessage(), e);
+		}
+	}
+
+	private void updateInterestOps(int add) {
+		this.eventLoop.execute(() -> {
+			SelectionKey key = this.selectionKey;
+			if (key != null && key.isValid()) {
+				key.interestOps(key.interestOps() | add);
+			}
+		});
+	}
+
+	private int read(byte[] b, int off, int len) throws IOException {
+		this.lock.lock();
+		try {
+			long nanos = this.timeoutNanos;
+			while (this.inbound.position() == 0) {
+				if (this.endOfStream || this.closed) {
+					return -1;
+				}
+				if (nanos <= 0) {
+					throw new SocketTimeoutException("Read timed out");
+				}
+				nanos = this.readable.awaitNanos(nanos);
+			}
+			this.inbound.flip();
+			int count = Math.min(len, this.inbound.remaining());
+			this.inbound.get(b, off, count);
+			this.inbound.compact();
+			if (this.readSuspended) {
+				this.readSuspended = false;
+				this.updateInterestOps(SelectionKey.OP_READ);
+			}
+			return count;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Read interrupted", e);
+		} finally {
+			this.lock.unlock();
+		}
+	}
+
+	private void write(ByteBuffer buffer) throws IOException {
+		while (buffer.hasRemaining()) {
+			if (this.channel.write(buffer) == 0) {
+				this.awaitWritable();
+			}
+		}
+	}
+
+	private void write(ByteBuffer[] buffers) throws IOException {
+		while (buffers[buffers.length - 1].hasRemaining()) {
+			if (this.channel.write(buffers) == 0) {
+				this.awaitWritable();
+			}
+		}
+	}
+
+	private void awaitWritable() throws IOException {
+		this.lock.lock();
+		try {
+			this.writeReady = false;
+			this.updateInterestOps(SelectionKey.OP_WRITE);
+			long nanos = this.timeoutNanos;
+			while (!this.writeReady) {
+				if (this.closed) {
+					throw new IOException("Connection closed");
+				}
+				if (nanos <= 0) {
+					throw new SocketTimeoutException("Write timed out");
+				}
+				nanos = this.writable.awaitNanos(nanos);
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Write interrupted", e);
+		} finally {
+			this.lock.unlock();
+		}
+	}
+
+	private class ConnectionInputStream extends InputStream {
+		@Override
+		public int read() throws IOException {
+			byte[] b = new byte[1];
+			return NioConnection.this.read(b, 0, 1) == -1 ? -1 : b[0] & 0xFF;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			if (len == 0) {
+				return 0;
+			}
+			return NioConnection.this.read(b, off, len);
+		}
+
+		@Override
+		public int available() {
+			NioConnection.this.lock.lock();
+			try {
+				return NioConnection.this.inbound.position();
+			} finally {
+				NioConnection.this.lock.unlock();
+			}
+		}
+	}
+
+	private void transferFrom(FileChannel file, long position, long count) throws IOException {
+		long end = position + count;
+		while (position < end) {
+			long transferred = file.transferTo(position, end - position, this.channel);
+			if (transferred == 0) {
+				if (position >= file.size()) {
+					throw new EOFException("File is shorter than expected: " + count + " bytes");
+				}
+				this.awaitWritable();
+			}
+			position += transferred;
+		}
+	}
+
+	private class ConnectionOutputStream extends OutputStream implements FileTransferTarget {
+		@Override
+		public void write(int b) throws IOException {
+			NioConnection.this.write(ByteBuffer.wrap(new byte[] { (byte) b }));
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			NioConnection.this.write(ByteBuffer.wrap(b, off, len));
+		}
+
+		@Override
+		public void transferFrom(FileChannel file, long position, long count) throws IOException {
+			NioConnection.this.transferFrom(file, position, count);
+		}
+
+		@Override
+		public void transferFrom(ByteBuffer buffer) throws IOException {
+			NioConnection.this.write(buffer);
+		}
+
+		@Override
+		public void write(ByteBuffer[] buffers) throws IOException {
+			NioConnection.this.write(buffers);
+		}
+	}
+}
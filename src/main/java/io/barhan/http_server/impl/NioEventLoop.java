@@ -0,0 +1,131 @@
+package io.barhan.http_server.impl;
+
+import java.io.IOException;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.barhan.http_server.exception.HttpServerException;
+
+class NioEventLoop implements Runnable {
+	private static final Logger LOGGER = LoggerFactory.getLogger(NioEventLoop.class);
+	private static final long IDLE_CHECK_INTERVAL_MILLIS = 1000;
+
+	private final Selector selector;
+	private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+	private final Thread thread;
+	private volatile boolean stopped;
+
+	NioEventLoop(String name) {
+		try {
+			this.selector = Selector.open();
+		} catch (IOException e) {
+			throw new HttpServerException("Opening selector for " + name + " failed.", e);
+		}
+		this.thread = new Thread(this, name);
+		this.thread.setDaemon(false);
+	}
+
+	void start() {
+		this.thread.start();
+	}
+
+	void shutdown() {
+		this.stopped = true;
+		this.selector.wakeup();
+	}
+
+	void execute(Runnable task) {
+		this.tasks.add(task);
+		this.selector.wakeup();
+	}
+
+	void register(NioConnection connection) {
+		this.execute(() -> {
+			try {
+				connection.setSelectionKey(
+						connection.getChannel().register(this.selector, SelectionKey.OP_READ, connection));
+			} catch (IOException e) {
+				LOGGER.error("Registering client channel failed: " + e.getMessage(), e);
+				connection.close();
+			}
+		});
+	}
+
+	@Override
+	public void run() {
+		try {
+			long lastIdleCheck = System.nanoTime();
+			while (!this.stopped) {
+				this.selector.select(IDLE_CHECK_INTERVAL_MILLIS);
+				this.runTasks();
+				this.processSelectedKeys();
+				long now = System.nanoTime();
+				if (now - lastIdleCheck >= TimeUnit.MILLISECONDS.toNanos(IDLE_CHECK_INTERVAL_MILLIS)) {
+					this.closeIdleConnections(now);
+					lastIdleCheck = now;
+				}
+			}
+		} catch (IOException e) {
+			LOGGER.error("Event loop failed: " + e.getMessage(), e);
+		} finally {
+			this.closeAll();
+		}
+	}
+
+	private void runTasks() {
+		Runnable task;
+		while ((task = this.tasks.poll()) != null) {
+			try {
+				task.run();
+			} catch (RuntimeException e) {
+				LOGGER.error("Event loop task failed: " + e.getMessage(), e);
+			}
+		}
+	}
+
+	private void processSelectedKeys() {
+		Iterator<SelectionKey> it = this.selector.selectedKeys().iterator();
+		while (it.hasNext()) {
+			SelectionKey key = it.next();
+			it.remove();
+			NioConnection connection = (NioConnection) key.attachment();
+			try {
+				if (key.isValid() && key.isReadable()) {
+					connection.onReadable();
+				}
+				if (key.isValid() && key.isWritable()) {
+					connection.onWritable();
+				}
+			} catch (CancelledKeyException e) {
+				connection.close();
+			}
+		}
+	}
+
+	private void closeIdleConnections(long now) {
+		for (SelectionKey key : this.selector.keys()) {
+			if (key.isValid()) {
+				((NioConnection) key.attachment()).closeIfIdle(now);
+			}
+		}
+	}
+
+	private void closeAll() {
+		for (SelectionKey key : this.selector.keys()) {
+			((NioConnection) key.attachment()).close();
+		}
+		try {
+			this.selector.close();
+		} catch (IOException e) {
+			LOGGER.warn("Closing selector failed: " + e.getMessage(), e);
+		}
+	}
+}
@@ -0,0 +1,34 @@
+package io.barhan.http_server.impl;
+
+import io.barhan.http_server.config.HttpServerConfig;
+
+class NioHttpClientSocketHandler extends AbstractHttpClientSocketHandler {
+	private final NioConnection connection;
+
+	NioHttpClientSocketHandler(NioConnection connection, HttpServerConfig httpServerConfig) {
+		super(connection.getRemoteAddress(), httpServerConfig);
+		this.connection = connection;
+	}
+
+	@Override
+	protected void execute() throws Exception {
+		BatchOutputStream out = new BatchOutputStream(this.connection.getOutputStream());
+		boolean released = false;
+		try {
+			while (!released && this.processRequests(this.connection.getInputStream(), out)) {
+				this.connection.getInputStream().skipBody();
+				released = this.connection.release();
+			}
+		} finally {
+			if (!released) {
+				this.connection.close();
+			}
+		}
+	}
+
+	@Override
+	protected boolean isKeepAliveAllowed() {
+		return this.connection.nextRequestNumber() < this.httpServerConfig.getKeepAliveMaxRequests();
+	}
+
+}
@@ -0,0 +1,112 @@
+package io.barhan.http_server.impl;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.barhan.http_server.config.HttpServerConfig;
+import io.barhan.http_server.exception.HttpServerException;
+
+class NioHttpServerImpl extends AbstractHttpServer {
+	private static final Logger LOGGER = LoggerFactory.getLogger(NioHttpServerImpl.class);
+	private final ServerSocketChannel serverSocketChannel;
+	private final NioEventLoop[] eventLoops;
+	private int nextEventLoop;
+
+	protected NioHttpServerImpl(HttpServerConfig httpServerConfig) {
+		super(httpServerConfig);
+		this.serverSocketChannel = this.createServerSocketChannel();
+		this.eventLoops = this.createEventLoops();
+	}
+
+	protected ServerSocketChannel createServerSocketChannel() {
+		try {
+			ServerSocketChannel channel = ServerSocketChannel.open();
+			channel.setOption(StandardSocketOptions.SO_REUSEADDR, true);
+			channel.bind(new InetSocketAddress(this.getHttpServerConfig().getServerInfo().getPort()));
+			return channel;
+		} catch (IOException e) {
+			throw new HttpServerException("Creating server socket with port="
+					+ this.getHttpServerConfig().getServerInfo().getPort() + " failed.", e);
+		}
+	}
+
+	protected NioEventLoop[] createEventLoops() {
+		NioEventLoop[] loops = new NioEventLoop[this.getHttpServerConfig().getSelectorCount()];
+		for (int i = 0; i < loops.length; i++) {
+			loops[i] = new NioEventLoop("nio-event-loop-" + (i + 1));
+		}
+		return loops;
+	}
+
+	int getLocalPort() throws IOException {
+		return ((InetSocketAddress) this.serverSocketChannel.getLocalAddress()).getPort();
+	}
+
+	@Override
+	protected Runnable createServerRunnable() {
+		return () -> {
+			for (NioEventLoop eventLoop : eventLoops) {
+				eventLoop.start();
+			}
+			while (!getMainServerThread().isInterrupted()) {
+				try {
+					SocketChannel clientChannel = serverSocketChannel.accept();
+					registerClientChannel(clientChannel);
+				} catch (IOException e) {
+					if (serverSocketChannel.isOpen()) {
+						LOGGER.error("Cannot accept client socket: " + e.getMessage(), e);
+					}
+					destroyHttpServer();
+					break;
+				}
+			}
+			afterServerLoop();
+		};
+	}
+
+	private void registerClientChannel(SocketChannel clientChannel) throws IOException {
+		NioEventLoop eventLoop = this.eventLoops[this.nextEventLoop];
+		this.nextEventLoop = (this.nextEventLoop + 1) % this.eventLoops.length;
+		try {
+			clientChannel.configureBlocking(false);
+			clientChannel.setOption(StandardSocketOptions.TCP_NODELAY, this.getHttpServerConfig().isTcpNoDelay());
+			HttpServerConfig config = this.getHttpServerConfig();
+			NioConnection connection = new NioConnection(clientChannel, eventLoop, this::dispatch,
+					config.getSocketTimeout(), config.getKeepAliveTimeout(), config.getMaxHeaderSize(),
+					config.getMaxHeaderCount());
+			eventLoop.register(connection);
+		} catch (IOException e) {
+			LOGGER.warn("Cannot register client socket: " + e.getMessage(), e);
+			clientChannel.close();
+		}
+	}
+
+	private void dispatch(NioConnection connection) {
+		try {
+			this.getExecutorService().submit(new NioHttpClientSocketHandler(connection, this.getHttpServerConfig()));
+		} catch (RejectedExecutionException e) {
+			LOGGER.warn("Client request rejected: " + e.getMessage());
+			connection.reject(this.getServiceUnavailableResponse());
+		}
+	}
+
+	@Override
+	protected void closeServerSocket() throws IOException {
+		this.serverSocketChannel.close();
+	}
+
+	@Override
+	protected void destroyHttpServer() {
+		for (NioEventLoop eventLoop : this.eventLoops) {
+			eventLoop.shutdown();
+		}
+		super.destroyHttpServer();
+	}
+}
@@ -1,31 +1,50 @@
 package io.barhan.http_server.impl;
 
+import java.io.Closeable;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.Reader;
+import java.io.Writer;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.attribute.FileTime;
-import java.text.SimpleDateFormat;
 import java.util.Date;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Objects;
 
-import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.ReaderInputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import io.barhan.http_server.config.HttpResponseCommitter;
 import io.barhan.http_server.config.ReadableHttpResponse;
 import io.barhan.http_server.exception.HttpServerException;
 import io.barhan.http_server.utils.HttpUtils;
 
 class ReadableHttpResponseImpl implements ReadableHttpResponse {
+	private static final Logger LOGGER = LoggerFactory.getLogger(ReadableHttpResponseImpl.class);
+
 	private final Map<String, String> headers;
-	private byte[] body;
+	private final MappedFileCache mappedFileCache;
+	private ResponseBody body;
 	private int status;
+	private HttpResponseCommitter committer;
+	private ResponseOutputStream outputStream;
+	private Writer writer;
+	private boolean headersOnly;
 
 	protected ReadableHttpResponseImpl() {
+		this(null);
+	}
+
+	ReadableHttpResponseImpl(MappedFileCache mappedFileCache) {
+		this.mappedFileCache = mappedFileCache;
 		this.status = 200;
 		this.headers = new LinkedHashMap<>();
-		this.body = new byte[0];
+		this.body = ByteArrayResponseBody.EMPTY;
 	}
 
 	@Override
@@ -40,7 +59,10 @@ class ReadableHttpResponseImpl implements ReadableHttpResponse {
 
 	@Override
 	public byte[] getBody() {
-		return this.body;
+		if (this.isBodyBuffered()) {
+			return ((ByteArrayResponseBody) this.body).getContent();
+		}
+		throw new HttpServerException("Http response body is not buffered in memory");
 	}
 
 	@Override
@@ -49,8 +71,20 @@ class ReadableHttpResponseImpl implements ReadableHttpResponse {
 	}
 
 	@Override
-	public int getBodyLength() {
-		return this.body.length;
+	public boolean isBodyBuffered() {
+		return this.body instanceof ByteArrayResponseBody;
+	}
+
+	@Override
+	public long getBodyLength() {
+		return this.body.getLength();
+	}
+
+	@Override
+	public void writeBody(OutputStream out) throws IOException {
+		try (ResponseBody b = this.body) {
+			b.writeTo(out);
+		}
 	}
 
 	@Override
@@ -64,10 +98,9 @@ class ReadableHttpResponseImpl implements ReadableHttpResponse {
 		Objects.requireNonNull(value, "Value cannot be null!");
 		name = HttpUtils.normalizeHeaderName(name);
 		if (value instanceof Date) {
-			this.headers.put(name, new SimpleDateFormat("EEE, dd MMM yyyy HH:mm:ss Z").format(value));
+			this.headers.put(name, HttpDateCache.format(((Date) value).getTime()));
 		} else if (value instanceof FileTime) {
-			this.headers.put(name, new SimpleDateFormat("EEE, dd MMM yyyy HH:mm:ss Z")
-					.format(new Date(((FileTime) value).toMillis())));
+			this.headers.put(name, HttpDateCache.format(((FileTime) value).toMillis()));
 		} else {
 			this.headers.put(name, String.valueOf(value));
 		}
@@ -76,29 +109,138 @@ class ReadableHttpResponseImpl implements ReadableHttpResponse {
 	@Override
 	public void setBody(String content) {
 		Objects.requireNonNull(content, "Content cannot be null!");
-		this.body = content.getBytes(StandardCharsets.UTF_8);
+		this.replaceBody(new ByteArrayResponseBody(content.getBytes(StandardCharsets.UTF_8)));
+	}
+
+	@Override
+	public void setBody(byte[] content) {
+		Objects.requireNonNull(content, "Content cannot be null!");
+		this.replaceBody(new ByteArrayResponseBody(content));
 	}
 
 	@Override
 	public void setBody(InputStream in) {
+		this.setBody(in, -1);
+	}
+
+	@Override
+	public void setBody(InputStream in, long length) {
+		Objects.requireNonNull(in, "InputStream cannot be null!");
+		if (this.headersOnly) {
+			close(in);
+			this.replaceBody(new LengthOnlyResponseBody(length));
+			return;
+		}
+		this.replaceBody(new StreamResponseBody(in, length));
+	}
+
+	@Override
+	public void setBody(Reader reader) {
+		Objects.requireNonNull(reader, "Reader cannot be null!");
+		if (this.headersOnly) {
+			close(reader);
+			this.replaceBody(new LengthOnlyResponseBody(-1));
+			return;
+		}
+		this.replaceBody(new StreamResponseBody(new ReaderInputStream(reader, StandardCharsets.UTF_8), -1));
+	}
+
+	private static void close(Closeable closeable) {
 		try {
-			Objects.requireNonNull(in, "InputStream cannot be null!");
-			this.body = IOUtils.toByteArray(in);
+			closeable.close();
 		} catch (IOException e) {
-			throw new HttpServerException("Setting http response body from InputStream failed: " + e.getMessage(), e);
+			LOGGER.warn("Closing response body source failed: " + e.getMessage(), e);
 		}
-
 	}
 
 	@Override
-	public void setBody(Reader reader) {
+	public void setBody(Path file) {
 		try {
-			Objects.requireNonNull(reader, "Reader cannot be null!");
-			this.body = IOUtils.toByteArray(reader, StandardCharsets.UTF_8);
+			Objects.requireNonNull(file, "File cannot be null!");
+			long length = Files.size(file);
+			if (this.headersOnly) {
+				this.replaceBody(new LengthOnlyResponseBody(length));
+				return;
+			}
+			ResponseBody body = this.mappedFileCache != null ? this.mappedFileCache.createBody(file, length) : null;
+			this.replaceBody(body != null ? body : new FileResponseBody(file, length));
 		} catch (IOException e) {
-			throw new HttpServerException("Setting http response body from Reader failed: " + e.getMessage(), e);
+			throw new HttpServerException("Setting http response body from file failed: " + e.getMessage(), e);
+		}
+
+	}
+
+	@Override
+	public OutputStream getOutputStream() {
+		if (this.outputStream == null) {
+			this.outputStream = new ResponseOutputStream(this);
 		}
+		return this.outputStream;
+	}
+
+	@Override
+	public Writer getWriter() {
+		if (this.writer == null) {
+			this.getOutputStream();
+			this.writer = this.outputStream.createWriter();
+		}
+		return this.writer;
+	}
+
+	@Override
+	public boolean isHeadersOnly() {
+		return this.headersOnly;
+	}
+
+	@Override
+	public void setHeadersOnly(boolean headersOnly) {
+		this.headersOnly = headersOnly;
+	}
+
+	@Override
+	public void setCommitter(HttpResponseCommitter committer) {
+		this.committer = committer;
+	}
+
+	@Override
+	public boolean isCommitted() {
+		return this.outputStream != null && this.outputStream.isCommitted();
+	}
 
+	@Override
+	public void closeOutput() throws IOException {
+		if (this.writer != null) {
+			this.writer.close();
+		}
+		if (this.outputStream != null) {
+			this.outputStream.close();
+		}
+	}
+
+	ResponseBody getResponseBody() {
+		return this.body;
+	}
+
+	void setResponseBody(ResponseBody body) {
+		this.replaceBody(body);
+	}
+
+	boolean isCommittable() {
+		return this.committer != null;
+	}
+
+	OutputStream commit() throws IOException {
+		this.replaceBody(ByteArrayResponseBody.EMPTY);
+		return this.committer.commit(this);
+	}
+
+	private void replaceBody(ResponseBody body) {
+		try {
+			this.body.close();
+		} catch (IOException e) {
+			throw new HttpServerException("Closing previous http response body failed: " + e.getMessage(), e);
+		}
+		this.body = body;
 	}
 
 }
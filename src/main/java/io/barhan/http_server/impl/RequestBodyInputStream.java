@@ -0,0 +1,66 @@
+package io.barhan.http_server.impl;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+
+class RequestBodyInputStream extends InputStream {
+	private final InputStream in;
+	private long remaining;
+
+	RequestBodyInputStream(InputStream in, long length) {
+		this.in = in;
+		this.remaining = length;
+	}
+
+	@Override
+	public int read() throws IOException {
+		if (this.remaining == 0) {
+			return -1;
+		}
+		int b = this.in.read();
+		if (b == -1) {
+			throw new EOFException("Input stream closed.");
+		}
+		this.remaining--;
+		return b;
+	}
+
+	@Override
+	public int read(byte[] b, int off, int len) throws IOException {
+		if (len == 0) {
+			return 0;
+		}
+		if (this.remaining == 0) {
+			return -1;
+		}
+		int read = this.in.read(b, off, (int) Math.min(len, this.remaining));
+		if (read == -1) {
+			throw new EOFException("Input stream closed.");
+		}
+		this.remaining -= read;
+		return read;
+	}
+
+	@Override
+	public long skip(long n) throws IOException {
+		if (n <= 0 || this.remaining == 0) {
+			return 0;
+		}
+		long skipped = this.in.skip(Math.min(n, this.remaining));
+		if (skipped <= 0) {
+			throw new EOFException("Input stream closed.");
+		}
+		this.remaining -= skipped;
+		return skipped;
+	}
+
+	@Override
+	public int available() throws IOException {
+		return (int) Math.min(this.in.available(), this.remaining);
+	}
+
+	@Override
+	public void close() {
+	}
+}
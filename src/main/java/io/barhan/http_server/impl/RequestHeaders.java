@@ -0,0 +1,97 @@
+package io.barhan.http_server.impl;
+
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import io.barhan.http_server.utils.HttpUtils;
+
+class RequestHeaders extends AbstractMap<String, String> {
+	private final byte[] data;
+	private final int[] offsets;
+	private final int count;
+	private final String[] values;
+	private Map<String, String> decoded;
+
+	RequestHeaders(byte[] data, int[] offsets, int count) {
+		this.data = data;
+		this.offsets = offsets;
+		this.count = count;
+		this.values = new String[count];
+	}
+
+	@Override
+	public String get(Object key) {
+		int index = key instanceof String ? this.indexOf((String) key) : -1;
+		return index != -1 ? this.getValue(index) : null;
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return key instanceof String && this.indexOf((String) key) != -1;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return this.count == 0;
+	}
+
+	@Override
+	public Set<Map.Entry<String, String>> entrySet() {
+		if (this.decoded == null) {
+			Map<String, String> decoded = new LinkedHashMap<>();
+			for (int i = 0; i < this.count; i++) {
+				decoded.put(HttpUtils.normalizeHeaderName(this.getName(i)), this.getValue(i));
+			}
+			this.decoded = Collections.unmodifiableMap(decoded);
+		}
+		return this.decoded.entrySet();
+	}
+
+	private int indexOf(String name) {
+		for (int i = this.count - 1; i >= 0; i--) {
+			if (this.nameEquals(i, name)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private boolean nameEquals(int index, String name) {
+		int start = this.offsets[index * 4];
+		int end = this.offsets[index * 4 + 1];
+		if (end - start != name.length()) {
+			return false;
+		}
+		for (int i = start; i < end; i++) {
+			int b = this.data[i];
+			int ch = name.charAt(i - start);
+			if (b != ch && toLowerCase(b) != toLowerCase(ch)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static int toLowerCase(int ch) {
+		return ch >= 'A' && ch <= 'Z' ? ch + ('a' - 'A') : ch;
+	}
+
+	private String getName(int index) {
+		int start = this.offsets[index * 4];
+		return new String(this.data, start, this.offsets[index * 4 + 1] - start, StandardCharsets.US_ASCII);
+	}
+
+	private String getValue(int index) {
+		String value = this.values[index];
+		if (value == null) {
+			int start = this.offsets[index * 4 + 2];
+			value = new String(this.data, start, this.offsets[index * 4 + 3] - start, StandardCharsets.UTF_8);
+			this.values[index] = value;
+		}
+		return value;
+	}
+}
@@ -0,0 +1,182 @@
+package io.barhan.http_server.impl;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+class RequestInputStream extends InputStream {
+	private static final int BUFFER_SIZE = 8192;
+	private static final byte[] CONTINUE_RESPONSE = "HTTP/1.1 100 Continue\r\n\r\n"
+			.getBytes(StandardCharsets.ISO_8859_1);
+
+	private final InputStream in;
+	private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+	private HttpRequestDecoder decoder;
+	private boolean headDecoding;
+	private RuntimeException headFailure;
+	private InputStream body;
+	private OutputStream continueTarget;
+	private boolean continuePending;
+
+	RequestInputStream(InputStream in) {
+		this.in = in;
+		this.buffer.flip();
+	}
+
+	static RequestInputStream wrap(InputStream in) {
+		return in instanceof RequestInputStream ? (RequestInputStream) in : new RequestInputStream(in);
+	}
+
+	ByteBuffer getBuffer() {
+		return this.buffer;
+	}
+
+	HttpRequestDecoder getDecoder(int maxHeaderSize, int maxHeaderCount) {
+		if (this.decoder == null) {
+			this.decoder = new HttpRequestDecoder(maxHeaderSize, maxHeaderCount);
+		} else if (!this.headDecoding) {
+			this.decoder.reset();
+		}
+		this.headDecoding = false;
+		return this.decoder;
+	}
+
+	boolean decodeAvailableHead(int maxHeaderSize, int maxHeaderCount) throws IOException {
+		if (!this.headDecoding) {
+			this.getDecoder(maxHeaderSize, maxHeaderCount);
+			this.headDecoding = true;
+		}
+		if (this.headFailure != null) {
+			return true;
+		}
+		try {
+			while (!this.decoder.decode(this.buffer)) {
+				if (this.in.available() <= 0 || !this.fill()) {
+					return false;
+				}
+			}
+			return true;
+		} catch (RuntimeException e) {
+			this.headFailure = e;
+			return true;
+		}
+	}
+
+	void throwHeadFailure() {
+		RuntimeException failure = this.headFailure;
+		if (failure != null) {
+			this.headFailure = null;
+			throw failure;
+		}
+	}
+
+	void setContinueTarget(OutputStream continueTarget) {
+		this.continueTarget = continueTarget;
+	}
+
+	InputStream openBody(InputStream body, boolean expectContinue) {
+		this.body = body;
+		this.continuePending = expectContinue;
+		return body;
+	}
+
+	boolean isContinuePending() {
+		return this.continuePending;
+	}
+
+	boolean hasPendingBody() {
+		return this.body != null;
+	}
+
+	void skipBody() throws IOException {
+		if (this.body == null) {
+			return;
+		}
+		InputStream body = this.body;
+		this.body = null;
+		long skipped;
+		do {
+			skipped = body.skip(Long.MAX_VALUE);
+		} while (skipped > 0);
+		this.continuePending = false;
+	}
+
+	private void sendContinueIfPending() throws IOException {
+		if (this.continuePending) {
+			this.continuePending = false;
+			if (this.continueTarget != null) {
+				this.continueTarget.write(CONTINUE_RESPONSE);
+				this.continueTarget.flush();
+			}
+		}
+	}
+
+	boolean fill() throws IOException {
+		this.sendContinueIfPending();
+		this.buffer.compact();
+		try {
+			int read = this.in.read(this.buffer.array(), this.buffer.arrayOffset() + this.buffer.position(),
+					this.buffer.remaining());
+			if (read == -1) {
+				return false;
+			}
+			this.buffer.position(this.buffer.position() + read);
+			return true;
+		} finally {
+			this.buffer.flip();
+		}
+	}
+
+	@Override
+	public int read() throws IOException {
+		if (!this.buffer.hasRemaining() && !this.fill()) {
+			return -1;
+		}
+		return this.buffer.get() & 0xFF;
+	}
+
+	@Override
+	public int read(byte[] b, int off, int len) throws IOException {
+		if (len == 0) {
+			return 0;
+		}
+		if (!this.buffer.hasRemaining()) {
+			if (len >= BUFFER_SIZE) {
+				this.sendContinueIfPending();
+				return this.in.read(b, off, len);
+			}
+			if (!this.fill()) {
+				return -1;
+			}
+		}
+		int count = Math.min(len, this.buffer.remaining());
+		this.buffer.get(b, off, count);
+		return count;
+	}
+
+	@Override
+	public long skip(long n) throws IOException {
+		if (n <= 0) {
+			return 0;
+		}
+		if (!this.buffer.hasRemaining() && !this.fill()) {
+			throw new EOFException("Input stream closed.");
+		}
+		int count = (int) Math.min(n, this.buffer.remaining());
+		this.buffer.position(this.buffer.position() + count);
+		return count;
+	}
+
+	@Override
+	public int available() throws IOException {
+		return this.buffer.remaining() + this.in.available();
+	}
+
+	@Override
+	public void close() throws IOException {
+		this.in.close();
+	}
+}
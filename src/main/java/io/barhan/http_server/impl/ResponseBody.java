@@ -0,0 +1,19 @@
+package io.barhan.http_server.impl;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+
+interface ResponseBody extends Closeable {
+	long getLength();
+
+	void writeTo(OutputStream out) throws IOException;
+
+	default ResponseBody slice(long position, long length) {
+		return null;
+	}
+
+	@Override
+	default void close() throws IOException {
+	}
+}
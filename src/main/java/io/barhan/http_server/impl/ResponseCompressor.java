@@ -0,0 +1,186 @@
+package io.barhan.http_server.impl;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+import io.barhan.http_server.Constants;
+import io.barhan.http_server.HttpRequest;
+import io.barhan.http_server.config.ReadableHttpResponse;
+import io.barhan.http_server.exception.HttpServerException;
+import io.barhan.http_server.utils.HttpUtils;
+
+class ResponseCompressor {
+	static final String GZIP = "gzip";
+	static final String DEFLATE = "deflate";
+
+	private static final int POOL_SIZE = 64;
+	private static final int BUFFER_SIZE = 8192;
+	private static final byte[] GZIP_HEADER = { 0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff };
+
+	private final int level;
+	private final int minSize;
+	private final BlockingQueue<Deflater> gzipDeflaters = new ArrayBlockingQueue<>(POOL_SIZE);
+	private final BlockingQueue<Deflater> zlibDeflaters = new ArrayBlockingQueue<>(POOL_SIZE);
+
+	ResponseCompressor(int level, int minSize) {
+		this.level = level;
+		this.minSize = minSize;
+	}
+
+	void compress(HttpRequest request, ReadableHttpResponse response) {
+		if (!response.isBodyBuffered()) {
+			return;
+		}
+		byte[] body = response.getBody();
+		if (body.length < this.minSize) {
+			return;
+		}
+		String encoding = this.negotiate(request, response);
+		if (encoding == null) {
+			return;
+		}
+		ByteArrayOutputStream compressed = new ByteArrayOutputStream(body.length / 2);
+		try (OutputStream out = this.createOutputStream(compressed, encoding)) {
+			out.write(body);
+		} catch (IOException e) {
+			throw new HttpServerException("Compressing http response body failed: " + e.getMessage(), e);
+		}
+		if (compressed.size() < body.length) {
+			response.setBody(compressed.toByteArray());
+			this.setContentEncoding(response, encoding);
+		}
+	}
+
+	String negotiateCommitted(HttpRequest request, ReadableHttpResponse response) {
+		String encoding = this.negotiate(request, response);
+		if (encoding != null) {
+			this.setContentEncoding(response, encoding);
+		}
+		return encoding;
+	}
+
+	private String negotiate(HttpRequest request, ReadableHttpResponse response) {
+		if (this.level == 0 || request == null || Constants.HEAD.equals(request.getMethod())
+				|| !this.isCompressibleStatus(response.getStatus())
+				|| response.getHeaders().containsKey("Content-Encoding")
+				|| !HttpUtils.isCompressible(response.getHeaders().get("Content-Type"))) {
+			return null;
+		}
+		this.addVary(response);
+		String acceptEncoding = request.getHeaders().get("Accept-Encoding");
+		if (HttpUtils.isEncodingAccepted(acceptEncoding, GZIP)) {
+			return GZIP;
+		}
+		if (HttpUtils.isEncodingAccepted(acceptEncoding, DEFLATE)) {
+			return DEFLATE;
+		}
+		return null;
+	}
+
+	private boolean isCompressibleStatus(int status) {
+		return status >= 200 && status != 204 && status != 206 && status != 304;
+	}
+
+	private void addVary(ReadableHttpResponse response) {
+		String vary = response.getHeaders().get("Vary");
+		if (vary == null) {
+			response.setHeader("Vary", "Accept-Encoding");
+		} else if (!vary.toLowerCase().contains("accept-encoding")) {
+			response.setHeader("Vary", vary + ", Accept-Encoding");
+		}
+	}
+
+	private void setContentEncoding(ReadableHttpResponse response, String encoding) {
+		response.setHeader("Content-Encoding", encoding);
+		String etag = response.getHeaders().get("Etag");
+		if (etag != null && etag.endsWith("\"")) {
+			response.setHeader("ETag", getEncodedETag(etag, encoding));
+		}
+	}
+
+	static String getEncodedETag(String etag, String encoding) {
+		return etag.substring(0, etag.length() - 1) + "-" + encoding + "\"";
+	}
+
+	OutputStream createOutputStream(OutputStream out, String encoding) throws IOException {
+		boolean gzip = GZIP.equals(encoding);
+		return new CompressingOutputStream(out, this.acquire(gzip), gzip);
+	}
+
+	private Deflater acquire(boolean gzip) {
+		Deflater deflater = (gzip ? this.gzipDeflaters : this.zlibDeflaters).poll();
+		return deflater != null ? deflater : new Deflater(this.level, gzip);
+	}
+
+	private void release(Deflater deflater, boolean gzip) {
+		deflater.reset();
+		if (!(gzip ? this.gzipDeflaters : this.zlibDeflaters).offer(deflater)) {
+			deflater.end();
+		}
+	}
+
+	int getPooledDeflaterCount() {
+		return this.gzipDeflaters.size() + this.zlibDeflaters.size();
+	}
+
+	private class CompressingOutputStream extends DeflaterOutputStream {
+		private final boolean gzip;
+		private final CRC32 crc = new CRC32();
+		private boolean closed;
+
+		CompressingOutputStream(OutputStream out, Deflater deflater, boolean gzip) throws IOException {
+			super(out, deflater, BUFFER_SIZE, true);
+			this.gzip = gzip;
+			if (gzip) {
+				out.write(GZIP_HEADER);
+			}
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			super.write(b, off, len);
+			if (this.gzip) {
+				this.crc.update(b, off, len);
+			}
+		}
+
+		@Override
+		public void finish() throws IOException {
+			if (this.def.finished()) {
+				return;
+			}
+			super.finish();
+			if (this.gzip) {
+				this.writeInt((int) this.crc.getValue());
+				this.writeInt((int) this.def.getBytesRead());
+			}
+		}
+
+		private void writeInt(int value) throws IOException {
+			this.out.write(value & 0xff);
+			this.out.write((value >> 8) & 0xff);
+			this.out.write((value >> 16) & 0xff);
+			this.out.write((value >> 24) & 0xff);
+		}
+
+		@Override
+		public void close() throws IOException {
+			if (this.closed) {
+				return;
+			}
+			this.closed = true;
+			try {
+				this.finish();
+				this.out.close();
+			} finally {
+				ResponseCompressor.this.release(this.def, this.gzip);
+			}
+		}
+	}
+}
@@ -0,0 +1,113 @@
+package io.barhan.http_server.impl;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import io.barhan.http_server.Constants;
+import io.barhan.http_server.config.HttpServerConfig;
+import io.barhan.http_server.config.ReadableHttpResponse;
+
+class ResponseHeadEncoder {
+	private static final int INITIAL_BUFFER_SIZE = 1024;
+	private static final int MAX_STATUS_CODE = 599;
+
+	private final HttpServerConfig httpServerConfig;
+	private final byte[][] statusLines = new byte[MAX_STATUS_CODE + 1][];
+	private final Map<String, Map<String, byte[]>> fixedHeaders = new HashMap<>();
+	private final ThreadLocal<byte[]> buffers = ThreadLocal.withInitial(() -> new byte[INITIAL_BUFFER_SIZE]);
+
+	ResponseHeadEncoder(HttpServerConfig httpServerConfig) {
+		this.httpServerConfig = httpServerConfig;
+		if (httpServerConfig.getHttpServerContext() != null) {
+			Properties statusProperties = httpServerConfig.getHttpServerContext().getSupportedResponseMethods();
+			for (String name : statusProperties.stringPropertyNames()) {
+				int status = Integer.parseInt(name.trim());
+				if (status >= 0 && status <= MAX_STATUS_CODE) {
+					this.statusLines[status] = this.createStatusLine(status);
+				}
+			}
+		}
+		if (httpServerConfig.getServerInfo() != null) {
+			this.addFixedHeader("Server", httpServerConfig.getServerInfo().getName());
+		}
+		this.addFixedHeader("Content-Language", "en");
+		this.addFixedHeader("Content-Type", "text/html");
+		this.addFixedHeader("Connection", "close");
+		this.addFixedHeader("Connection", "keep-alive");
+		this.addFixedHeader("Transfer-Encoding", "chunked");
+		this.addFixedHeader("Accept-Ranges", "bytes");
+		this.addFixedHeader("Vary", "Accept-Encoding");
+		this.addFixedHeader("Content-Encoding", ResponseCompressor.GZIP);
+	}
+
+	private void addFixedHeader(String name, String value) {
+		this.fixedHeaders.computeIfAbsent(name, key -> new HashMap<>()).put(value,
+				(name + ": " + value + "\r\n").getBytes(StandardCharsets.ISO_8859_1));
+	}
+
+	byte[] getBuffer() {
+		return this.buffers.get();
+	}
+
+	int encode(ReadableHttpResponse response) {
+		byte[] buffer = this.buffers.get();
+		byte[] statusLine = this.getStatusLine(response.getStatus());
+		int position = 0;
+		buffer = this.ensureCapacity(buffer, position, statusLine.length);
+		System.arraycopy(statusLine, 0, buffer, position, statusLine.length);
+		position += statusLine.length;
+		for (Map.Entry<String, String> entry : response.getHeaders().entrySet()) {
+			String name = entry.getKey();
+			String value = entry.getValue();
+			Map<String, byte[]> fixedValues = this.fixedHeaders.get(name);
+			byte[] fixed = fixedValues != null ? fixedValues.get(value) : null;
+			if (fixed != null) {
+				buffer = this.ensureCapacity(buffer, position, fixed.length);
+				System.arraycopy(fixed, 0, buffer, position, fixed.length);
+				position += fixed.length;
+			} else {
+				buffer = this.ensureCapacity(buffer, position, name.length() + value.length() + 4);
+				position = this.putAscii(buffer, position, name);
+				buffer[position++] = ':';
+				buffer[position++] = ' ';
+				position = this.putAscii(buffer, position, value);
+				buffer[position++] = '\r';
+				buffer[position++] = '\n';
+			}
+		}
+		buffer = this.ensureCapacity(buffer, position, 2);
+		buffer[position++] = '\r';
+		buffer[position++] = '\n';
+		return position;
+	}
+
+	private byte[] ensureCapacity(byte[] buffer, int position, int length) {
+		if (position + length <= buffer.length) {
+			return buffer;
+		}
+		byte[] larger = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + length));
+		this.buffers.set(larger);
+		return larger;
+	}
+
+	private int putAscii(byte[] buffer, int position, String value) {
+		for (int i = 0; i < value.length(); i++) {
+			char ch = value.charAt(i);
+			buffer[position++] = ch < 256 ? (byte) ch : (byte) '?';
+		}
+		return position;
+	}
+
+	private byte[] getStatusLine(int status) {
+		byte[] statusLine = status >= 0 && status <= MAX_STATUS_CODE ? this.statusLines[status] : null;
+		return statusLine != null ? statusLine : this.createStatusLine(status);
+	}
+
+	private byte[] createStatusLine(int status) {
+		return (Constants.SUPPORTED_HTTP_VERSION + " " + status + " " + this.httpServerConfig.getStatusMessage(status)
+				+ "\r\n").getBytes(StandardCharsets.ISO_8859_1);
+	}
+}
@@ -0,0 +1,135 @@
+package io.barhan.http_server.impl;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+class ResponseOutputStream extends OutputStream {
+	private static final int BUFFER_SIZE = 8192;
+	private static final int MAX_BUFFER_SIZE = 1024 * 1024;
+
+	private final ReadableHttpResponseImpl response;
+	private byte[] buffer = new byte[BUFFER_SIZE];
+	private int count;
+	private long discarded;
+	private OutputStream committed;
+	private TempFileResponseBody spill;
+	private boolean closing;
+	private boolean closed;
+
+	ResponseOutputStream(ReadableHttpResponseImpl response) {
+		this.response = response;
+	}
+
+	boolean isCommitted() {
+		return this.committed != null;
+	}
+
+	Writer createWriter() {
+		return new OutputStreamWriter(this, StandardCharsets.UTF_8) {
+			@Override
+			public void close() throws IOException {
+				ResponseOutputStream.this.closing = true;
+				super.close();
+			}
+		};
+	}
+
+	@Override
+	public void write(int b) throws IOException {
+		this.ensureOpen();
+		if (this.count == this.buffer.length) {
+			this.drain();
+		}
+		this.buffer[this.count++] = (byte) b;
+	}
+
+	@Override
+	public void write(byte[] b, int off, int len) throws IOException {
+		this.ensureOpen();
+		while (len > 0) {
+			if (this.count == this.buffer.length) {
+				this.drain();
+			}
+			int n = Math.min(len, this.buffer.length - this.count);
+			System.arraycopy(b, off, this.buffer, this.count, n);
+			this.count += n;
+			off += n;
+			len -= n;
+		}
+	}
+
+	@Override
+	public void flush() throws IOException {
+		this.ensureOpen();
+		if (!this.closing && this.response.isCommittable()) {
+			this.drain();
+			this.committed.flush();
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (this.closed) {
+			return;
+		}
+		this.closed = true;
+		if (this.committed != null) {
+			this.committed.write(this.buffer, 0, this.count);
+			this.committed.close();
+		} else if (this.response.isHeadersOnly()) {
+			this.response.setResponseBody(new LengthOnlyResponseBody(this.discarded + this.count));
+		} else if (this.spill != null) {
+			this.spill.append(this.buffer, 0, this.count);
+			this.response.setResponseBody(this.spill);
+			this.spill = null;
+		} else {
+			this.response.setBody(Arrays.copyOf(this.buffer, this.count));
+		}
+		this.buffer = null;
+	}
+
+	private void drain() throws IOException {
+		if (this.committed == null) {
+			if (this.response.isHeadersOnly()) {
+				this.discarded += this.count;
+				this.count = 0;
+				return;
+			}
+			if (!this.response.isCommittable()) {
+				this.growOrSpill(this.buffer.length * 2);
+				return;
+			}
+			this.committed = this.response.commit();
+			if (this.spill != null) {
+				try (TempFileResponseBody spill = this.spill) {
+					this.spill = null;
+					spill.writeTo(this.committed);
+				}
+			}
+		}
+		this.committed.write(this.buffer, 0, this.count);
+		this.count = 0;
+	}
+
+	private void growOrSpill(int size) throws IOException {
+		if (this.buffer.length < MAX_BUFFER_SIZE) {
+			this.buffer = Arrays.copyOf(this.buffer, Math.min(size, MAX_BUFFER_SIZE));
+			return;
+		}
+		if (this.spill == null) {
+			this.spill = new TempFileResponseBody();
+		}
+		this.spill.append(this.buffer, 0, this.count);
+		this.count = 0;
+	}
+
+	private void ensureOpen() throws IOException {
+		if (this.closed) {
+			throw new IOException("Response output stream closed");
+		}
+	}
+}
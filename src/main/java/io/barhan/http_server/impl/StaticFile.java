@@ -0,0 +1,96 @@
+package io.barhan.http_server.impl;
+
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import io.barhan.http_server.HttpResponse;
+import io.barhan.http_server.exception.HttpServerException;
+
+class StaticFile {
+	private final Path path;
+	private final byte[] content;
+	private final String contentType;
+	private final FileTime lastModified;
+	private final long length;
+	private final String etag;
+	private volatile String contentETag;
+
+	StaticFile(Path path, String contentType, FileTime lastModified, long length) {
+		this(path, null, contentType, lastModified, length);
+	}
+
+	StaticFile(Path path, byte[] content, String contentType, FileTime lastModified) {
+		this(path, content, contentType, lastModified, content.length);
+	}
+
+	private StaticFile(Path path, byte[] content, String contentType, FileTime lastModified, long length) {
+		this.path = path;
+		this.content = content;
+		this.contentType = contentType;
+		this.lastModified = lastModified;
+		this.length = length;
+		this.etag = "\"" + Long.toHexString(lastModified.toMillis()) + "-" + Long.toHexString(length) + "\"";
+	}
+
+	Path getPath() {
+		return this.path;
+	}
+
+	byte[] getContent() {
+		return this.content;
+	}
+
+	String getContentType() {
+		return this.contentType;
+	}
+
+	FileTime getLastModified() {
+		return this.lastModified;
+	}
+
+	long getLength() {
+		return this.length;
+	}
+
+	String getETag() {
+		return this.etag;
+	}
+
+	String getContentETag() {
+		if (this.content == null) {
+			return this.etag;
+		}
+		if (this.contentETag == null) {
+			this.contentETag = "\"" + this.hashContent() + "\"";
+		}
+		return this.contentETag;
+	}
+
+	private String hashContent() {
+		try {
+			byte[] digest = MessageDigest.getInstance("SHA-256").digest(this.content);
+			StringBuilder hash = new StringBuilder();
+			for (int i = 0; i < 16; i++) {
+				hash.append(Character.forDigit((digest[i] >> 4) & 0xf, 16))
+						.append(Character.forDigit(digest[i] & 0xf, 16));
+			}
+			return hash.toString();
+		} catch (NoSuchAlgorithmException e) {
+			throw new HttpServerException("Hashing static file content failed: " + e.getMessage(), e);
+		}
+	}
+
+	boolean isNotOlderThan(StaticFile file) {
+		return this.lastModified.compareTo(file.lastModified) >= 0;
+	}
+
+	void setBody(HttpResponse response) {
+		if (this.content != null) {
+			response.setBody(this.content);
+		} else {
+			response.setBody(this.path);
+		}
+	}
+}
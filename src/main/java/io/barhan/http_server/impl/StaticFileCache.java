@@ -0,0 +1,114 @@
+package io.barhan.http_server.impl;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.io.FilenameUtils;
+
+import io.barhan.http_server.HttpServerContext;
+import io.barhan.http_server.StaticFileCacheMetrics;
+
+class StaticFileCache {
+	private final long maxSize;
+	private final long maxEntrySize;
+	private final WebRootWatcher watcher;
+	private final StaticFileCacheMetrics metrics;
+	private final Map<Path, StaticFile> entries = new LinkedHashMap<>(16, 0.75f, true);
+	private final Set<Path> uncacheable = new HashSet<>();
+	private long size;
+	private long generation;
+
+	StaticFileCache(long maxSize, long maxEntrySize, WebRootWatcher watcher, StaticFileCacheMetrics metrics) {
+		this.maxSize = maxSize;
+		this.maxEntrySize = Math.min(maxEntrySize, maxSize);
+		this.watcher = watcher;
+		this.metrics = metrics;
+		watcher.addListener(this::invalidate);
+	}
+
+	StaticFile get(HttpServerContext context, Path path) throws IOException {
+		if (this.maxSize == 0 || !this.watcher.ensureStarted()) {
+			return null;
+		}
+		long loadGeneration;
+		synchronized (this) {
+			if (this.uncacheable.contains(path)) {
+				return null;
+			}
+			StaticFile file = this.entries.get(path);
+			if (file != null) {
+				this.metrics.hit();
+				return file;
+			}
+			loadGeneration = this.generation;
+		}
+		this.metrics.miss();
+		BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+		if (!attributes.isRegularFile() || attributes.size() > this.maxEntrySize) {
+			this.markUncacheable(path, loadGeneration);
+			return null;
+		}
+		StaticFile file = new StaticFile(path, Files.readAllBytes(path),
+				context.getContentType(FilenameUtils.getExtension(path.toString())), attributes.lastModifiedTime());
+		this.put(path, file, loadGeneration);
+		return file;
+	}
+
+	synchronized StaticFile getIfPresent(Path path) {
+		StaticFile file = this.entries.get(path);
+		if (file != null) {
+			this.metrics.hit();
+		}
+		return file;
+	}
+
+	private synchronized void put(Path path, StaticFile file, long loadGeneration) {
+		if (loadGeneration != this.generation || file.getContent().length > this.maxEntrySize) {
+			return;
+		}
+		StaticFile previous = this.entries.put(path, file);
+		if (previous != null) {
+			this.removed(previous);
+		}
+		this.size += file.getContent().length;
+		this.metrics.entryAdded(file.getContent().length);
+		Iterator<StaticFile> it = this.entries.values().iterator();
+		while (this.size > this.maxSize && it.hasNext()) {
+			StaticFile eldest = it.next();
+			it.remove();
+			this.removed(eldest);
+			this.metrics.evicted();
+		}
+	}
+
+	private synchronized void markUncacheable(Path path, long loadGeneration) {
+		if (loadGeneration == this.generation) {
+			this.uncacheable.add(path);
+		}
+	}
+
+	synchronized void invalidate(Path path) {
+		this.generation++;
+		this.uncacheable.removeIf(p -> p.startsWith(path));
+		Iterator<Map.Entry<Path, StaticFile>> it = this.entries.entrySet().iterator();
+		while (it.hasNext()) {
+			Map.Entry<Path, StaticFile> entry = it.next();
+			if (entry.getKey().startsWith(path)) {
+				it.remove();
+				this.removed(entry.getValue());
+			}
+		}
+	}
+
+	private void removed(StaticFile file) {
+		this.size -= file.getContent().length;
+		this.metrics.entryRemoved(file.getContent().length);
+	}
+}
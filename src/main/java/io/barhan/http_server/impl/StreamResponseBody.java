@@ -0,0 +1,43 @@
+package io.barhan.http_server.impl;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import org.apache.commons.io.IOUtils;
+
+class StreamResponseBody implements ResponseBody {
+	private final InputStream in;
+	private final long length;
+
+	StreamResponseBody(InputStream in, long length) {
+		this.in = in;
+		this.length = length;
+	}
+
+	@Override
+	public long getLength() {
+		return this.length;
+	}
+
+	@Override
+	public void writeTo(OutputStream out) throws IOException {
+		long written;
+		if (out instanceof BatchOutputStream) {
+			written = ((BatchOutputStream) out).writeFrom(this.in, this.length);
+		} else if (this.length >= 0) {
+			written = IOUtils.copyLarge(this.in, out, 0, this.length);
+		} else {
+			written = IOUtils.copyLarge(this.in, out);
+		}
+		if (this.length >= 0 && written < this.length) {
+			throw new EOFException("Response body is shorter than expected: " + written + " of " + this.length + " bytes");
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		this.in.close();
+	}
+}
@@ -0,0 +1,67 @@
+package io.barhan.http_server.impl;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+class TempFileResponseBody implements ResponseBody {
+	private final Path path;
+	private final FileChannel file;
+	private long length;
+
+	TempFileResponseBody() throws IOException {
+		this.path = Files.createTempFile("http-response-", ".tmp");
+		try {
+			this.file = FileChannel.open(this.path, StandardOpenOption.READ, StandardOpenOption.WRITE,
+					StandardOpenOption.DELETE_ON_CLOSE);
+		} catch (IOException e) {
+			Files.deleteIfExists(this.path);
+			throw e;
+		}
+	}
+
+	Path getPath() {
+		return this.path;
+	}
+
+	void append(byte[] b, int off, int len) throws IOException {
+		ByteBuffer data = ByteBuffer.wrap(b, off, len);
+		while (data.hasRemaining()) {
+			this.length += this.file.write(data, this.length);
+		}
+	}
+
+	@Override
+	public long getLength() {
+		return this.length;
+	}
+
+	@Override
+	public void writeTo(OutputStream out) throws IOException {
+		if (out instanceof FileTransferTarget) {
+			((FileTransferTarget) out).transferFrom(this.file, 0, this.length);
+			return;
+		}
+		ByteBuffer buffer = ByteBuffer.allocate(8192);
+		long position = 0;
+		while (position < this.length) {
+			buffer.clear();
+			buffer.limit((int) Math.min(buffer.capacity(), this.length - position));
+			int read = this.file.read(buffer, position);
+			if (read == -1) {
+				break;
+			}
+			out.write(buffer.array(), 0, read);
+			position += read;
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		this.file.close();
+	}
+}
@@ -0,0 +1,221 @@
+package io.barhan.http_server.impl;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import org.apache.commons.io.FilenameUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.barhan.http_server.HttpServerContext;
+
+class WebRootIndex {
+	private static final Logger LOGGER = LoggerFactory.getLogger(WebRootIndex.class);
+	private static final String ROOT_KEY = "/";
+
+	private final WebRootWatcher watcher;
+	private final HttpServerContext context;
+	private final Path root;
+	private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+	private volatile boolean active;
+
+	WebRootIndex(WebRootWatcher watcher, HttpServerContext context) {
+		this.watcher = watcher;
+		this.context = context;
+		this.root = watcher.getRoot();
+	}
+
+	void start() {
+		this.watcher.addListener(this::refresh);
+		if (!this.watcher.ensureStarted()) {
+			return;
+		}
+		long start = System.nanoTime();
+		this.entries.put(ROOT_KEY, new Entry(ROOT_KEY, this.root, null));
+		ForkJoinPool.commonPool().invoke(new ScanTask(this.root, this.entries));
+		this.active = true;
+		LOGGER.info("Indexed {} entries of {} in {} ms", this.entries.size(), this.root,
+				(System.nanoTime() - start) / 1000000);
+	}
+
+	boolean isActive() {
+		return this.active;
+	}
+
+	int size() {
+		return this.entries.size();
+	}
+
+	Entry get(String uri) {
+		if (uri == null) {
+			return null;
+		}
+		Entry entry = this.entries.get(uri);
+		if (entry != null || !needsNormalization(uri)) {
+			return entry;
+		}
+		String key = normalize(uri);
+		return key != null ? this.entries.get(key) : null;
+	}
+
+	static boolean needsNormalization(String uri) {
+		int length = uri.length();
+		if (length == 0 || uri.charAt(0) != '/') {
+			return true;
+		}
+		if (length > 1 && uri.charAt(length - 1) == '/') {
+			return true;
+		}
+		for (int i = 0; i < length - 1; i++) {
+			if (uri.charAt(i) == '/' && (uri.charAt(i + 1) == '/' || uri.charAt(i + 1) == '.')) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	static String normalize(String uri) {
+		if (uri.isEmpty() || uri.charAt(0) != '/') {
+			return null;
+		}
+		try {
+			String normalized = Paths.get(uri).normalize().toString().replace(File.separatorChar, '/');
+			return normalized.startsWith("/") ? normalized : "/" + normalized;
+		} catch (RuntimeException e) {
+			return null;
+		}
+	}
+
+	private String getKey(Path path) {
+		if (!path.startsWith(this.root)) {
+			return null;
+		}
+		String relative = this.root.relativize(path).toString().replace(File.separatorChar, '/');
+		return relative.isEmpty() ? ROOT_KEY : "/" + relative;
+	}
+
+	void refresh(Path path) {
+		String key = this.getKey(path);
+		if (key == null) {
+			return;
+		}
+		Entry previous = this.entries.get(key);
+		try {
+			BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+			Map<String, Entry> scanned = new ConcurrentHashMap<>();
+			scanned.put(key, this.createEntry(key, path, attributes));
+			if (attributes.isDirectory() && !Files.isSymbolicLink(path)) {
+				ForkJoinPool.commonPool().invoke(new ScanTask(path, scanned));
+			}
+			this.entries.putAll(scanned);
+			if (previous != null && previous.isDirectory()) {
+				this.removeStale(key, scanned);
+			}
+		} catch (NoSuchFileException e) {
+			this.remove(key, previous);
+		} catch (IOException e) {
+			LOGGER.warn("Indexing " + path + " failed: " + e.getMessage(), e);
+			this.remove(key, previous);
+		}
+	}
+
+	private void remove(String key, Entry previous) {
+		this.entries.remove(key);
+		if (previous != null && previous.isDirectory()) {
+			this.removeStale(key, Collections.<String, Entry>emptyMap());
+		}
+	}
+
+	private void removeStale(String key, Map<String, Entry> scanned) {
+		String prefix = ROOT_KEY.equals(key) ? ROOT_KEY : key + "/";
+		this.entries.keySet().removeIf(k -> k.startsWith(prefix) && !scanned.containsKey(k));
+	}
+
+	private Entry createEntry(String key, Path path, BasicFileAttributes attributes) {
+		StaticFile file = null;
+		if (!attributes.isDirectory()) {
+			file = new StaticFile(path, this.context.getContentType(FilenameUtils.getExtension(path.toString())),
+					attributes.lastModifiedTime(), attributes.size());
+		}
+		return new Entry(key, path, file);
+	}
+
+	private class ScanTask extends RecursiveAction {
+		private static final long serialVersionUID = 2364517716420834562L;
+		private final Path dir;
+		private final Map<String, Entry> target;
+
+		ScanTask(Path dir, Map<String, Entry> target) {
+			this.dir = dir;
+			this.target = target;
+		}
+
+		@Override
+		protected void compute() {
+			List<ScanTask> subtasks = new ArrayList<>();
+			try (DirectoryStream<Path> stream = Files.newDirectoryStream(this.dir)) {
+				for (Path path : stream) {
+					try {
+						BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class,
+								LinkOption.NOFOLLOW_LINKS);
+						if (attributes.isSymbolicLink()) {
+							attributes = Files.readAttributes(path, BasicFileAttributes.class);
+						} else if (attributes.isDirectory()) {
+							subtasks.add(new ScanTask(path, this.target));
+						}
+						String key = WebRootIndex.this.getKey(path);
+						this.target.put(key, WebRootIndex.this.createEntry(key, path, attributes));
+					} catch (NoSuchFileException e) {
+						LOGGER.debug("Skipping missing or dangling {}", path);
+					}
+				}
+			} catch (IOException e) {
+				LOGGER.warn("Indexing " + this.dir + " failed: " + e.getMessage(), e);
+			}
+			invokeAll(subtasks);
+		}
+	}
+
+	static final class Entry {
+		private final String uri;
+		private final Path path;
+		private final StaticFile file;
+
+		private Entry(String uri, Path path, StaticFile file) {
+			this.uri = uri;
+			this.path = path;
+			this.file = file;
+		}
+
+		String getUri() {
+			return this.uri;
+		}
+
+		Path getPath() {
+			return this.path;
+		}
+
+		StaticFile getFile() {
+			return this.file;
+		}
+
+		boolean isDirectory() {
+			return this.file == null;
+		}
+	}
+}
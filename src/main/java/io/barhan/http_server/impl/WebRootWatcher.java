@@ -0,0 +1,126 @@
+package io.barhan.http_server.impl;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+class WebRootWatcher implements Closeable {
+	private static final Logger LOGGER = LoggerFactory.getLogger(WebRootWatcher.class);
+
+	private final Path root;
+	private final List<Consumer<Path>> listeners = new CopyOnWriteArrayList<>();
+	private WatchService watchService;
+	private volatile boolean started;
+	private volatile boolean failed;
+
+	WebRootWatcher(Path root) {
+		this.root = root;
+	}
+
+	Path getRoot() {
+		return this.root;
+	}
+
+	void addListener(Consumer<Path> listener) {
+		this.listeners.add(listener);
+	}
+
+	boolean ensureStarted() {
+		if (!this.started) {
+			this.start();
+		}
+		return !this.failed;
+	}
+
+	private synchronized void start() {
+		if (this.started) {
+			return;
+		}
+		try {
+			this.watchService = FileSystems.getDefault().newWatchService();
+			this.registerAll(this.root);
+			Thread thread = new Thread(this::run, "WebRootWatcher");
+			thread.setDaemon(true);
+			thread.start();
+		} catch (IOException e) {
+			LOGGER.warn("Watching " + this.root + " failed, file caches are disabled: " + e.getMessage(), e);
+			this.failed = true;
+		}
+		this.started = true;
+	}
+
+	private void registerAll(Path dir) throws IOException {
+		Files.walkFileTree(dir, new SimpleFileVisitor<Path>() {
+			@Override
+			public FileVisitResult preVisitDirectory(Path path, BasicFileAttributes attrs) throws IOException {
+				path.register(WebRootWatcher.this.watchService, StandardWatchEventKinds.ENTRY_CREATE,
+						StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY);
+				return FileVisitResult.CONTINUE;
+			}
+		});
+	}
+
+	private void run() {
+		try {
+			while (true) {
+				WatchKey key = this.watchService.take();
+				Path dir = (Path) key.watchable();
+				for (WatchEvent<?> event : key.pollEvents()) {
+					if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+						this.fireChanged(this.root);
+						continue;
+					}
+					Path path = dir.resolve((Path) event.context());
+					if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE && Files.isDirectory(path)) {
+						this.register(path);
+					}
+					this.fireChanged(path);
+				}
+				if (!key.reset()) {
+					this.fireChanged(dir);
+				}
+			}
+		} catch (InterruptedException | ClosedWatchServiceException e) {
+			LOGGER.debug("Web root watcher stopped");
+		}
+	}
+
+	private void register(Path dir) {
+		try {
+			this.registerAll(dir);
+		} catch (IOException e) {
+			LOGGER.warn("Watching " + dir + " failed: " + e.getMessage(), e);
+		}
+	}
+
+	private void fireChanged(Path path) {
+		for (Consumer<Path> listener : this.listeners) {
+			listener.accept(path);
+		}
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		if (this.watchService != null) {
+			this.watchService.close();
+		}
+		this.started = true;
+		this.failed = true;
+	}
+}
@@ -0,0 +1,87 @@
+package io.barhan.http_server.impl;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import io.barhan.http_server.WorkerPoolMetrics;
+
+class WorkerExecutor extends ThreadPoolExecutor implements BoundedExecutor {
+	private final WorkerPoolMetrics metrics;
+	private final ReentrantLock lock = new ReentrantLock();
+	private final Condition capacityAvailable = this.lock.newCondition();
+
+	WorkerExecutor(int threadCount, int queueCapacity, ThreadFactory threadFactory, WorkerPoolMetrics metrics) {
+		super(threadCount, threadCount, 0L, TimeUnit.MILLISECONDS, createQueue(queueCapacity), threadFactory);
+		this.metrics = metrics;
+	}
+
+	private static BlockingQueue<Runnable> createQueue(int queueCapacity) {
+		return queueCapacity > 0 ? new ArrayBlockingQueue<>(queueCapacity) : new LinkedBlockingQueue<>();
+	}
+
+	@Override
+	public boolean isSaturated() {
+		return this.getQueue().remainingCapacity() == 0;
+	}
+
+	@Override
+	public boolean awaitCapacity(long timeoutMillis) throws InterruptedException {
+		long nanos = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+		this.lock.lock();
+		try {
+			while (this.isSaturated()) {
+				if (nanos <= 0) {
+					return false;
+				}
+				nanos = this.capacityAvailable.awaitNanos(nanos);
+			}
+			return true;
+		} finally {
+			this.lock.unlock();
+		}
+	}
+
+	@Override
+	public void execute(Runnable command) {
+		this.metrics.taskQueued();
+		try {
+			super.execute(new QueuedTask(command));
+		} catch (RejectedExecutionException e) {
+			this.metrics.taskRejected();
+			throw e;
+		}
+	}
+
+	@Override
+	protected void beforeExecute(Thread t, Runnable r) {
+		super.beforeExecute(t, r);
+		this.metrics.taskStarted(System.nanoTime() - ((QueuedTask) r).queuedAt);
+		this.lock.lock();
+		try {
+			this.capacityAvailable.signal();
+		} finally {
+			this.lock.unlock();
+		}
+	}
+
+	private static class QueuedTask implements Runnable {
+		private final Runnable task;
+		private final long queuedAt = System.nanoTime();
+
+		QueuedTask(Runnable task) {
+			this.task = task;
+		}
+
+		@Override
+		public void run() {
+			this.task.run();
+		}
+	}
+}
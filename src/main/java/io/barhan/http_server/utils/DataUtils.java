@@ -2,8 +2,6 @@ package io.barhan.http_server.utils;
 
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.LinkedList;
-import java.util.List;
 import java.util.Map;
 
 public final class DataUtils {
@@ -15,21 +13,6 @@ public final class DataUtils {
 		return Collections.unmodifiableMap(map);
 	}
 
-	public static List<String> convertToLineList(String message) {
-		List<String> list = new LinkedList<>();
-		int start = 0;
-		for (int i = 1; i < message.length(); i++) {
-			if (message.charAt(i) == '\n' && message.charAt(i - 1) == '\r') {
-				list.add(message.substring(start, i - 1));
-				start = i + 1;
-			}
-		}
-		if (message.length() > 0) {
-			list.add(message.substring(start));
-		}
-		return list;
-	}
-
 	private DataUtils() {
 	}
 }
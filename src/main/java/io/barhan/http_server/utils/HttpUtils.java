@@ -1,13 +1,29 @@
 package io.barhan.http_server.utils;
 
-import java.io.EOFException;
-import java.io.IOException;
-import java.io.InputStream;
-import java.nio.charset.StandardCharsets;
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 
 public final class HttpUtils {
+    private static final List<String> COMPRESSIBLE_APPLICATION_TYPES = Arrays.asList("application/javascript",
+            "application/x-javascript", "application/json", "application/xml", "application/ecmascript");
+    private static final DateTimeFormatter HTTP_DATE_FORMATTER = DateTimeFormatter
+            .ofPattern("EEE, dd MMM yyyy HH:mm:ss 'GMT'", Locale.US).withZone(ZoneOffset.UTC);
+
     public static String normalizeHeaderName(String name) {
+        if (isNormalizedHeaderName(name)) {
+            return name;
+        }
         StringBuilder headerName = new StringBuilder(name.trim());
         for (int i = 0; i < headerName.length(); i++) {
             char ch = headerName.charAt(i);
@@ -25,77 +41,150 @@ public final class HttpUtils {
         return headerName.toString();
     }
 
-    public static String readFirstLineAndHeaders(InputStream inputStream) throws IOException {
-        ByteArray byteArray = new ByteArray();
-        do {
-            int read = inputStream.read();
-            if (read == -1) {
-                throw new EOFException("Input stream closed.");
+    public static boolean isEncodingAccepted(String acceptEncoding, String encoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        boolean wildcard = false;
+        for (String item : acceptEncoding.split(",")) {
+            int paramsIndex = item.indexOf(';');
+            String coding = (paramsIndex == -1 ? item : item.substring(0, paramsIndex)).trim();
+            boolean accepted = paramsIndex == -1 || !isZeroQuality(item.substring(paramsIndex + 1));
+            if (coding.equalsIgnoreCase(encoding)) {
+                return accepted;
             }
-            byteArray.add((byte) read);
-        } while (!byteArray.isEmptyLine());
-        return new String(byteArray.toArray(), StandardCharsets.UTF_8);
-    }
-
-    public static String readMessageBody(InputStream inputStream, int contentLength) throws IOException {
-        StringBuilder messageBody = new StringBuilder();
-        while (contentLength > 0) {
-            byte[] messageBytes = new byte[contentLength];
-            int read = inputStream.read(messageBytes);
-            messageBody.append(new String(messageBytes, 0, read, StandardCharsets.UTF_8));
-            contentLength -= read;
-        }
-        return messageBody.toString();
+            if ("*".equals(coding)) {
+                wildcard = accepted;
+            }
+        }
+        return wildcard;
     }
 
-    public static int getContentLengthIndex(String firstLineAndHeaders) {
-        return firstLineAndHeaders.toLowerCase().indexOf(CONTENT_LENGTH);
+    public static boolean isCompressible(String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        int paramsIndex = contentType.indexOf(';');
+        String type = (paramsIndex == -1 ? contentType : contentType.substring(0, paramsIndex)).trim().toLowerCase();
+        return type.startsWith("text/") || type.endsWith("+xml") || type.endsWith("+json")
+                || COMPRESSIBLE_APPLICATION_TYPES.contains(type);
     }
 
-    public static int getContentLengthValue(String firstLineAndHeaders, int contentLengthIndex) {
-        int startCutIndex = contentLengthIndex + CONTENT_LENGTH.length();
-        int endCutIndex = firstLineAndHeaders.indexOf("\r\n", startCutIndex);
-        if (endCutIndex == -1) {
-            endCutIndex = firstLineAndHeaders.length();
+    public static boolean isETagMatched(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
         }
-        return Integer.parseInt(firstLineAndHeaders.substring(startCutIndex, endCutIndex).trim());
+        String opaqueTag = getOpaqueTag(etag);
+        for (String item : ifNoneMatch.split(",")) {
+            String tag = item.trim();
+            if ("*".equals(tag) || getOpaqueTag(tag).equals(opaqueTag)) {
+                return true;
+            }
+        }
+        return false;
     }
 
-    private static void toUpperCase(char ch, int index, StringBuilder headerName) {
-        if (Character.isLowerCase(ch)) {
-            headerName.setCharAt(index, Character.toUpperCase(ch));
+    public static Map<String, String> parseParams(String paramString) {
+        if (paramString == null) {
+            return Collections.emptyMap();
         }
+        Map<String, String> params = new LinkedHashMap<>();
+        int start = 0;
+        int length = paramString.length();
+        while (start <= length) {
+            int end = paramString.indexOf('&', start);
+            if (end == -1) {
+                end = length;
+            }
+            if (end == start) {
+                start = end + 1;
+                continue;
+            }
+            int separator = paramString.indexOf('=', start);
+            String name;
+            String value;
+            if (separator == -1 || separator > end) {
+                name = decodeParam(paramString.substring(start, end));
+                value = "";
+            } else {
+                name = decodeParam(paramString.substring(start, separator));
+                value = decodeParam(paramString.substring(separator + 1, end));
+            }
+            String previous = params.get(name);
+            params.put(name, previous != null ? previous + "," + value : value);
+            start = end + 1;
+        }
+        return params;
     }
 
-    private static final String CONTENT_LENGTH = "content-length: ";
+    public static String formatHttpDate(long millis) {
+        return HTTP_DATE_FORMATTER.format(Instant.ofEpochMilli(millis));
+    }
 
-    private static class ByteArray {
-        private byte[] array = new byte[1024];
-        private int size;
+    public static long parseHttpDate(String value) {
+        if (value == null) {
+            return -1;
+        }
+        try {
+            return ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+        } catch (DateTimeParseException e) {
+            return -1;
+        }
+    }
 
-        private void add(byte value) {
-            if (size == array.length) {
-                byte[] temp = array;
-                array = new byte[array.length * 2];
-                System.arraycopy(temp, 0, array, 0, size);
+    private static boolean isNormalizedHeaderName(String name) {
+        if (name.isEmpty() || Character.isLowerCase(name.charAt(0)) || name.charAt(0) <= ' ') {
+            return false;
+        }
+        for (int i = 1; i < name.length(); i++) {
+            char ch = name.charAt(i);
+            if (ch <= ' ') {
+                return false;
+            }
+            if (ch == '-' && i < name.length() - 1) {
+                char next = name.charAt(++i);
+                if (next <= ' ' || Character.isLowerCase(next)) {
+                    return false;
+                }
+            } else if (Character.isUpperCase(ch)) {
+                return false;
             }
-            array[size++] = value;
         }
+        return true;
+    }
 
-        private byte[] toArray() {
-            if (size > 4) {
-                return Arrays.copyOf(array, size - 4);
-            }
-            throw new IllegalStateException(
-                    "Byte array has invalid size: " + Arrays.toString(Arrays.copyOf(array, size)));
+    private static String decodeParam(String value) {
+        if (value.indexOf('%') == -1 && value.indexOf('+') == -1) {
+            return value;
         }
+        try {
+            return URLDecoder.decode(value, "UTF-8");
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
 
-        private boolean isEmptyLine() {
-            if (size >= 4) {
-                return array[size - 1] == '\n' && array[size - 2] == '\r' && array[size - 3] == '\n'
-                        && array[size - 4] == '\r';
+    private static String getOpaqueTag(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+
+    private static boolean isZeroQuality(String params) {
+        for (String param : params.split(";")) {
+            String[] items = param.split("=");
+            if (items.length == 2 && "q".equalsIgnoreCase(items[0].trim())) {
+                try {
+                    return Double.parseDouble(items[1].trim()) == 0;
+                } catch (NumberFormatException e) {
+                    return false;
+                }
             }
-            return false;
+        }
+        return false;
+    }
+
+    private static void toUpperCase(char ch, int index, StringBuilder headerName) {
+        if (Character.isLowerCase(ch)) {
+            headerName.setCharAt(index, Character.toUpperCase(ch));
         }
     }
 
@@ -67,4 +67,22 @@ public class HandlerConfigTest {
 		assertEquals("Http handler already exists for url=/test. Http handler class: "
 				+ this.httpHandlerStub.getClass().getName(), exception.getMessage());
 	}
+
+	@Test
+	public void testAddMethodHandler() {
+		this.config.addHandler("GET", "/test", this.httpHandlerStub);
+		this.config.addHandler("/test", this.httpHandlerStub);
+
+		assertSame(this.httpHandlerStub, this.config.toMap().get("GET /test"));
+		assertSame(this.httpHandlerStub, this.config.toMap().get("/test"));
+	}
+
+	@Test
+	public void testAddHandlerWithUnsupportedMethod() {
+		Exception exception = assertThrows(HttpServerConfigException.class, () -> {
+			config.addHandler("DELETE", "/test", this.httpHandlerStub);
+		});
+
+		assertEquals("Http handler method should be one of [GET, POST, HEAD], but was DELETE", exception.getMessage());
+	}
 }
@@ -0,0 +1,156 @@
+package io.barhan.http_server.impl;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class BatchOutputStreamTest {
+	private ByteArrayOutputStream out;
+	private BatchOutputStream batchOutputStream;
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Before
+	public void before() {
+		this.out = new ByteArrayOutputStream();
+		this.batchOutputStream = new BatchOutputStream(this.out);
+	}
+
+	@Test
+	public void testFlush() throws IOException {
+		this.batchOutputStream.write("first".getBytes(StandardCharsets.UTF_8));
+		assertEquals(0, this.out.size());
+
+		this.batchOutputStream.flush();
+		assertEquals("first", this.out.toString("UTF-8"));
+	}
+
+	@Test
+	public void testDeferredFlush() throws IOException {
+		this.batchOutputStream.setFlushDeferred(true);
+		this.batchOutputStream.write("first".getBytes(StandardCharsets.UTF_8));
+		this.batchOutputStream.flush();
+		this.batchOutputStream.write('+');
+		this.batchOutputStream.write("second".getBytes(StandardCharsets.UTF_8));
+		this.batchOutputStream.flush();
+		assertEquals(0, this.out.size());
+
+		this.batchOutputStream.setFlushDeferred(false);
+		this.batchOutputStream.flush();
+		assertEquals("first+second", this.out.toString("UTF-8"));
+	}
+
+	@Test
+	public void testWriteLargerThanBuffer() throws IOException {
+		byte[] data = new byte[20000];
+		for (int i = 0; i < data.length; i++) {
+			data[i] = (byte) i;
+		}
+		this.batchOutputStream.setFlushDeferred(true);
+		this.batchOutputStream.write(data, 0, 10);
+		this.batchOutputStream.write(data, 10, data.length - 10);
+		this.batchOutputStream.setFlushDeferred(false);
+		this.batchOutputStream.flush();
+
+		assertArrayEquals(data, this.out.toByteArray());
+	}
+
+	@Test
+	public void testTransferFromFile() throws IOException {
+		Path file = this.folder.newFile("transfer.txt").toPath();
+		Files.write(file, "0123456789".getBytes(StandardCharsets.UTF_8));
+
+		this.batchOutputStream.write('[');
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			this.batchOutputStream.transferFrom(channel, 2, 5);
+		}
+		this.batchOutputStream.write(']');
+		this.batchOutputStream.flush();
+
+		assertEquals("[23456]", this.out.toString("UTF-8"));
+	}
+
+	@Test
+	public void testSmallFileIsBatchedWithHead() throws IOException {
+		Path file = this.folder.newFile("small.txt").toPath();
+		Files.write(file, "0123456789".getBytes(StandardCharsets.UTF_8));
+		GatheringTarget target = new GatheringTarget();
+		this.batchOutputStream = new BatchOutputStream(target);
+
+		this.batchOutputStream.write("head:".getBytes(StandardCharsets.UTF_8));
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			this.batchOutputStream.transferFrom(channel, 0, 10);
+		}
+		this.batchOutputStream.flush();
+
+		assertEquals(1, target.writes);
+		assertEquals("head:0123456789", target.toString("UTF-8"));
+	}
+
+	@Test
+	public void testLargeBodyIsGatheredWithHead() throws IOException {
+		byte[] body = new byte[20000];
+		GatheringTarget target = new GatheringTarget();
+		this.batchOutputStream = new BatchOutputStream(target);
+
+		this.batchOutputStream.write("head:".getBytes(StandardCharsets.UTF_8));
+		this.batchOutputStream.write(body);
+		this.batchOutputStream.transferFrom(ByteBuffer.wrap(body));
+		this.batchOutputStream.flush();
+
+		assertEquals(1, target.writes);
+		assertEquals(1, target.gatheredWrites.size());
+		assertEquals(2, (int) target.gatheredWrites.get(0));
+		assertEquals(5 + body.length * 2, target.size());
+	}
+
+	private static class GatheringTarget extends ByteArrayOutputStream implements FileTransferTarget {
+		private final List<Integer> gatheredWrites = new ArrayList<>();
+		private int writes;
+
+		@Override
+		public synchronized void write(byte[] b, int off, int len) {
+			this.writes++;
+			super.write(b, off, len);
+		}
+
+		@Override
+		public void transferFrom(FileChannel file, long position, long count) throws IOException {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public void transferFrom(ByteBuffer buffer) {
+			this.writes++;
+			while (buffer.hasRemaining()) {
+				super.write(buffer.get());
+			}
+		}
+
+		@Override
+		public void write(ByteBuffer[] buffers) {
+			this.gatheredWrites.add(buffers.length);
+			for (ByteBuffer buffer : buffers) {
+				while (buffer.hasRemaining()) {
+					super.write(buffer.get());
+				}
+			}
+		}
+	}
+}
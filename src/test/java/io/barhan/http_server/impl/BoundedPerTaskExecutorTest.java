@@ -0,0 +1,117 @@
+package io.barhan.http_server.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.barhan.http_server.WorkerPoolMetrics;
+
+public class BoundedPerTaskExecutorTest {
+	private WorkerPoolMetrics metrics;
+	private BoundedPerTaskExecutor executor;
+	private CountDownLatch release;
+
+	@Before
+	public void before() {
+		this.metrics = new WorkerPoolMetrics();
+		this.executor = new BoundedPerTaskExecutor(Executors.newCachedThreadPool(), 1, 1, this.metrics);
+		this.release = new CountDownLatch(1);
+	}
+
+	@After
+	public void after() {
+		this.release.countDown();
+		this.executor.shutdownNow();
+	}
+
+	private void block() {
+		try {
+			this.release.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	@Test
+	public void testRejectWhenQueueIsFull() throws InterruptedException {
+		CountDownLatch started = new CountDownLatch(1);
+		this.executor.execute(() -> {
+			started.countDown();
+			this.block();
+		});
+		started.await();
+		this.executor.execute(this::block);
+
+		assertTrue(this.executor.isSaturated());
+		assertEquals(1, this.metrics.getQueueDepth());
+		assertThrows(RejectedExecutionException.class, () -> this.executor.execute(this::block));
+		assertEquals(1, this.metrics.getRejectedTasks());
+		assertEquals(1, this.metrics.getQueueDepth());
+	}
+
+	@Test
+	public void testQueuedTasksWaitWithoutThreads() throws InterruptedException {
+		AtomicInteger threads = new AtomicInteger();
+		BoundedPerTaskExecutor counting = new BoundedPerTaskExecutor(Executors.newCachedThreadPool(r -> {
+			threads.incrementAndGet();
+			return new Thread(r);
+		}), 1, 0, this.metrics);
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch finished = new CountDownLatch(3);
+		try {
+			counting.execute(() -> {
+				started.countDown();
+				this.block();
+				finished.countDown();
+			});
+			started.await();
+			counting.execute(finished::countDown);
+			counting.execute(finished::countDown);
+
+			assertEquals(1, threads.get());
+			assertEquals(1, this.metrics.getStartedTasks());
+			assertEquals(2, this.metrics.getQueueDepth());
+
+			Thread.sleep(50);
+			this.release.countDown();
+			assertTrue(finished.await(5, TimeUnit.SECONDS));
+			assertEquals(3, this.metrics.getStartedTasks());
+			assertEquals(0, this.metrics.getQueueDepth());
+			assertTrue(this.metrics.getMaxQueueWaitMillis() >= 50);
+		} finally {
+			counting.shutdownNow();
+		}
+	}
+
+	@Test
+	public void testAwaitCapacity() throws InterruptedException {
+		CountDownLatch started = new CountDownLatch(1);
+		this.executor.execute(() -> {
+			started.countDown();
+			this.block();
+		});
+		started.await();
+		this.executor.execute(() -> {
+		});
+
+		assertFalse(this.executor.awaitCapacity(10));
+
+		this.release.countDown();
+		assertTrue(this.executor.awaitCapacity(TimeUnit.SECONDS.toMillis(5)));
+		this.executor.shutdown();
+		assertTrue(this.executor.awaitTermination(5, TimeUnit.SECONDS));
+		assertEquals(2, this.metrics.getStartedTasks());
+		assertEquals(0, this.metrics.getQueueDepth());
+	}
+}
@@ -0,0 +1,180 @@
+package io.barhan.http_server.impl;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import io.barhan.http_server.HttpRequest;
+
+public class ByteRangeSelectorTest {
+	private static final String CONTENT = "0123456789abcdefghij";
+
+	private ByteRangeSelector selector;
+	private HttpRequest request;
+	private Map<String, String> requestHeaders;
+	private ReadableHttpResponseImpl response;
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Before
+	public void before() throws IOException {
+		this.selector = new ByteRangeSelector();
+		this.request = mock(HttpRequest.class);
+		this.requestHeaders = new HashMap<>();
+		when(this.request.getMethod()).thenReturn("GET");
+		when(this.request.getHeaders()).thenReturn(this.requestHeaders);
+		Path file = Files.write(this.folder.newFile("file.txt").toPath(), CONTENT.getBytes(StandardCharsets.UTF_8));
+		this.response = new ReadableHttpResponseImpl();
+		this.response.setHeader("Content-Type", "text/plain");
+		this.response.setHeader("Accept-Ranges", "bytes");
+		this.response.setHeader("ETag", "\"a-14\"");
+		this.response.setHeader("Last-Modified", "Sun, 06 Nov 1994 08:49:37 GMT");
+		this.response.setBody(file);
+	}
+
+	private String writeBody() throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		this.response.writeBody(out);
+		return out.toString("UTF-8");
+	}
+
+	@Test
+	public void testSingleRange() throws IOException {
+		this.requestHeaders.put("Range", "bytes=2-5");
+
+		this.selector.select(this.request, this.response);
+
+		assertEquals(206, this.response.getStatus());
+		assertEquals("bytes 2-5/20", this.response.getHeaders().get("Content-Range"));
+		assertEquals(4, this.response.getBodyLength());
+		assertEquals("2345", this.writeBody());
+	}
+
+	@Test
+	public void testOpenAndSuffixRanges() {
+		assertArrayEquals(new long[] { 15, 19 }, this.selector.parseRanges("bytes=15-", 20).get(0));
+		assertArrayEquals(new long[] { 17, 19 }, this.selector.parseRanges("bytes=-3", 20).get(0));
+		assertArrayEquals(new long[] { 0, 19 }, this.selector.parseRanges("bytes=-30", 20).get(0));
+		assertArrayEquals(new long[] { 10, 19 }, this.selector.parseRanges("bytes=10-100", 20).get(0));
+	}
+
+	@Test
+	public void testOverlappingRangesAreCoalesced() {
+		List<long[]> ranges = this.selector.parseRanges("bytes=8-12, 0-3, 2-5", 20);
+
+		assertEquals(2, ranges.size());
+		assertArrayEquals(new long[] { 0, 5 }, ranges.get(0));
+		assertArrayEquals(new long[] { 8, 12 }, ranges.get(1));
+	}
+
+	@Test
+	public void testInvalidRangeIsIgnored() {
+		assertNull(this.selector.parseRanges("items=0-1", 20));
+		assertNull(this.selector.parseRanges("bytes=5-2", 20));
+		assertNull(this.selector.parseRanges("bytes=a-b", 20));
+
+		this.requestHeaders.put("Range", "bytes=x");
+		this.selector.select(this.request, this.response);
+
+		assertEquals(200, this.response.getStatus());
+		assertEquals(20, this.response.getBodyLength());
+	}
+
+	@Test
+	public void testMultipleRanges() throws IOException {
+		this.requestHeaders.put("Range", "bytes=0-1,-2");
+
+		this.selector.select(this.request, this.response);
+
+		assertEquals(206, this.response.getStatus());
+		String contentType = this.response.getHeaders().get("Content-Type");
+		assertTrue(contentType.startsWith("multipart/byteranges; boundary="));
+		String boundary = contentType.substring(contentType.indexOf('=') + 1);
+		String expected = "\r\n--" + boundary + "\r\nContent-Type: text/plain\r\nContent-Range: bytes 0-1/20\r\n\r\n01"
+				+ "\r\n--" + boundary + "\r\nContent-Type: text/plain\r\nContent-Range: bytes 18-19/20\r\n\r\nij"
+				+ "\r\n--" + boundary + "--\r\n";
+		assertEquals(expected.length(), this.response.getBodyLength());
+		assertEquals(expected, this.writeBody());
+	}
+
+	@Test
+	public void testUnsatisfiableRange() {
+		this.requestHeaders.put("Range", "bytes=20-30");
+
+		this.selector.select(this.request, this.response);
+
+		assertEquals(416, this.response.getStatus());
+		assertEquals("bytes */20", this.response.getHeaders().get("Content-Range"));
+		assertTrue(this.response.isBodyEmpty());
+	}
+
+	@Test
+	public void testIfRangeMatched() {
+		this.requestHeaders.put("Range", "bytes=0-0");
+		this.requestHeaders.put("If-Range", "\"a-14\"");
+
+		this.selector.select(this.request, this.response);
+
+		assertEquals(206, this.response.getStatus());
+	}
+
+	@Test
+	public void testIfRangeDateMatched() {
+		this.requestHeaders.put("Range", "bytes=0-0");
+		this.requestHeaders.put("If-Range", "Sun, 06 Nov 1994 08:49:37 GMT");
+
+		this.selector.select(this.request, this.response);
+
+		assertEquals(206, this.response.getStatus());
+	}
+
+	@Test
+	public void testIfRangeChanged() {
+		this.requestHeaders.put("Range", "bytes=0-0");
+		this.requestHeaders.put("If-Range", "\"b-14\"");
+
+		this.selector.select(this.request, this.response);
+
+		assertEquals(200, this.response.getStatus());
+		assertEquals(20, this.response.getBodyLength());
+	}
+
+	@Test
+	public void testRangesNotAccepted() {
+		this.requestHeaders.put("Range", "bytes=0-0");
+		this.response.getHeaders().remove("Accept-Ranges");
+
+		this.selector.select(this.request, this.response);
+
+		assertEquals(200, this.response.getStatus());
+	}
+
+	@Test
+	public void testBufferedBodyRange() {
+		this.requestHeaders.put("Range", "bytes=10-");
+		this.response.setBody(CONTENT);
+
+		this.selector.select(this.request, this.response);
+
+		assertEquals(206, this.response.getStatus());
+		assertArrayEquals("abcdefghij".getBytes(StandardCharsets.UTF_8), this.response.getBody());
+	}
+}
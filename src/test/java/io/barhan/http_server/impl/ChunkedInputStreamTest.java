@@ -0,0 +1,101 @@
+package io.barhan.http_server.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Test;
+
+import io.barhan.http_server.exception.BadRequestException;
+import io.barhan.http_server.exception.PayloadTooLargeException;
+import io.barhan.http_server.exception.RequestHeaderFieldsTooLargeException;
+
+public class ChunkedInputStreamTest {
+	@Test
+	public void testDecodeChunks() throws IOException {
+		RequestInputStream in = this.stream("5\r\nhello\r\n7;name=value\r\n, world\r\n0\r\n\r\nnext");
+
+		assertEquals("hello, world", IOUtils.toString(this.chunked(in, 0), StandardCharsets.UTF_8));
+		assertEquals("next", IOUtils.toString(in, StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void testTrailersAreConsumed() throws IOException {
+		RequestInputStream in = this.stream("a\r\n0123456789\r\n0\r\nChecksum: abc\r\nExpires: never\r\n\r\nnext");
+
+		assertEquals("0123456789", IOUtils.toString(this.chunked(in, 0), StandardCharsets.UTF_8));
+		assertEquals("next", IOUtils.toString(in, StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void testSkip() throws IOException {
+		RequestInputStream in = this.stream("3\r\nabc\r\n3\r\ndef\r\n0\r\n\r\nnext");
+		InputStream chunked = this.chunked(in, 0);
+
+		assertEquals(3, chunked.skip(10));
+		assertEquals(3, chunked.skip(10));
+		assertEquals(0, chunked.skip(10));
+		assertEquals("next", IOUtils.toString(in, StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void testBodyTooLarge() {
+		InputStream chunked = this.chunked(this.stream("8\r\n01234567\r\n8\r\n01234567\r\n0\r\n\r\n"), 10);
+
+		PayloadTooLargeException exception = assertThrows(PayloadTooLargeException.class,
+				() -> IOUtils.toByteArray(chunked));
+		assertEquals(413, exception.getStatusCode());
+	}
+
+	@Test
+	public void testInvalidChunkSize() {
+		InputStream chunked = this.chunked(this.stream("zz\r\nabc\r\n0\r\n\r\n"), 0);
+
+		assertThrows(BadRequestException.class, () -> IOUtils.toByteArray(chunked));
+	}
+
+	@Test
+	public void testSignedChunkSize() {
+		assertThrows(BadRequestException.class,
+				() -> IOUtils.toByteArray(this.chunked(this.stream("-1\r\nabc\r\n0\r\n\r\n"), 0)));
+		assertThrows(BadRequestException.class,
+				() -> IOUtils.toByteArray(this.chunked(this.stream("+5\r\nhello\r\n0\r\n\r\n"), 0)));
+	}
+
+	@Test
+	public void testNegativeChunkSizeDoesNotBypassLimit() {
+		InputStream chunked = this.chunked(
+				this.stream("-7ffffffffffff\r\n\r\n8\r\n01234567\r\n8\r\n01234567\r\n0\r\n\r\n"), 10);
+
+		assertThrows(BadRequestException.class, () -> IOUtils.toByteArray(chunked));
+	}
+
+	@Test
+	public void testMissingChunkTerminator() {
+		InputStream chunked = this.chunked(this.stream("3\r\nabcdef\r\n0\r\n\r\n"), 0);
+
+		assertThrows(BadRequestException.class, () -> IOUtils.toByteArray(chunked));
+	}
+
+	@Test
+	public void testTooManyTrailers() {
+		InputStream chunked = this.chunked(this.stream("0\r\nA: 1\r\nB: 2\r\nC: 3\r\n\r\n"), 0);
+
+		Exception exception = assertThrows(RequestHeaderFieldsTooLargeException.class,
+				() -> IOUtils.toByteArray(chunked));
+		assertEquals("Request has more than 2 trailers", exception.getMessage());
+	}
+
+	private InputStream chunked(RequestInputStream in, long maxBodySize) {
+		return new ChunkedInputStream(in, "POST /upload HTTP/1.1", maxBodySize, 8192, 2);
+	}
+
+	private RequestInputStream stream(String content) {
+		return new RequestInputStream(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)));
+	}
+}
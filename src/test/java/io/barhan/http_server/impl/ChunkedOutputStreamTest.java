@@ -0,0 +1,25 @@
+package io.barhan.http_server.impl;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+public class ChunkedOutputStreamTest {
+
+	@Test
+	public void testWriteChunks() throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		ChunkedOutputStream chunked = new ChunkedOutputStream(out);
+
+		chunked.write("Hello, ".getBytes(StandardCharsets.US_ASCII));
+		chunked.write(new byte[0]);
+		chunked.write("chunked world!".getBytes(StandardCharsets.US_ASCII));
+		chunked.finish();
+
+		assertEquals("7\r\nHello, \r\ne\r\nchunked world!\r\n0\r\n\r\n", out.toString("US-ASCII"));
+	}
+}
@@ -0,0 +1,69 @@
+package io.barhan.http_server.impl;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.commons.io.output.StringBuilderWriter;
+import org.junit.Test;
+
+import io.barhan.http_server.HtmlTemplateManager;
+
+public class CompiledTemplateTest {
+
+	private String render(String template, Map<String, Object> arguments) {
+		StringBuilderWriter out = new StringBuilderWriter();
+		try {
+			CompiledTemplate.compile(template).render(arguments, out);
+		} catch (IOException e) {
+			throw new AssertionError(e);
+		}
+		return out.toString();
+	}
+
+	@Test
+	public void testLiteralOnly() {
+		assertEquals("<p>plain</p>", this.render("<p>plain</p>", Collections.emptyMap()));
+	}
+
+	@Test
+	public void testPlaceholders() {
+		Map<String, Object> arguments = new HashMap<>();
+		arguments.put("NAME", "server");
+		arguments.put("PORT", 5000);
+		arguments.put("BODY", new StringBuilder("<br>"));
+
+		assertEquals("server:5000<br>server", this.render("${NAME}:${PORT}${BODY}${NAME}", arguments));
+	}
+
+	@Test
+	public void testMissingArgumentKeepsPlaceholder() {
+		assertEquals("a ${MISSING} b", this.render("a ${MISSING} b", Collections.emptyMap()));
+		assertEquals("a null b", this.render("a ${NULL} b", Collections.singletonMap("NULL", null)));
+	}
+
+	@Test
+	public void testArgumentValuesAreNotExpanded() {
+		Map<String, Object> arguments = new HashMap<>();
+		arguments.put("FIRST", "${SECOND}");
+		arguments.put("SECOND", "2");
+
+		assertEquals("${SECOND} 2", this.render("${FIRST} ${SECOND}", arguments));
+	}
+
+	@Test
+	public void testUnterminatedPlaceholder() {
+		assertEquals("a ${OPEN", this.render("a ${OPEN", Collections.singletonMap("OPEN", "x")));
+	}
+
+	@Test
+	public void testFragment() {
+		HtmlTemplateManager.Fragment fragment = out -> out.write("<li>streamed</li>");
+
+		assertEquals("<ul><li>streamed</li></ul>",
+				this.render("<ul>${ITEMS}</ul>", Collections.singletonMap("ITEMS", fragment)));
+	}
+}
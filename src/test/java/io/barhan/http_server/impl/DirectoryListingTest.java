@@ -0,0 +1,148 @@
+package io.barhan.http_server.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.commons.io.output.StringBuilderWriter;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import io.barhan.http_server.HttpRequest;
+import io.barhan.http_server.HttpResponse;
+import io.barhan.http_server.HttpServerContext;
+
+public class DirectoryListingTest {
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private Path root;
+	private Path dir;
+	private HttpServerContext context;
+	private HttpRequest request;
+	private HttpResponse response;
+	private StringBuilderWriter writer;
+	private DirectoryListing listing;
+
+	@Before
+	public void before() throws IOException {
+		this.root = Paths.get(this.folder.newFolder("root").toURI());
+		this.dir = Files.createDirectory(this.root.resolve("dir"));
+		Files.write(this.dir.resolve("b.txt"), new byte[3]);
+		Files.write(this.dir.resolve("a.txt"), new byte[10]);
+		Files.write(this.dir.resolve("c<1>.txt"), new byte[1]);
+		this.context = mock(HttpServerContext.class);
+		when(this.context.getRootPath()).thenReturn(this.root);
+		when(this.context.getHtmlTemplateManager()).thenReturn(new HtmlTemplateManagerImpl());
+		this.request = mock(HttpRequest.class);
+		this.response = mock(HttpResponse.class);
+		this.writer = new StringBuilderWriter();
+		when(this.response.getWriter()).thenReturn(this.writer);
+		this.listing = new DirectoryListing(16, 65536);
+	}
+
+	private void params(String... nameValues) {
+		Map<String, String> params = new HashMap<>();
+		for (int i = 0; i < nameValues.length; i += 2) {
+			params.put(nameValues[i], nameValues[i + 1]);
+		}
+		when(this.request.getParams()).thenReturn(params);
+	}
+
+	@Test
+	public void testStreamedListing() throws IOException {
+		this.listing.render(this.context, this.request, this.response, this.dir);
+
+		String html = this.writer.toString();
+		assertTrue(html.contains("<title>List of files for dir</title>"));
+		assertTrue(html.contains("<a href=\"/dir/a.txt\">a.txt</a><br>"));
+		assertTrue(html.contains("<a href=\"/dir/c&lt;1&gt;.txt\">c&lt;1&gt;.txt</a><br>"));
+		assertEquals(1, this.listing.getCachedCount());
+	}
+
+	@Test
+	public void testCachedUntilDirectoryChanges() throws IOException {
+		this.listing.render(this.context, this.request, this.response, this.dir);
+		String html = this.writer.toString();
+
+		this.listing.render(this.context, this.request, this.response, this.dir);
+		verify(this.response).setBody(html.getBytes(StandardCharsets.UTF_8));
+
+		Files.write(this.dir.resolve("d.txt"), new byte[1]);
+		Files.setLastModifiedTime(this.dir, FileTime.fromMillis(System.currentTimeMillis() + 10000));
+		this.writer.getBuilder().setLength(0);
+		this.listing.render(this.context, this.request, this.response, this.dir);
+		assertTrue(this.writer.toString().contains("d.txt"));
+	}
+
+	@Test
+	public void testSortedPages() throws IOException {
+		this.params("sort", "size", "order", "desc", "page", "1", "size", "2");
+		this.listing.render(this.context, this.request, this.response, this.dir);
+
+		String html = this.writer.toString();
+		assertTrue(html.indexOf("a.txt") < html.indexOf("b.txt"));
+		assertFalse(html.contains("c&lt;1&gt;.txt"));
+		assertTrue(html.contains("href=\"?sort=size&amp;order=desc&amp;page=2&amp;size=2\">Next</a>"));
+		assertEquals(0, this.listing.getCachedCount());
+
+		this.writer.getBuilder().setLength(0);
+		this.params("sort", "size", "order", "desc", "page", "2", "size", "2");
+		this.listing.render(this.context, this.request, this.response, this.dir);
+		html = this.writer.toString();
+		assertTrue(html.contains("c&lt;1&gt;.txt"));
+		assertFalse(html.contains("a.txt"));
+		assertTrue(html.contains("Previous</a> Page 2</p>"));
+	}
+
+	@Test
+	public void testLargeListingIsNotCached() throws IOException {
+		this.listing = new DirectoryListing(16, 100);
+		when(this.request.getParams()).thenReturn(Collections.emptyMap());
+
+		this.listing.render(this.context, this.request, this.response, this.dir);
+
+		assertTrue(this.writer.toString().contains("b.txt"));
+		assertEquals(0, this.listing.getCachedCount());
+	}
+
+	@Test
+	public void testSortedSkipsVanishedEntries() throws IOException {
+		Files.createSymbolicLink(this.dir.resolve("gone.txt"), this.dir.resolve("missing.txt"));
+		this.params("sort", "size");
+
+		this.listing.render(this.context, this.request, this.response, this.dir);
+
+		String html = this.writer.toString();
+		assertTrue(html.contains("a.txt"));
+		assertFalse(html.contains("gone.txt"));
+	}
+
+	@Test
+	public void testHeadersOnlySkipsListing() throws IOException {
+		when(this.request.getParams()).thenReturn(Collections.emptyMap());
+		ReadableHttpResponseImpl response = new ReadableHttpResponseImpl();
+		response.setHeadersOnly(true);
+
+		this.listing.render(this.context, this.request, response, this.dir);
+
+		assertTrue(response.getResponseBody() instanceof LengthOnlyResponseBody);
+		assertEquals(-1, response.getBodyLength());
+		assertEquals(0, this.listing.getCachedCount());
+	}
+}
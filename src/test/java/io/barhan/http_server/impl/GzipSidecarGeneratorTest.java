@@ -0,0 +1,96 @@
+package io.barhan.http_server.impl;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.zip.GZIPInputStream;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import io.barhan.http_server.HttpServerContext;
+
+public class GzipSidecarGeneratorTest {
+	private Path root;
+	private WebRootWatcher watcher;
+	private GzipSidecarGenerator generator;
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Before
+	public void before() throws IOException {
+		this.root = this.folder.newFolder("root").toPath();
+		HttpServerContext context = mock(HttpServerContext.class);
+		when(context.getContentType("js")).thenReturn("application/javascript");
+		when(context.getContentType("png")).thenReturn("image/png");
+		this.watcher = new WebRootWatcher(this.root);
+		this.generator = new GzipSidecarGenerator(this.watcher, context, 10);
+	}
+
+	@After
+	public void after() throws IOException {
+		this.generator.close();
+		this.watcher.close();
+	}
+
+	private Path createFile(String name, String content) throws IOException {
+		Path path = this.root.resolve(name);
+		Files.createDirectories(path.getParent());
+		return Files.write(path, content.getBytes(StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void testGenerateSidecars() throws IOException {
+		Path script = this.createFile("js/app.js", "function test() { return 'test'; }");
+		this.createFile("small.js", "var a;");
+		this.createFile("image.png", "not really an image");
+
+		this.generator.generateAll(this.root);
+
+		Path sidecar = this.root.resolve("js/app.js.gz");
+		try (InputStream in = new GZIPInputStream(Files.newInputStream(sidecar))) {
+			assertArrayEquals(Files.readAllBytes(script), IOUtils.toByteArray(in));
+		}
+		assertEquals(Files.getLastModifiedTime(script), Files.getLastModifiedTime(sidecar));
+		assertFalse(Files.exists(this.root.resolve("small.js.gz")));
+		assertFalse(Files.exists(this.root.resolve("image.png.gz")));
+	}
+
+	@Test
+	public void testKeepFreshSidecar() throws IOException {
+		Path script = this.createFile("app.js", "function test() { return 'test'; }");
+		Path sidecar = this.createFile("app.js.gz", "existing");
+		Files.setLastModifiedTime(sidecar, Files.getLastModifiedTime(script));
+
+		this.generator.generateAll(this.root);
+
+		assertEquals("existing", new String(Files.readAllBytes(sidecar), StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void testReplaceStaleSidecar() throws IOException {
+		Path script = this.createFile("app.js", "function test() { return 'test'; }");
+		Path sidecar = this.createFile("app.js.gz", "stale");
+		Files.setLastModifiedTime(sidecar, FileTime.fromMillis(Files.getLastModifiedTime(script).toMillis() - 1000));
+
+		this.generator.generateAll(script);
+
+		try (InputStream in = new GZIPInputStream(Files.newInputStream(sidecar))) {
+			assertArrayEquals(Files.readAllBytes(script), IOUtils.toByteArray(in));
+		}
+	}
+}
@@ -1,6 +1,8 @@
 package io.barhan.http_server.impl;
 
+import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
@@ -14,6 +16,7 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.Socket;
 import java.net.SocketAddress;
+import java.util.Collections;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -65,6 +68,7 @@ public class HttpClientSocketHandlerImplTest {
 		when(this.httpServerConfig.getHttpResponseBuilder()).thenReturn(this.httpResponseBuilder);
 		this.httpResponseWriter = mock(HttpResponseWriter.class);
 		when(this.httpServerConfig.getHttpResponseWriter()).thenReturn(this.httpResponseWriter);
+		when(this.httpServerConfig.isTcpNoDelay()).thenReturn(true);
 		this.httpRequestDispatcher = mock(HttpRequestDispatcher.class);
 		when(this.httpServerConfig.getHttpRequestDispatcher()).thenReturn(this.httpRequestDispatcher);
 		this.httpServerContext = mock(HttpServerContext.class);
@@ -72,7 +76,8 @@ public class HttpClientSocketHandlerImplTest {
 		this.httpClientSocketHandler = new HttpClientSocketHandlerImpl(this.clientSocket, this.httpServerConfig);
 
 		this.request = mock(HttpRequest.class);
-		when(this.httpRequestParser.parseHttpRequest(this.socketInputStream, this.remoteAddress)).thenReturn(request);
+		when(this.httpRequestParser.parseHttpRequest(any(RequestInputStream.class), eq(this.remoteAddress)))
+				.thenReturn(request);
 		when(this.request.getFirstLine()).thenReturn("GET /index.html HTTP/1.1");
 		this.response = mock(ReadableHttpResponse.class);
 		when(httpResponseBuilder.buildNewHttpResponse()).thenReturn(this.response);
@@ -122,7 +127,7 @@ public class HttpClientSocketHandlerImplTest {
 
 	@Test
 	public void testMethodNotAllowedException() throws IOException {
-		when(this.httpRequestParser.parseHttpRequest(this.socketInputStream, this.remoteAddress))
+		when(this.httpRequestParser.parseHttpRequest(any(RequestInputStream.class), eq(this.remoteAddress)))
 				.thenThrow(new MethodNotAllowedException("PUT", "PUT /index.html HTTP/1.1"));
 
 		this.httpClientSocketHandler.run();
@@ -131,30 +136,42 @@ public class HttpClientSocketHandlerImplTest {
 		verify(this.httpServerConfig, times(2)).getHttpResponseBuilder();
 		verify(this.httpResponseBuilder).buildNewHttpResponse();
 		verify(this.httpServerConfig).getHttpRequestParser();
-		verify(this.httpRequestParser).parseHttpRequest(this.socketInputStream, this.remoteAddress);
+		verify(this.httpRequestParser).parseHttpRequest(any(RequestInputStream.class), eq(this.remoteAddress));
 		verify(this.request, never()).getFirstLine();
 		verify(this.httpServerConfig, never()).getHttpServerContext();
 		verify(this.httpRequestDispatcher, never()).handle(this.httpServerContext, this.request, this.response);
-		verify(this.httpResponseBuilder).prepareHttpResponse(this.response, false);
+		verify(this.httpResponseBuilder).prepareHttpResponse(null, this.response, false);
 		verify(this.httpServerConfig).getHttpResponseWriter();
-		verify(this.httpResponseWriter).writeHttpResponse(this.socketOutputStream, this.response);
+		verify(this.httpResponseWriter).writeHttpResponse(any(BatchOutputStream.class), eq(this.response));
 		verify(this.response).setStatus(405);
 		verify(this.response).setHeader("Allow", "GET, POST, HEAD");
 	}
 
 	@Test
 	public void testHandleFirstLineFromException() throws IOException {
-		when(this.httpRequestParser.parseHttpRequest(this.socketInputStream, this.remoteAddress))
+		when(this.httpRequestParser.parseHttpRequest(any(RequestInputStream.class), eq(this.remoteAddress)))
 				.thenThrow(new MethodNotAllowedException("HEAD", "HEAD /index.html HTTP/1.1"));
 
 		this.httpClientSocketHandler.run();
 
-		verify(this.httpResponseBuilder).prepareHttpResponse(this.response, true);
+		verify(this.httpResponseBuilder).prepareHttpResponse(null, this.response, true);
+	}
+
+	@Test
+	public void testHeadRequestIsHeadersOnly() throws IOException {
+		when(this.request.getMethod()).thenReturn("HEAD");
+		when(this.request.getFirstLine()).thenReturn("HEAD /index.html HTTP/1.1");
+
+		this.httpClientSocketHandler.run();
+
+		verify(this.response).setHeadersOnly(true);
+		verify(this.httpRequestDispatcher).handle(this.httpServerContext, this.request, this.response);
+		verify(this.httpResponseBuilder).prepareHttpResponse(this.request, this.response, true);
 	}
 
 	@Test
 	public void testEOFException() throws IOException {
-		when(this.httpRequestParser.parseHttpRequest(this.socketInputStream, this.remoteAddress))
+		when(this.httpRequestParser.parseHttpRequest(any(RequestInputStream.class), eq(this.remoteAddress)))
 				.thenThrow(new EOFException("InputStream closed!"));
 
 		this.httpClientSocketHandler.run();
@@ -163,18 +180,63 @@ public class HttpClientSocketHandlerImplTest {
 		verify(this.httpServerConfig, times(1)).getHttpResponseBuilder();
 		verify(this.httpResponseBuilder).buildNewHttpResponse();
 		verify(this.httpServerConfig).getHttpRequestParser();
-		verify(this.httpRequestParser).parseHttpRequest(this.socketInputStream, this.remoteAddress);
+		verify(this.httpRequestParser).parseHttpRequest(any(RequestInputStream.class), eq(this.remoteAddress));
 
 		verify(this.request, never()).getFirstLine();
 		verify(this.httpServerConfig, never()).getHttpServerContext();
 		verify(this.httpRequestDispatcher, never()).handle(this.httpServerContext, this.request, this.response);
-		verify(this.httpResponseBuilder, never()).prepareHttpResponse(this.response, false);
+		verify(this.httpResponseBuilder, never()).prepareHttpResponse(this.request, this.response, false);
 		verify(this.httpServerConfig, never()).getHttpResponseWriter();
-		verify(this.httpResponseWriter, never()).writeHttpResponse(this.socketOutputStream, this.response);
+		verify(this.httpResponseWriter, never()).writeHttpResponse(any(BatchOutputStream.class), eq(this.response));
+	}
+
+	@Test
+	public void testKeepAlive() throws IOException {
+		when(this.httpServerConfig.getKeepAliveMaxRequests()).thenReturn(100);
+		when(this.httpServerConfig.getKeepAliveTimeout()).thenReturn(5000);
+		when(this.request.getHTTPVersion()).thenReturn("HTTP/1.1");
+		when(this.request.getHeaders()).thenReturn(Collections.<String, String>emptyMap());
+		when(this.httpRequestParser.parseHttpRequest(any(RequestInputStream.class), eq(this.remoteAddress)))
+				.thenReturn(request).thenReturn(request).thenThrow(new EOFException("InputStream closed!"));
+
+		this.httpClientSocketHandler.run();
+
+		this.verifySocketInteractions();
+		verify(this.clientSocket, times(2)).setSoTimeout(5000);
+		verify(this.httpRequestDispatcher, times(2)).handle(this.httpServerContext, this.request, this.response);
+		verify(this.response, times(2)).setHeader("Connection", "keep-alive");
+		verify(this.httpResponseWriter, times(2)).writeHttpResponse(any(BatchOutputStream.class), eq(this.response));
+	}
+
+	@Test
+	public void testKeepAliveMaxRequests() throws IOException {
+		when(this.httpServerConfig.getKeepAliveMaxRequests()).thenReturn(2);
+		when(this.request.getHTTPVersion()).thenReturn("HTTP/1.1");
+		when(this.request.getHeaders()).thenReturn(Collections.<String, String>emptyMap());
+
+		this.httpClientSocketHandler.run();
+
+		verify(this.httpRequestDispatcher, times(2)).handle(this.httpServerContext, this.request, this.response);
+		verify(this.response, times(1)).setHeader("Connection", "keep-alive");
+		verify(this.clientSocket).close();
+	}
+
+	@Test
+	public void testConnectionCloseRequested() throws IOException {
+		when(this.httpServerConfig.getKeepAliveMaxRequests()).thenReturn(100);
+		when(this.request.getHTTPVersion()).thenReturn("HTTP/1.1");
+		when(this.request.getHeaders()).thenReturn(Collections.singletonMap("Connection", "Close"));
+
+		this.httpClientSocketHandler.run();
+
+		this.verifySocketInteractions();
+		this.verifyMainFlowWithoutParseErrors();
+		verify(this.response, never()).setHeader("Connection", "keep-alive");
 	}
 
 	private void verifySocketInteractions() throws IOException {
 		verify(this.clientSocket).setKeepAlive(false);
+		verify(this.clientSocket).setTcpNoDelay(true);
 		verify(this.clientSocket).close();
 		verify(this.clientSocket).getInputStream();
 		verify(this.clientSocket).getOutputStream();
@@ -186,12 +248,13 @@ public class HttpClientSocketHandlerImplTest {
 		verify(this.httpServerConfig, times(2)).getHttpResponseBuilder();
 		verify(this.httpResponseBuilder).buildNewHttpResponse();
 		verify(this.httpServerConfig).getHttpRequestParser();
-		verify(this.httpRequestParser).parseHttpRequest(this.socketInputStream, this.remoteAddress);
+		verify(this.httpRequestParser).parseHttpRequest(any(RequestInputStream.class), eq(this.remoteAddress));
 		verify(this.request).getFirstLine();
 		verify(this.httpServerConfig).getHttpServerContext();
+		verify(this.response).setHeadersOnly(false);
 		verify(this.httpRequestDispatcher).handle(this.httpServerContext, this.request, this.response);
-		verify(this.httpResponseBuilder).prepareHttpResponse(this.response, false);
+		verify(this.httpResponseBuilder).prepareHttpResponse(this.request, this.response, false);
 		verify(this.httpServerConfig).getHttpResponseWriter();
-		verify(this.httpResponseWriter).writeHttpResponse(this.socketOutputStream, response);
+		verify(this.httpResponseWriter).writeHttpResponse(any(BatchOutputStream.class), eq(this.response));
 	}
 }
@@ -14,19 +14,25 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
+import java.io.Writer;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.LinkOption;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
 import java.sql.Date;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
 
+import io.barhan.http_server.Constants;
 import io.barhan.http_server.HtmlTemplateManager;
 import io.barhan.http_server.HttpHandler;
 import io.barhan.http_server.HttpRequest;
@@ -39,6 +45,7 @@ public class HttpHandlerImplTest {
 	private HttpRequest request;
 	private HttpResponse response;
 
+	private StaticFileCache staticFileCache;
 	private HttpHandler httpHandler;
 
 	@Rule
@@ -49,7 +56,9 @@ public class HttpHandlerImplTest {
 		this.context = mock(HttpServerContext.class);
 		this.request = mock(HttpRequest.class);
 		this.response = mock(ReadableHttpResponse.class);
-		this.httpHandler = new HttpHandlerImpl();
+		this.staticFileCache = mock(StaticFileCache.class);
+		this.httpHandler = new HttpHandlerImpl(this.staticFileCache, Constants.STRONG_ETAG, null,
+				new DirectoryListing(16, 65536));
 	}
 
 	@Test
@@ -83,9 +92,12 @@ public class HttpHandlerImplTest {
 		verify(this.response).setHeader("Last-Modified",
 				Files.getLastModifiedTime(Paths.get(file.toURI()), LinkOption.NOFOLLOW_LINKS));
 		verify(this.response).setHeader(eq("Expires"), any(Date.class));
-		verify(this.response).setBody(any(InputStream.class));
+		verify(this.response).setHeader(eq("ETag"), anyString());
+		verify(this.response).setHeader("Accept-Ranges", "bytes");
+		verify(this.response).setBody(Paths.get(file.toURI()));
 
 		verify(this.response, never()).setStatus(anyInt());
+		verify(this.response, never()).setBody(any(InputStream.class));
 		verify(this.response, never()).setBody(any(Reader.class));
 		verify(this.response, never()).setBody(anyString());
 	}
@@ -105,41 +117,274 @@ public class HttpHandlerImplTest {
 		verify(this.response).setHeader("Content-Type", "text/css");
 		verify(this.response).setHeader("Last-Modified",
 				Files.getLastModifiedTime(Paths.get(file.toURI()), LinkOption.NOFOLLOW_LINKS));
-		verify(this.response).setBody(any(InputStream.class));
+		verify(this.response).setBody(Paths.get(file.toURI()));
 
 		verify(this.response, never()).setHeader(eq("Expires"), any(Date.class));
+		verify(this.response, never()).setBody(any(InputStream.class));
 		verify(this.response, never()).setStatus(anyInt());
 		verify(this.response, never()).setBody(any(Reader.class));
 		verify(this.response, never()).setBody(anyString());
 	}
 
+	@Test
+	public void testStaticFileUri() throws IOException {
+		Path root = Paths.get(this.folder.newFolder("root").toURI());
+		Path file = root.resolve("file.css");
+		StaticFile cachedFile = new StaticFile(file, "test css".getBytes(StandardCharsets.UTF_8), "text/css",
+				FileTime.fromMillis(1000));
+		when(this.staticFileCache.getIfPresent(file)).thenReturn(cachedFile);
+		when(this.context.getRootPath()).thenReturn(root);
+		when(this.request.getURI()).thenReturn("/file.css");
+		Files.write(file, "test css".getBytes(StandardCharsets.UTF_8), StandardOpenOption.CREATE);
+
+		this.httpHandler.handle(this.context, this.request, this.response);
+
+		verify(this.response).setHeader("Content-Type", "text/css");
+		verify(this.response).setHeader("Last-Modified", FileTime.fromMillis(1000));
+		verify(this.response).setHeader("ETag", "\"3e8-8\"");
+		verify(this.response).setBody(cachedFile.getContent());
+		verify(this.response, never()).setBody(any(Path.class));
+		verify(this.context, never()).getContentType(anyString());
+	}
+
+	@Test
+	public void testGzipSidecar() throws IOException {
+		Path root = Paths.get(this.folder.newFolder("root").toURI());
+		Path file = Files.write(root.resolve("file.css"), "test css".getBytes(StandardCharsets.UTF_8));
+		Path sidecar = Files.write(root.resolve("file.css.gz"), new byte[] { 1, 2, 3 });
+		Files.setLastModifiedTime(sidecar, Files.getLastModifiedTime(file));
+		when(this.context.getContentType("css")).thenReturn("text/css");
+		when(this.context.getRootPath()).thenReturn(root);
+		when(this.request.getURI()).thenReturn("/file.css");
+		when(this.request.getHeaders()).thenReturn(Collections.singletonMap("Accept-Encoding", "gzip, deflate"));
+
+		this.httpHandler.handle(this.context, this.request, this.response);
+
+		verify(this.response).setHeader("Content-Type", "text/css");
+		verify(this.response).setHeader("Vary", "Accept-Encoding");
+		verify(this.response).setHeader("Content-Encoding", "gzip");
+		verify(this.response).setBody(sidecar);
+	}
+
+	@Test
+	public void testStaleGzipSidecar() throws IOException {
+		Path root = Paths.get(this.folder.newFolder("root").toURI());
+		Path file = Files.write(root.resolve("file.css"), "test css".getBytes(StandardCharsets.UTF_8));
+		Path sidecar = Files.write(root.resolve("file.css.gz"), new byte[] { 1, 2, 3 });
+		Files.setLastModifiedTime(sidecar, FileTime.fromMillis(Files.getLastModifiedTime(file).toMillis() - 1000));
+		when(this.context.getContentType("css")).thenReturn("text/css");
+		when(this.context.getRootPath()).thenReturn(root);
+		when(this.request.getURI()).thenReturn("/file.css");
+		when(this.request.getHeaders()).thenReturn(Collections.singletonMap("Accept-Encoding", "gzip"));
+
+		this.httpHandler.handle(this.context, this.request, this.response);
+
+		verify(this.response).setHeader("Vary", "Accept-Encoding");
+		verify(this.response, never()).setHeader(eq("Content-Encoding"), any(Object.class));
+		verify(this.response).setBody(file);
+	}
+
+	@Test
+	public void testIfNoneMatch() throws IOException {
+		Path root = Paths.get(this.folder.newFolder("root").toURI());
+		Path file = Files.write(root.resolve("file.css"), "test css".getBytes(StandardCharsets.UTF_8));
+		Files.setLastModifiedTime(file, FileTime.fromMillis(1000));
+		when(this.context.getRootPath()).thenReturn(root);
+		when(this.request.getMethod()).thenReturn("GET");
+		when(this.request.getURI()).thenReturn("/file.css");
+		when(this.request.getHeaders()).thenReturn(Collections.singletonMap("If-None-Match", "\"1\", \"3e8-8\""));
+
+		this.httpHandler.handle(this.context, this.request, this.response);
+
+		verify(this.response).setStatus(304);
+		verify(this.response, never()).setBody(any(Path.class));
+		verify(this.staticFileCache, never()).get(this.context, file);
+	}
+
+	@Test
+	public void testLoadsCachedContentAfterValidation() throws IOException {
+		Path root = Paths.get(this.folder.newFolder("root").toURI());
+		Path file = Files.write(root.resolve("file.css"), "test css".getBytes(StandardCharsets.UTF_8));
+		Files.setLastModifiedTime(file, FileTime.fromMillis(1000));
+		StaticFile cachedFile = new StaticFile(file, "test css".getBytes(StandardCharsets.UTF_8), "text/css",
+				FileTime.fromMillis(1000));
+		when(this.staticFileCache.get(this.context, file)).thenReturn(cachedFile);
+		when(this.context.getRootPath()).thenReturn(root);
+		when(this.request.getMethod()).thenReturn("GET");
+		when(this.request.getURI()).thenReturn("/file.css");
+		when(this.request.getHeaders()).thenReturn(Collections.singletonMap("If-None-Match", "\"3e8-7\""));
+
+		this.httpHandler.handle(this.context, this.request, this.response);
+
+		verify(this.response).setHeader("ETag", "\"3e8-8\"");
+		verify(this.response).setBody(cachedFile.getContent());
+		verify(this.response, never()).setBody(any(Path.class));
+	}
+
+	@Test
+	public void testIfNoneMatchCompressedETag() throws IOException {
+		Path root = Paths.get(this.folder.newFolder("root").toURI());
+		Path file = Files.write(root.resolve("file.css"), "test css".getBytes(StandardCharsets.UTF_8));
+		Files.setLastModifiedTime(file, FileTime.fromMillis(1000));
+		when(this.context.getContentType("css")).thenReturn("text/css");
+		when(this.context.getRootPath()).thenReturn(root);
+		when(this.request.getMethod()).thenReturn("GET");
+		when(this.request.getURI()).thenReturn("/file.css");
+		when(this.request.getHeaders()).thenReturn(Collections.singletonMap("If-None-Match", "\"3e8-8-gzip\""));
+
+		this.httpHandler.handle(this.context, this.request, this.response);
+
+		verify(this.response).setStatus(304);
+		verify(this.response).setHeader("ETag", "\"3e8-8-gzip\"");
+		verify(this.response, never()).setBody(any(Path.class));
+	}
+
+	@Test
+	public void testIfNoneMatchChanged() throws IOException {
+		Path root = Paths.get(this.folder.newFolder("root").toURI());
+		Path file = Files.write(root.resolve("file.css"), "test css".getBytes(StandardCharsets.UTF_8));
+		Files.setLastModifiedTime(file, FileTime.fromMillis(1000));
+		when(this.context.getRootPath()).thenReturn(root);
+		when(this.request.getMethod()).thenReturn("GET");
+		when(this.request.getURI()).thenReturn("/file.css");
+		Map<String, String> headers = new HashMap<>();
+		headers.put("If-None-Match", "\"3e8-7\"");
+		headers.put("If-Modified-Since", "Sun, 06 Nov 2094 08:49:37 GMT");
+		when(this.request.getHeaders()).thenReturn(headers);
+
+		this.httpHandler.handle(this.context, this.request, this.response);
+
+		verify(this.response, never()).setStatus(anyInt());
+		verify(this.response).setBody(file);
+	}
+
+	@Test
+	public void testIfModifiedSince() throws IOException {
+		Path root = Paths.get(this.folder.newFolder("root").toURI());
+		Path file = Files.write(root.resolve("file.css"), "test css".getBytes(StandardCharsets.UTF_8));
+		Files.setLastModifiedTime(file, FileTime.fromMillis(784111777500L));
+		when(this.context.getRootPath()).thenReturn(root);
+		when(this.request.getMethod()).thenReturn("HEAD");
+		when(this.request.getURI()).thenReturn("/file.css");
+		when(this.request.getHeaders())
+				.thenReturn(Collections.singletonMap("If-Modified-Since", "Sun, 06 Nov 1994 08:49:37 GMT"));
+
+		this.httpHandler.handle(this.context, this.request, this.response);
+
+		verify(this.response).setStatus(304);
+		verify(this.response, never()).setBody(any(Path.class));
+	}
+
+	@Test
+	public void testModifiedSince() throws IOException {
+		Path root = Paths.get(this.folder.newFolder("root").toURI());
+		Path file = Files.write(root.resolve("file.css"), "test css".getBytes(StandardCharsets.UTF_8));
+		Files.setLastModifiedTime(file, FileTime.fromMillis(784111778000L));
+		when(this.context.getRootPath()).thenReturn(root);
+		when(this.request.getMethod()).thenReturn("GET");
+		when(this.request.getURI()).thenReturn("/file.css");
+		when(this.request.getHeaders())
+				.thenReturn(Collections.singletonMap("If-Modified-Since", "Sun, 06 Nov 1994 08:49:37 GMT"));
+
+		this.httpHandler.handle(this.context, this.request, this.response);
+
+		verify(this.response, never()).setStatus(anyInt());
+		verify(this.response).setBody(file);
+	}
+
+	@Test
+	public void testWeakAndContentETags() throws IOException {
+		Path root = Paths.get(this.folder.newFolder("root").toURI());
+		Path file = root.resolve("file.css");
+		StaticFile cachedFile = new StaticFile(file, "test css".getBytes(StandardCharsets.UTF_8), "text/css",
+				FileTime.fromMillis(1000));
+		when(this.staticFileCache.getIfPresent(file)).thenReturn(cachedFile);
+		when(this.staticFileCache.get(this.context, file)).thenReturn(cachedFile);
+		when(this.context.getRootPath()).thenReturn(root);
+		when(this.request.getURI()).thenReturn("/file.css");
+		Files.write(file, "test css".getBytes(StandardCharsets.UTF_8));
+
+		new HttpHandlerImpl(this.staticFileCache, Constants.WEAK_ETAG, null, new DirectoryListing(16, 65536))
+				.handle(this.context, this.request, this.response);
+		new HttpHandlerImpl(this.staticFileCache, Constants.CONTENT_ETAG, null, new DirectoryListing(16, 65536))
+				.handle(this.context, this.request, this.response);
+
+		verify(this.response).setHeader("ETag", "W/\"3e8-8\"");
+		verify(this.response).setHeader("ETag", "\"20eafd5dbe34423328dde97a3fc46cd5\"");
+	}
+
+	@Test
+	public void testHeadersOnlyDoesNotLoadCache() throws IOException {
+		Path root = Paths.get(this.folder.newFolder("root").toURI());
+		Path file = Files.write(root.resolve("file.css"), "test css".getBytes(StandardCharsets.UTF_8));
+		when(this.context.getContentType("css")).thenReturn("text/css");
+		when(this.context.getRootPath()).thenReturn(root);
+		when(this.request.getURI()).thenReturn("/file.css");
+		when(this.response.isHeadersOnly()).thenReturn(true);
+
+		this.httpHandler.handle(this.context, this.request, this.response);
+
+		verify(this.staticFileCache).getIfPresent(file);
+		verify(this.staticFileCache, never()).get(this.context, file);
+		verify(this.response).setHeader("Content-Type", "text/css");
+		verify(this.response).setBody(file);
+	}
+
 	@Test
 	public void testDirectoryUri() throws IOException {
 		HtmlTemplateManager htmlTemplateManager = mock(HtmlTemplateManager.class);
 		when(this.context.getHtmlTemplateManager()).thenReturn(htmlTemplateManager);
-		when(htmlTemplateManager.processTemplate(eq("list.html"), anyMapOf(String.class, Object.class)))
-				.thenReturn("result");
+		Writer writer = mock(Writer.class);
+		when(this.response.getWriter()).thenReturn(writer);
 		Path root = Paths.get(this.folder.newFolder("root").toURI());
 		File dir = new File(root.toFile(), "dir");
 		dir.mkdirs();
 		Files.write(Paths.get(dir.getAbsolutePath() + "/test.css"), "test css".getBytes(StandardCharsets.UTF_8),
 				StandardOpenOption.CREATE);
-		Files.write(Paths.get(dir.getAbsolutePath() + "/test.js"), "test js".getBytes(StandardCharsets.UTF_8),
-				StandardOpenOption.CREATE);
 
-		when(this.context.getContentType("css")).thenReturn("text/css");
 		when(this.context.getRootPath()).thenReturn(root);
 		when(this.request.getURI()).thenReturn("/dir");
 
 		this.httpHandler.handle(this.context, this.request, this.response);
 
-		verify(htmlTemplateManager).processTemplate(eq("list.html"), anyMapOf(String.class, Object.class));
-
-		verify(this.response).setBody(anyString());
+		verify(htmlTemplateManager).processTemplate(eq("list.html"), anyMapOf(String.class, Object.class),
+				any(Writer.class));
 
 		verify(this.response, never()).setHeader(anyString(), any(Object.class));
 		verify(this.response, never()).setStatus(anyInt());
 		verify(this.response, never()).setBody(any(Reader.class));
 		verify(this.response, never()).setBody(any(InputStream.class));
 	}
+
+	@Test
+	public void testIndexedLookup() throws IOException {
+		Path root = Paths.get(this.folder.newFolder("root").toURI());
+		Path file = Files.write(root.resolve("file.css"), "test css".getBytes(StandardCharsets.UTF_8));
+		Path sidecar = Files.write(root.resolve("file.css.gz"), new byte[] { 1, 2, 3 });
+		Files.setLastModifiedTime(sidecar, Files.getLastModifiedTime(file));
+		when(this.context.getContentType("css")).thenReturn("text/css");
+		WebRootWatcher watcher = new WebRootWatcher(root);
+		try {
+			WebRootIndex index = new WebRootIndex(watcher, this.context);
+			index.start();
+			this.httpHandler = new HttpHandlerImpl(this.staticFileCache, Constants.STRONG_ETAG, index,
+					new DirectoryListing(16, 65536));
+			when(this.request.getURI()).thenReturn("/file.css");
+			when(this.request.getHeaders()).thenReturn(Collections.singletonMap("Accept-Encoding", "gzip"));
+
+			this.httpHandler.handle(this.context, this.request, this.response);
+
+			verify(this.response).setHeader("Content-Type", "text/css");
+			verify(this.response).setHeader("Content-Encoding", "gzip");
+			verify(this.response).setBody(sidecar);
+
+			when(this.request.getURI()).thenReturn("/missing.css");
+			this.httpHandler.handle(this.context, this.request, this.response);
+
+			verify(this.response).setStatus(404);
+			verify(this.context, never()).getRootPath();
+		} finally {
+			watcher.close();
+		}
+	}
 }
@@ -0,0 +1,112 @@
+package io.barhan.http_server.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import io.barhan.http_server.exception.BadRequestException;
+
+public class HttpRequestDecoderTest {
+	private HttpRequestDecoder decoder;
+
+	@Before
+	public void before() {
+		this.decoder = new HttpRequestDecoder(8192, 100);
+	}
+
+	private ByteBuffer buffer(String data) {
+		return ByteBuffer.wrap(data.getBytes(StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void testResumeOnFragments() {
+		assertFalse(this.decoder.decode(this.buffer("PO")));
+		assertFalse(this.decoder.decode(this.buffer("ST /index.html HT")));
+		assertFalse(this.decoder.decode(this.buffer("TP/1.1\r\ncontent-LENGTH:")));
+		assertFalse(this.decoder.decode(this.buffer(" 5 \r\nHost: localhost\r")));
+		ByteBuffer last = this.buffer("\n\r\nhello");
+		assertTrue(this.decoder.decode(last));
+
+		assertEquals("POST", this.decoder.getMethod());
+		assertEquals("/index.html", this.decoder.getUri());
+		assertEquals("HTTP/1.1", this.decoder.getHttpVersion());
+		assertEquals("5", this.decoder.getHeaders().get("Content-Length"));
+		assertEquals("localhost", this.decoder.getHeaders().get("Host"));
+		assertEquals(5, this.decoder.getContentLength());
+		assertEquals(5, last.remaining());
+	}
+
+	@Test
+	public void testSkipLeadingEmptyLines() {
+		assertTrue(this.decoder.decode(this.buffer("\r\n\r\nGET / HTTP/1.1\r\n\r\n")));
+		assertEquals("GET / HTTP/1.1", this.decoder.getFirstLine());
+		assertTrue(this.decoder.getHeaders().isEmpty());
+		assertEquals(-1, this.decoder.getContentLength());
+	}
+
+	@Test
+	public void testFoldedHeader() {
+		assertTrue(this.decoder.decode(this.buffer("GET / HTTP/1.1\r\nAccept: text/html, \r\n\t text/plain\r\n\r\n")));
+		assertEquals("text/html, text/plain", this.decoder.getHeaders().get("Accept"));
+	}
+
+	@Test
+	public void testFoldIsReplacedWithSingleSpace() {
+		assertTrue(this.decoder.decode(this.buffer("GET / HTTP/1.1\r\nX-Note: a\r\n \t b\r\n\r\n")));
+		assertEquals("a b", this.decoder.getHeaders().get("X-Note"));
+	}
+
+	@Test
+	public void testReset() {
+		assertTrue(this.decoder.decode(this.buffer("POST /form HTTP/1.1\r\nContent-Length: 5\r\nHost: a\r\n\r\n")));
+		Map<String, String> headers = this.decoder.getHeaders();
+
+		this.decoder.reset();
+		assertTrue(this.decoder.decode(this.buffer("GET /next HTTP/1.1\r\nHost: b\r\n\r\n")));
+
+		assertEquals("GET /next HTTP/1.1", this.decoder.getFirstLine());
+		assertEquals(-1, this.decoder.getContentLength());
+		assertEquals("b", this.decoder.getHeaders().get("Host"));
+		assertEquals("a", headers.get("Host"));
+	}
+
+	@Test
+	public void testRepeatedEqualContentLength() {
+		assertTrue(this.decoder.decode(this.buffer("POST / HTTP/1.1\r\nContent-Length: 5\r\nContent-Length: 5\r\n\r\n")));
+		assertEquals(5, this.decoder.getContentLength());
+	}
+
+	@Test
+	public void testConflictingContentLength() {
+		Exception exception = assertThrows(BadRequestException.class, () -> {
+			this.decoder.decode(this.buffer("POST / HTTP/1.1\r\nContent-Length: 5\r\nContent-Length: 50\r\n\r\n"));
+		});
+		assertEquals("Conflicting Content-Length headers", exception.getMessage());
+	}
+
+	@Test
+	public void testContentLengthWithTransferEncoding() {
+		Exception exception = assertThrows(BadRequestException.class, () -> {
+			this.decoder.decode(
+					this.buffer("POST / HTTP/1.1\r\nTransfer-Encoding: chunked\r\nContent-Length: 5\r\n\r\n"));
+		});
+		assertEquals("Request has both Content-Length and Transfer-Encoding", exception.getMessage());
+	}
+
+	@Test
+	public void testDuplicateTransferEncoding() {
+		Exception exception = assertThrows(BadRequestException.class, () -> {
+			this.decoder.decode(
+					this.buffer("POST / HTTP/1.1\r\nTransfer-Encoding: chunked\r\nTransfer-Encoding: identity\r\n\r\n"));
+		});
+		assertEquals("Duplicate Transfer-Encoding headers", exception.getMessage());
+	}
+}
@@ -2,8 +2,10 @@ package io.barhan.http_server.impl;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertThrows;
+import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -84,4 +86,32 @@ public class HttpRequestDispatcherImplTest {
 		this.httpRequestDispatcher.handle(this.context, this.request, this.response);
 		verify(this.defaulthttpHandler).handle(this.context, this.request, this.response);
 	}
+
+	@Test
+	public void testPathParams() throws IOException {
+		this.httpRequestDispatcher = new HttpRequestDispatcherImpl(this.defaulthttpHandler,
+				new HandlerConfig().addHandler("/api/users/{id}", this.urlHttpHandler).toMap());
+		HttpRequestImpl request = new HttpRequestImpl("GET", "/api/users/42", "HTTP/1.1", "localhost",
+				Collections.emptyMap(), Collections.emptyMap());
+
+		this.httpRequestDispatcher.handle(this.context, request, this.response);
+
+		verify(this.urlHttpHandler).handle(this.context, request, this.response);
+		assertEquals(Collections.singletonMap("id", "42"), request.getPathParams());
+	}
+
+	@Test
+	public void testMethodNotAllowed() throws IOException {
+		this.httpRequestDispatcher = new HttpRequestDispatcherImpl(this.defaulthttpHandler,
+				new HandlerConfig().addHandler("POST", "/test", this.urlHttpHandler).toMap());
+		when(this.request.getURI()).thenReturn("/test");
+		when(this.request.getMethod()).thenReturn("GET");
+
+		this.httpRequestDispatcher.handle(this.context, this.request, this.response);
+
+		verify(this.response).setStatus(405);
+		verify(this.response).setHeader("Allow", "POST");
+		verify(this.urlHttpHandler, never()).handle(any(), any(), any());
+		verify(this.defaulthttpHandler, never()).handle(any(), any(), any());
+	}
 }
@@ -1,6 +1,8 @@
 package io.barhan.http_server.impl;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.assertThrows;
 
 import java.util.HashMap;
@@ -10,6 +12,7 @@ import org.junit.Before;
 import org.junit.Test;
 
 import io.barhan.http_server.HttpRequest;
+import io.barhan.http_server.exception.BadRequestException;
 
 public class HttpRequestImplTest {
 	private Map<String, String> map;
@@ -44,4 +47,36 @@ public class HttpRequestImplTest {
 				this.map);
 		assertEquals("GET /index.html HTTP/1.1", request.getFirstLine());
 	}
+
+	@Test
+	public void testFirstLineIsCached() {
+		HttpRequest request = new HttpRequestImpl("GET", "/index.html", "HTTP/1.1", "localhost:1234", this.map,
+				this.map);
+		assertSame(request.getFirstLine(), request.getFirstLine());
+	}
+
+	@Test
+	public void testLazyParams() {
+		HttpRequest request = new HttpRequestImpl("GET", "/search", "HTTP/1.1", "localhost:1234", this.map,
+				"q=http+server&tag=a&tag=b", null, false);
+
+		assertEquals("http server", request.getParams().get("q"));
+		assertEquals("a,b", request.getParams().get("tag"));
+		assertSame(request.getParams(), request.getParams());
+		assertThrows(UnsupportedOperationException.class, () -> request.getParams().clear());
+	}
+
+	@Test
+	public void testNoParams() {
+		HttpRequest request = new HttpRequestImpl("GET", "/", "HTTP/1.1", "localhost:1234", this.map, null, null,
+				false);
+		assertTrue(request.getParams().isEmpty());
+	}
+
+	@Test
+	public void testInvalidParams() {
+		HttpRequest request = new HttpRequestImpl("GET", "/search", "HTTP/1.1", "localhost:1234", this.map,
+				"q=%zz", null, false);
+		assertThrows(BadRequestException.class, () -> request.getParams());
+	}
 }
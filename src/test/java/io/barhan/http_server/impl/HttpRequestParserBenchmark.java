@@ -0,0 +1,48 @@
+package io.barhan.http_server.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+public class HttpRequestParserBenchmark {
+	private static final int WARMUP_ITERATIONS = 200000;
+	private static final int ITERATIONS = 1000000;
+
+	public static void main(String[] args) throws IOException {
+		HttpRequestParserImpl parser = new HttpRequestParserImpl(8192, 100, 0);
+		run(parser, "small", createRequest(2));
+		run(parser, "browser", createRequest(12));
+		run(parser, "large", createRequest(60));
+	}
+
+	private static byte[] createRequest(int headerCount) {
+		StringBuilder request = new StringBuilder("GET /index.html?param1=value1&param2=true HTTP/1.1\r\n");
+		request.append("Host: localhost\r\n");
+		for (int i = 1; i < headerCount; i++) {
+			request.append("X-Benchmark-Header-").append(i).append(": value-").append(i).append("\r\n");
+		}
+		return request.append("\r\n").toString().getBytes(StandardCharsets.UTF_8);
+	}
+
+	private static void run(HttpRequestParserImpl parser, String name, byte[] request) throws IOException {
+		parse(parser, request, WARMUP_ITERATIONS);
+		long start = System.nanoTime();
+		parse(parser, request, ITERATIONS);
+		long nanos = System.nanoTime() - start;
+		System.out.printf("%-8s %5d bytes: %6d ns/request, %6.2f ns/byte%n", name, request.length, nanos / ITERATIONS,
+				(double) nanos / ITERATIONS / request.length);
+	}
+
+	private static void parse(HttpRequestParserImpl parser, byte[] request, int iterations) throws IOException {
+		byte[] batch = new byte[request.length * 100];
+		for (int i = 0; i < 100; i++) {
+			System.arraycopy(request, 0, batch, i * request.length, request.length);
+		}
+		for (int i = 0; i < iterations / 100; i++) {
+			RequestInputStream in = new RequestInputStream(new ByteArrayInputStream(batch));
+			for (int j = 0; j < 100; j++) {
+				parser.parseHttpRequest(in, "localhost");
+			}
+		}
+	}
+}
@@ -1,26 +1,38 @@
 package io.barhan.http_server.impl;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThrows;
 import static org.junit.Assert.assertTrue;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
 
+import org.apache.commons.io.IOUtils;
 import org.junit.Before;
 import org.junit.Test;
 
 import io.barhan.http_server.HttpRequest;
 import io.barhan.http_server.exception.BadRequestException;
+import io.barhan.http_server.exception.ExpectationFailedException;
 import io.barhan.http_server.exception.HttpVersionNotSupportedException;
 import io.barhan.http_server.exception.MethodNotAllowedException;
+import io.barhan.http_server.exception.PayloadTooLargeException;
+import io.barhan.http_server.exception.RequestHeaderFieldsTooLargeException;
 
 public class HttpRequestParserImplTest {
 	private HttpRequestParserImpl httpRequestParserImpl;
 
 	@Before
 	public void before() {
-		this.httpRequestParserImpl = new HttpRequestParserImpl();
+		this.httpRequestParserImpl = new HttpRequestParserImpl(8192, 100, 0);
 	}
 
 	private InputStream getClassPathResourceStream(String resourceName) {
@@ -64,7 +76,7 @@ public class HttpRequestParserImplTest {
 			HttpRequest request = httpRequestParserImpl.parseHttpRequest(httpMessage, "localhost");
 			assertEquals("localhost", request.getHeaders().get("Host"));
 			assertEquals("text/html", request.getHeaders().get("Accept"));
-			assertEquals("text/html;charset=windows-1251", request.getHeaders().get("Content-Type"));
+			assertEquals("text/html; charset=windows-1251", request.getHeaders().get("Content-Type"));
 		}
 	}
 
@@ -192,4 +204,216 @@ public class HttpRequestParserImplTest {
 			assertEquals("Only [GET, POST, HEAD] are supported. But the current method is PUT", exception.getMessage());
 		}
 	}
+
+	@Test
+	public void testEOFException() throws IOException {
+		InputStream httpMessage = this.getStringStream("GET /index.html HTTP/1.1\r\nHost: local");
+		Exception exception = assertThrows(EOFException.class, () -> {
+			httpRequestParserImpl.parseHttpRequest(httpMessage, "localhost");
+		});
+		assertEquals("Input stream closed.", exception.getMessage());
+	}
+
+	@Test
+	public void testHeadersTooLarge() throws IOException {
+		StringBuilder message = new StringBuilder("GET /index.html HTTP/1.1\r\nCookie: ");
+		for (int i = 0; i < 10000; i++) {
+			message.append('x');
+		}
+		InputStream httpMessage = this.getStringStream(message.append("\r\n\r\n").toString());
+		RequestHeaderFieldsTooLargeException exception = assertThrows(RequestHeaderFieldsTooLargeException.class,
+				() -> {
+					httpRequestParserImpl.parseHttpRequest(httpMessage, "localhost");
+				});
+		assertEquals(431, exception.getStatusCode());
+		assertEquals("GET /index.html HTTP/1.1", exception.getFirstLine());
+	}
+
+	@Test
+	public void testTooManyHeaders() throws IOException {
+		StringBuilder message = new StringBuilder("GET /index.html HTTP/1.1\r\n");
+		for (int i = 0; i <= 100; i++) {
+			message.append("X-Header-").append(i).append(": ").append(i).append("\r\n");
+		}
+		InputStream httpMessage = this.getStringStream(message.append("\r\n").toString());
+		Exception exception = assertThrows(RequestHeaderFieldsTooLargeException.class, () -> {
+			httpRequestParserImpl.parseHttpRequest(httpMessage, "localhost");
+		});
+		assertEquals("Request has more than 100 headers", exception.getMessage());
+	}
+
+	@Test
+	public void testInvalidRequestLine() throws IOException {
+		InputStream httpMessage = this.getStringStream("GET\r\nHost: localhost\r\n\r\n");
+		Exception exception = assertThrows(BadRequestException.class, () -> {
+			httpRequestParserImpl.parseHttpRequest(httpMessage, "localhost");
+		});
+		assertEquals("Incomplete request line", exception.getMessage());
+	}
+
+	@Test
+	public void testPipelinedRequests() throws IOException {
+		RequestInputStream in = new RequestInputStream(this.getStringStream(
+				"POST /form HTTP/1.1\r\nContent-Length: 7\r\n\r\nname=onGET /next?a=b HTTP/1.1\r\nHost: localhost\r\n\r\n"));
+
+		HttpRequest first = httpRequestParserImpl.parseHttpRequest(in, "localhost");
+		assertEquals("/form", first.getURI());
+		assertEquals("on", first.getParams().get("name"));
+
+		HttpRequest second = httpRequestParserImpl.parseHttpRequest(in, "localhost");
+		assertEquals("GET /next HTTP/1.1", second.getFirstLine());
+		assertEquals("b", second.getParams().get("a"));
+		assertEquals("localhost", second.getHeaders().get("Host"));
+		assertTrue(first.getHeaders().containsKey("Content-Length"));
+		assertFalse(first.getHeaders().containsKey("Host"));
+		assertSame(in.getDecoder(8192, 100), in.getDecoder(8192, 100));
+		assertEquals(0, in.available());
+	}
+
+	@Test
+	public void testHeadDecodedAhead() throws IOException {
+		RequestInputStream in = new RequestInputStream(
+				this.getStringStream("GET /a?x=1 HTTP/1.1\r\nHost: localhost\r\n\r\nGET /b"));
+
+		assertTrue(in.decodeAvailableHead(8192, 100));
+		HttpRequest first = httpRequestParserImpl.parseHttpRequest(in, "localhost");
+		assertEquals("/a", first.getURI());
+		assertEquals("localhost", first.getHeaders().get("Host"));
+
+		assertFalse(in.decodeAvailableHead(8192, 100));
+		assertEquals(0, in.available());
+	}
+
+	@Test
+	public void testHeadFailureDecodedAhead() throws IOException {
+		RequestInputStream in = new RequestInputStream(this.getStringStream("GET /a HTTP/1.1\r\n: x\r\n\r\n"));
+
+		assertTrue(in.decodeAvailableHead(8192, 100));
+		BadRequestException exception = assertThrows(BadRequestException.class, () -> {
+			httpRequestParserImpl.parseHttpRequest(in, "localhost");
+		});
+		assertEquals("Header name is missing", exception.getMessage());
+	}
+
+	@Test
+	public void testStreamedBinaryBody() throws IOException {
+		byte[] head = "POST /upload HTTP/1.1\r\nContent-Type: application/octet-stream\r\nContent-Length: 4\r\n\r\n"
+				.getBytes(StandardCharsets.UTF_8);
+		byte[] body = { (byte) 0xC3, 0, (byte) 0xFF, 10 };
+		byte[] message = new byte[head.length + body.length];
+		System.arraycopy(head, 0, message, 0, head.length);
+		System.arraycopy(body, 0, message, head.length, body.length);
+
+		HttpRequest request = httpRequestParserImpl.parseHttpRequest(new ByteArrayInputStream(message), "localhost");
+
+		assertTrue(request.getParams().isEmpty());
+		assertArrayEquals(body, IOUtils.toByteArray(request.getBody()));
+	}
+
+	@Test
+	public void testUtf8FormBody() throws IOException {
+		byte[] value = "name=Café".getBytes(StandardCharsets.UTF_8);
+		HttpRequest request = httpRequestParserImpl.parseHttpRequest(this.getStringStream(
+				"POST /form HTTP/1.1\r\nContent-Type: application/x-www-form-urlencoded; charset=UTF-8\r\n"
+						+ "Content-Length: " + value.length + "\r\n\r\nname=Café"),
+				"localhost");
+
+		assertEquals("Café", request.getParams().get("name"));
+	}
+
+	@Test
+	public void testUnreadBodyIsSkipped() throws IOException {
+		RequestInputStream in = new RequestInputStream(this.getStringStream(
+				"POST /upload HTTP/1.1\r\nContent-Length: 10\r\n\r\n0123456789GET /next HTTP/1.1\r\n\r\n"));
+
+		HttpRequest first = httpRequestParserImpl.parseHttpRequest(in, "localhost");
+		assertEquals('0', first.getBody().read());
+		assertTrue(in.hasPendingBody());
+
+		HttpRequest second = httpRequestParserImpl.parseHttpRequest(in, "localhost");
+		assertEquals("GET /next HTTP/1.1", second.getFirstLine());
+		assertEquals(-1, second.getBody().read());
+	}
+
+	@Test
+	public void testBodyTooLarge() {
+		InputStream httpMessage = this
+				.getStringStream("POST /upload HTTP/1.1\r\nContent-Length: 1025\r\n\r\n");
+		PayloadTooLargeException exception = assertThrows(PayloadTooLargeException.class,
+				() -> new HttpRequestParserImpl(8192, 100, 1024).parseHttpRequest(httpMessage, "localhost"));
+		assertEquals(413, exception.getStatusCode());
+		assertEquals("POST /upload HTTP/1.1", exception.getFirstLine());
+	}
+
+	@Test
+	public void testChunkedFormBody() throws IOException {
+		HttpRequest request = httpRequestParserImpl.parseHttpRequest(this.getStringStream(
+				"POST /form HTTP/1.1\r\nTransfer-Encoding: chunked\r\n\r\n"
+						+ "5\r\nname=\r\n2\r\non\r\n0\r\n\r\n"),
+				"localhost");
+
+		assertEquals("on", request.getParams().get("name"));
+	}
+
+	@Test
+	public void testChunkedWithContentLength() {
+		InputStream httpMessage = this.getStringStream(
+				"POST /form HTTP/1.1\r\nTransfer-Encoding: chunked\r\nContent-Length: 100\r\n\r\n");
+		BadRequestException exception = assertThrows(BadRequestException.class,
+				() -> httpRequestParserImpl.parseHttpRequest(httpMessage, "localhost"));
+		assertEquals(400, exception.getStatusCode());
+		assertEquals("POST /form HTTP/1.1", exception.getFirstLine());
+	}
+
+	@Test
+	public void testUnsupportedTransferEncoding() {
+		InputStream httpMessage = this
+				.getStringStream("POST /upload HTTP/1.1\r\nTransfer-Encoding: gzip\r\n\r\n");
+		Exception exception = assertThrows(BadRequestException.class,
+				() -> httpRequestParserImpl.parseHttpRequest(httpMessage, "localhost"));
+		assertEquals("Unsupported Transfer-Encoding: gzip", exception.getMessage());
+	}
+
+	@Test
+	public void testContinueIsSentWhenBodyIsRead() throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		RequestInputStream in = new RequestInputStream(new SequenceInputStream(
+				this.getStringStream("POST /upload HTTP/1.1\r\nExpect: 100-continue\r\nContent-Length: 4\r\n\r\n"),
+				this.getStringStream("data")));
+		in.setContinueTarget(out);
+
+		HttpRequest request = httpRequestParserImpl.parseHttpRequest(in, "localhost");
+		assertEquals(0, out.size());
+		assertTrue(in.isContinuePending());
+
+		assertEquals("data", IOUtils.toString(request.getBody(), StandardCharsets.UTF_8));
+		assertEquals("HTTP/1.1 100 Continue\r\n\r\n", out.toString("ISO-8859-1"));
+	}
+
+	@Test
+	public void testUnsupportedExpectation() {
+		InputStream httpMessage = this.getStringStream(
+				"POST /upload HTTP/1.1\r\nExpect: something\r\nContent-Length: 4\r\n\r\ndata");
+		ExpectationFailedException exception = assertThrows(ExpectationFailedException.class,
+				() -> httpRequestParserImpl.parseHttpRequest(httpMessage, "localhost"));
+		assertEquals(417, exception.getStatusCode());
+	}
+
+	@Test
+	public void testFragmentedRequest() throws IOException {
+		byte[] message = "GET /index.html HTTP/1.1\r\nHost: localhost\r\n\r\n".getBytes(StandardCharsets.UTF_8);
+		InputStream oneByteAtATime = new ByteArrayInputStream(message) {
+			@Override
+			public synchronized int read(byte[] b, int off, int len) {
+				return super.read(b, off, Math.min(len, 1));
+			}
+		};
+		HttpRequest request = httpRequestParserImpl.parseHttpRequest(oneByteAtATime, "localhost");
+		assertEquals("/index.html", request.getURI());
+		assertEquals("localhost", request.getHeaders().get("Host"));
+	}
+
+	private InputStream getStringStream(String message) {
+		return new ByteArrayInputStream(message.getBytes(StandardCharsets.UTF_8));
+	}
 }
@@ -2,21 +2,34 @@ package io.barhan.http_server.impl;
 
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
+import java.util.Collections;
 import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang.StringUtils;
 
 import org.junit.Before;
 import org.junit.Test;
 
 import io.barhan.http_server.HtmlTemplateManager;
+import io.barhan.http_server.HttpRequest;
 import io.barhan.http_server.HttpServerContext;
 import io.barhan.http_server.ServerInfo;
 import io.barhan.http_server.config.HttpResponseBuilder;
+import io.barhan.http_server.config.HttpResponseWriter;
 import io.barhan.http_server.config.HttpServerConfig;
 import io.barhan.http_server.config.ReadableHttpResponse;
 import io.barhan.http_server.utils.DataUtils;
@@ -24,11 +37,13 @@ import io.barhan.http_server.utils.DataUtils;
 public class HttpResponseBuilderImplTest {
 	private HttpResponseBuilder httpResponseBuilder;
 	private HttpServerConfig httpServerConfig;
+	private HttpRequest request;
 
 	@Before
 	public void before() {
 		this.httpServerConfig = mock(HttpServerConfig.class);
-		this.httpResponseBuilder = new HttpResponseBuilderImpl(this.httpServerConfig);
+		this.httpResponseBuilder = new HttpResponseBuilderImpl(this.httpServerConfig, null, new ResponseCompressor(6, 16));
+		this.request = mock(HttpRequest.class);
 		ServerInfo serverInfo = mock(ServerInfo.class);
 		when(this.httpServerConfig.getServerInfo()).thenReturn(serverInfo);
 		when(serverInfo.getName()).thenReturn("server-info-test");
@@ -51,7 +66,7 @@ public class HttpResponseBuilderImplTest {
 		ReadableHttpResponse response = this.httpResponseBuilder.buildNewHttpResponse();
 		response.setBody(content);
 
-		this.httpResponseBuilder.prepareHttpResponse(response, false);
+		this.httpResponseBuilder.prepareHttpResponse(this.request, response, false);
 
 		assertNotNull(response.getHeaders().get("Content-Length"));
 		assertEquals(String.valueOf(content.length()), response.getHeaders().get("Content-Length"));
@@ -64,7 +79,7 @@ public class HttpResponseBuilderImplTest {
 		ReadableHttpResponse response = this.httpResponseBuilder.buildNewHttpResponse();
 		response.setBody(content);
 
-		this.httpResponseBuilder.prepareHttpResponse(response, true);
+		this.httpResponseBuilder.prepareHttpResponse(this.request, response, true);
 
 		assertNotNull(response.getHeaders().get("Content-Length"));
 		assertEquals("7", response.getHeaders().get("Content-Length"));
@@ -78,7 +93,7 @@ public class HttpResponseBuilderImplTest {
 		response.setStatus(404);
 		response.setBody(content);
 
-		this.httpResponseBuilder.prepareHttpResponse(response, false);
+		this.httpResponseBuilder.prepareHttpResponse(this.request, response, false);
 
 		assertNotNull(response.getHeaders().get("Content-Length"));
 		assertEquals("7", response.getHeaders().get("Content-Length"));
@@ -99,10 +114,71 @@ public class HttpResponseBuilderImplTest {
 		ReadableHttpResponse response = this.httpResponseBuilder.buildNewHttpResponse();
 		response.setStatus(404);
 
-		this.httpResponseBuilder.prepareHttpResponse(response, false);
+		this.httpResponseBuilder.prepareHttpResponse(this.request, response, false);
 
 		assertNotNull(response.getHeaders().get("Content-Length"));
 		assertEquals("10", response.getHeaders().get("Content-Length"));
 		assertArrayEquals(content.getBytes(StandardCharsets.UTF_8), response.getBody());
 	}
+
+	@Test
+	public void testPrepareNotModified() {
+		ReadableHttpResponse response = this.httpResponseBuilder.buildNewHttpResponse();
+		response.setStatus(304);
+
+		this.httpResponseBuilder.prepareHttpResponse(this.request, response, false);
+
+		assertFalse(response.getHeaders().containsKey("Content-Length"));
+		assertFalse(response.getHeaders().containsKey("Content-Type"));
+		assertTrue(response.isBodyEmpty());
+	}
+
+	@Test
+	public void testPrepareCompressesBody() throws IOException {
+		String content = StringUtils.repeat("Compressible content. ", 100);
+		when(this.request.getHeaders()).thenReturn(Collections.singletonMap("Accept-Encoding", "gzip, deflate"));
+		ReadableHttpResponse response = this.httpResponseBuilder.buildNewHttpResponse();
+		response.setBody(content);
+
+		this.httpResponseBuilder.prepareHttpResponse(this.request, response, false);
+
+		assertEquals("gzip", response.getHeaders().get("Content-Encoding"));
+		assertEquals("Accept-Encoding", response.getHeaders().get("Vary"));
+		assertEquals(String.valueOf(response.getBody().length), response.getHeaders().get("Content-Length"));
+		assertEquals(content, IOUtils.toString(new GZIPInputStream(new ByteArrayInputStream(response.getBody())),
+				StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void testPrepareDoesNotCompressHeadResponse() {
+		when(this.request.getHeaders()).thenReturn(Collections.singletonMap("Accept-Encoding", "gzip"));
+		ReadableHttpResponse response = this.httpResponseBuilder.buildNewHttpResponse();
+		response.setBody(StringUtils.repeat("Compressible content. ", 100));
+
+		this.httpResponseBuilder.prepareHttpResponse(this.request, response, true);
+
+		assertFalse(response.getHeaders().containsKey("Content-Encoding"));
+		assertEquals("2200", response.getHeaders().get("Content-Length"));
+	}
+
+	@Test
+	public void testCommitHttpResponse() throws IOException {
+		HttpResponseWriter httpResponseWriter = mock(HttpResponseWriter.class);
+		when(this.httpServerConfig.getHttpResponseWriter()).thenReturn(httpResponseWriter);
+		when(this.request.getHeaders()).thenReturn(Collections.singletonMap("Accept-Encoding", "gzip"));
+		ReadableHttpResponse response = this.httpResponseBuilder.buildNewHttpResponse();
+		response.setHeader("Content-Length", 100);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		try (OutputStream body = this.httpResponseBuilder.commitHttpResponse(this.request, response, out)) {
+			body.write("streamed".getBytes(StandardCharsets.UTF_8));
+		}
+
+		verify(httpResponseWriter).writeHttpResponse(out, response);
+		assertFalse(response.getHeaders().containsKey("Content-Length"));
+		assertEquals("chunked", response.getHeaders().get("Transfer-Encoding"));
+		assertEquals("gzip", response.getHeaders().get("Content-Encoding"));
+		assertEquals("streamed", IOUtils.toString(new GZIPInputStream(new ByteArrayInputStream(
+				ResponseCompressorTest.decodeChunked(out.toByteArray()))), StandardCharsets.UTF_8));
+	}
 }
@@ -0,0 +1,45 @@
+package io.barhan.http_server.impl;
+
+import io.barhan.http_server.HandlerConfig;
+import io.barhan.http_server.HttpHandler;
+
+public class HttpRouterBenchmark {
+	private static final int WARMUP_ITERATIONS = 2000000;
+	private static final int ITERATIONS = 10000000;
+
+	public static void main(String[] args) {
+		HttpHandler handler = (context, request, response) -> {
+		};
+		HandlerConfig config = new HandlerConfig().addHandler("/info", handler).addHandler("/assets/*", handler);
+		for (int i = 0; i < 50; i++) {
+			config.addHandler("GET", "/api/resource" + i + "/{id}", handler);
+			config.addHandler("POST", "/api/resource" + i + "/{id}", handler);
+			config.addHandler("/api/resource" + i + "/{id}/items/{itemId}", handler);
+		}
+		HttpRouter router = new HttpRouter(config.toMap());
+		run(router, "static", "/info");
+		run(router, "param", "/api/resource42/12345");
+		run(router, "params", "/api/resource42/12345/items/67890");
+		run(router, "wildcard", "/assets/css/fonts/site.css");
+		run(router, "miss", "/images/logo/header.png");
+	}
+
+	private static void run(HttpRouter router, String name, String uri) {
+		match(router, uri, WARMUP_ITERATIONS);
+		long start = System.nanoTime();
+		int matched = match(router, uri, ITERATIONS);
+		long nanos = System.nanoTime() - start;
+		System.out.printf("%-8s %3d chars: %6.1f ns/lookup, %5.2f ns/char (%d matched)%n", name, uri.length(),
+				(double) nanos / ITERATIONS, (double) nanos / ITERATIONS / uri.length(), matched);
+	}
+
+	private static int match(HttpRouter router, String uri, int iterations) {
+		int matched = 0;
+		for (int i = 0; i < iterations; i++) {
+			if (router.match(uri, router.getCaptures()) != null) {
+				matched++;
+			}
+		}
+		return matched;
+	}
+}
@@ -0,0 +1,140 @@
+package io.barhan.http_server.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.util.Collections;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import io.barhan.http_server.HandlerConfig;
+import io.barhan.http_server.HttpHandler;
+import io.barhan.http_server.exception.HttpServerConfigException;
+
+public class HttpRouterTest {
+	private HttpHandler infoHandler;
+	private HttpHandler userHandler;
+	private HttpHandler createUserHandler;
+	private HttpHandler postHandler;
+	private HttpHandler assetsHandler;
+	private HttpRouter router;
+
+	@Before
+	public void before() {
+		this.infoHandler = mock(HttpHandler.class);
+		this.userHandler = mock(HttpHandler.class);
+		this.createUserHandler = mock(HttpHandler.class);
+		this.postHandler = mock(HttpHandler.class);
+		this.assetsHandler = mock(HttpHandler.class);
+		this.router = new HttpRouter(new HandlerConfig().addHandler("/info", this.infoHandler)
+				.addHandler("GET", "/api/users/{id}", this.userHandler)
+				.addHandler("POST", "/api/users/{id}", this.createUserHandler)
+				.addHandler("/api/users/{id}/posts/{postId}", this.postHandler)
+				.addHandler("/assets/*", this.assetsHandler).toMap());
+	}
+
+	@Test
+	public void testStaticRoute() {
+		HttpRouter.Route route = this.match("/info");
+
+		assertSame(this.infoHandler, route.getHandler("GET"));
+		assertSame(this.infoHandler, route.getHandler("POST"));
+		assertTrue(route.getParams("/info", this.router.getCaptures()).isEmpty());
+	}
+
+	@Test
+	public void testQueryStringIsIgnored() {
+		assertSame(this.infoHandler, this.match("/info?verbose=true").getHandler("GET"));
+	}
+
+	@Test
+	public void testParams() {
+		int[] captures = this.router.getCaptures();
+		HttpRouter.Route route = this.router.match("/api/users/42/posts/7", captures);
+
+		assertSame(this.postHandler, route.getHandler("GET"));
+		Map<String, String> params = route.getParams("/api/users/42/posts/7", captures);
+		assertEquals("42", params.get("id"));
+		assertEquals("7", params.get("postId"));
+	}
+
+	@Test
+	public void testMethodDispatch() {
+		HttpRouter.Route route = this.match("/api/users/42");
+
+		assertSame(this.userHandler, route.getHandler("GET"));
+		assertSame(this.userHandler, route.getHandler("HEAD"));
+		assertSame(this.createUserHandler, route.getHandler("POST"));
+		assertNull(route.getHandler("PUT"));
+		assertEquals("GET, POST, HEAD", route.getAllow());
+	}
+
+	@Test
+	public void testWildcard() {
+		int[] captures = this.router.getCaptures();
+		HttpRouter.Route route = this.router.match("/assets/css/site.css", captures);
+
+		assertSame(this.assetsHandler, route.getHandler("GET"));
+		assertEquals("css/site.css", route.getParams("/assets/css/site.css", captures).get(HttpRouter.WILDCARD));
+		assertSame(this.assetsHandler, this.match("/assets").getHandler("GET"));
+	}
+
+	@Test
+	public void testStaticSegmentWinsOverParam() {
+		HttpHandler meHandler = mock(HttpHandler.class);
+		this.router = new HttpRouter(new HandlerConfig().addHandler("/api/users/{id}", this.userHandler)
+				.addHandler("/api/users/me", meHandler).addHandler("/api/users/me/{tab}", this.postHandler).toMap());
+
+		assertSame(meHandler, this.match("/api/users/me").getHandler("GET"));
+		assertSame(this.userHandler, this.match("/api/users/you").getHandler("GET"));
+		assertSame(this.postHandler, this.match("/api/users/me/settings").getHandler("GET"));
+	}
+
+	@Test
+	public void testManyStaticSiblings() {
+		HandlerConfig handlerConfig = new HandlerConfig();
+		HttpHandler[] handlers = new HttpHandler[100];
+		for (int i = 0; i < handlers.length; i++) {
+			handlers[i] = mock(HttpHandler.class);
+			handlerConfig.addHandler("/page" + i, handlers[i]);
+		}
+		this.router = new HttpRouter(handlerConfig.toMap());
+
+		for (int i = 0; i < handlers.length; i++) {
+			assertSame(handlers[i], this.match("/page" + i).getHandler("GET"));
+		}
+		assertNull(this.match("/page100"));
+		assertNull(this.match("/Aa"));
+	}
+
+	@Test
+	public void testNoMatch() {
+		assertNull(this.match("/index.html"));
+		assertNull(this.match("/api/users"));
+		assertNull(this.match("/api/users/"));
+		assertNull(this.match("/api/users/42/comments"));
+		assertNull(this.match(null));
+		assertNull(new HttpRouter(Collections.emptyMap()).match("/", new int[2]));
+	}
+
+	@Test
+	public void testInvalidRoute() {
+		assertThrows(HttpServerConfigException.class,
+				() -> new HttpRouter(new HandlerConfig().addHandler("info", this.infoHandler).toMap()));
+		assertThrows(HttpServerConfigException.class,
+				() -> new HttpRouter(new HandlerConfig().addHandler("/*/info", this.infoHandler).toMap()));
+		assertThrows(HttpServerConfigException.class,
+				() -> new HttpRouter(new HandlerConfig().addHandler("/users/{id}", this.userHandler)
+						.addHandler("/users/{userId}", this.userHandler).toMap()));
+	}
+
+	private HttpRouter.Route match(String uri) {
+		return this.router.match(uri, this.router.getCaptures());
+	}
+}
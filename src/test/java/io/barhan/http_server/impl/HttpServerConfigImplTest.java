@@ -2,6 +2,7 @@ package io.barhan.http_server.impl;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThrows;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
@@ -109,7 +110,97 @@ public class HttpServerConfigImplTest {
 			this.httpServerConfig = spy(new HttpServerConfigImpl(null, props));
 		});
 
-		assertEquals("server.thread.count should be >= 0, where 0 is UNLIMITED threads", exception.getMessage());
+		assertEquals("server.thread.count should be >= 0, where 0 is derived from the CPU count", exception.getMessage());
+	}
+
+	@Test
+	public void testConnectorProperties() {
+		assertEquals("blocking", this.httpServerConfig.getConnectorType());
+		assertEquals("platform", this.httpServerConfig.getThreadMode());
+		assertEquals(1000, this.httpServerConfig.getWorkerQueueCapacity());
+		assertEquals(100, this.httpServerConfig.getAcceptPause());
+		assertEquals(1, this.httpServerConfig.getRetryAfter());
+		assertNotNull(this.httpServerConfig.getWorkerPoolMetrics());
+		assertEquals(1, this.httpServerConfig.getSelectorCount());
+		assertEquals(30000, this.httpServerConfig.getSocketTimeout());
+		assertTrue(this.httpServerConfig.isTcpNoDelay());
+		assertEquals(100, this.httpServerConfig.getKeepAliveMaxRequests());
+		assertEquals(5000, this.httpServerConfig.getKeepAliveTimeout());
+	}
+
+	@Test
+	public void testInvalidConnector() {
+		Properties props = new Properties();
+		props.setProperty("server.connector", "epoll");
+
+		Exception exception = assertThrows(HttpServerConfigException.class, () -> {
+			spy(new HttpServerConfigImpl(null, props));
+		});
+
+		assertEquals("server.connector should be one of [blocking, nio], but was epoll", exception.getMessage());
+	}
+
+	@Test
+	public void testInvalidThreadMode() {
+		Properties props = new Properties();
+		props.setProperty("server.thread.mode", "green");
+
+		Exception exception = assertThrows(HttpServerConfigException.class, () -> {
+			spy(new HttpServerConfigImpl(null, props));
+		});
+
+		assertEquals("server.thread.mode should be one of [platform, virtual], but was green", exception.getMessage());
+	}
+
+	@Test
+	public void testInvalidKeepAliveMaxRequests() {
+		Properties props = new Properties();
+		props.setProperty("server.keep-alive.max-requests", "0");
+
+		Exception exception = assertThrows(HttpServerConfigException.class, () -> {
+			spy(new HttpServerConfigImpl(null, props));
+		});
+
+		assertEquals("server.keep-alive.max-requests should be > 0", exception.getMessage());
+	}
+
+	@Test
+	public void testInvalidMaxHeaderSize() {
+		Properties props = new Properties();
+		props.setProperty("server.request.max-header-size", "0");
+
+		Exception exception = assertThrows(HttpServerConfigException.class, () -> {
+			spy(new HttpServerConfigImpl(null, props));
+		});
+
+		assertEquals("server.request.max-header-size should be > 0", exception.getMessage());
+	}
+
+	@Test
+	public void testInvalidCompressionLevel() {
+		Properties props = new Properties();
+		props.setProperty("server.compression.level", "10");
+
+		Exception exception = assertThrows(HttpServerConfigException.class, () -> {
+			spy(new HttpServerConfigImpl(null, props));
+		});
+
+		assertEquals("server.compression.level should be between 0 and 9", exception.getMessage());
+	}
+
+	@Test
+	public void testPipelineExecutor() {
+		assertNull(new HttpServerConfigImpl(null, null).getPipelineExecutor());
+
+		Properties props = new Properties();
+		props.setProperty("server.pipelining.parallelism", "2");
+		assertNotNull(new HttpServerConfigImpl(null, props).getPipelineExecutor());
+
+		props.setProperty("server.pipelining.parallelism", "-1");
+		Exception exception = assertThrows(HttpServerConfigException.class, () -> {
+			new HttpServerConfigImpl(null, props);
+		});
+		assertEquals("server.pipelining.parallelism should be >= 0", exception.getMessage());
 	}
 
 	@Test
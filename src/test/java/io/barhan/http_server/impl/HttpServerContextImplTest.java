@@ -35,7 +35,7 @@ public class HttpServerContextImplTest {
 	@Test
 	public void testGetRootPath() {
 		this.httpServerContext.getRootPath();
-		verify(this.httpServerConfig).createRootPath();
+		verify(this.httpServerConfig).getRootPath();
 	}
 
 	@Test
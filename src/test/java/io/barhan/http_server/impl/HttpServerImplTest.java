@@ -13,12 +13,13 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.net.ServerSocket;
 import java.net.Socket;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.LinkedBlockingQueue;
-import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
@@ -29,6 +30,7 @@ import org.junit.Test;
 import io.barhan.http_server.ServerInfo;
 import io.barhan.http_server.config.HttpClientSocketHandler;
 import io.barhan.http_server.config.HttpServerConfig;
+import io.barhan.http_server.exception.HttpServerConfigException;
 import io.barhan.http_server.exception.HttpServerException;
 
 public class HttpServerImplTest {
@@ -114,6 +116,51 @@ public class HttpServerImplTest {
 		verify(this.executorService).submit(httpClientSocketHandler);
 	}
 
+	@Test
+	public void testClientConnectionRejected() throws Exception {
+		final Runnable[] run = new Runnable[1];
+		when(this.httpServerConfig.getStatusMessage(503)).thenReturn("Service Unavailable");
+		when(this.httpServerConfig.getRetryAfter()).thenReturn(2);
+		this.httpServer = new HttpServerImpl(this.httpServerConfig) {
+			@Override
+			protected ExecutorService createExecutorService() {
+				return executorService;
+			}
+
+			@Override
+			protected Thread createMainServerThread(Runnable r) {
+				return mainServerThread;
+			}
+
+			@Override
+			protected ServerSocket createServerSocket() {
+				return serverSocket;
+			}
+
+			@Override
+			protected Runnable createServerRunnable() {
+				Runnable r = super.createServerRunnable();
+				run[0] = r;
+				return r;
+			}
+		};
+
+		when(this.mainServerThread.isInterrupted()).thenReturn(false).thenReturn(true);
+		Socket clientSocket = mock(Socket.class);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		when(clientSocket.getOutputStream()).thenReturn(out);
+		when(this.serverSocket.accept()).thenReturn(clientSocket);
+		HttpClientSocketHandler httpClientSocketHandler = mock(HttpClientSocketHandler.class);
+		when(this.httpServerConfig.buildNewHttpClientSocketHandler(clientSocket)).thenReturn(httpClientSocketHandler);
+		when(this.executorService.submit(httpClientSocketHandler)).thenThrow(new RejectedExecutionException());
+
+		run[0].run();
+
+		assertEquals("HTTP/1.1 503 Service Unavailable\r\nRetry-After: 2\r\nContent-Length: 0\r\nConnection: close\r\n\r\n",
+				out.toString("US-ASCII"));
+		verify(clientSocket).close();
+	}
+
 	@Test
 	public void testClientConnectionDispatcherFailed() throws Exception {
 		final Runnable[] run = new Runnable[1];
@@ -152,7 +199,7 @@ public class HttpServerImplTest {
 	}
 
 	@Test
-	public void testCreateCachedExecutorService() throws Exception {
+	public void testCreateDefaultExecutorService() throws Exception {
 		ThreadFactory threadFactory = mock(ThreadFactory.class);
 		when(this.httpServerConfig.getWorkerThreadFactory()).thenReturn(threadFactory);
 		ServerInfo serverInfo = mock(ServerInfo.class);
@@ -177,11 +224,11 @@ public class HttpServerImplTest {
 		};
 
 		ThreadPoolExecutor executorService = (ThreadPoolExecutor) this.httpServer.createExecutorService();
-		assertEquals(0, executorService.getCorePoolSize());
-		assertEquals(Integer.MAX_VALUE, executorService.getMaximumPoolSize());
-		assertEquals(60, executorService.getKeepAliveTime(TimeUnit.SECONDS));
+		int threadCount = Runtime.getRuntime().availableProcessors() * AbstractHttpServer.PLATFORM_THREADS_PER_CPU;
+		assertTrue(executorService instanceof WorkerExecutor);
+		assertEquals(threadCount, executorService.getCorePoolSize());
+		assertEquals(threadCount, executorService.getMaximumPoolSize());
 		assertSame(threadFactory, executorService.getThreadFactory());
-		assertTrue(executorService.getQueue() instanceof SynchronousQueue);
 	}
 
 	@Test
@@ -217,6 +264,39 @@ public class HttpServerImplTest {
 		assertTrue(executorService.getQueue() instanceof LinkedBlockingQueue);
 	}
 
+	@Test
+	public void testCreateVirtualExecutorService() throws Exception {
+		when(this.httpServerConfig.getThreadMode()).thenReturn("virtual");
+
+		if (VirtualThreadExecutors.isSupported()) {
+			this.httpServer = this.createHttpServer();
+			ExecutorService executorService = this.httpServer.getExecutorService();
+			assertEquals("done", executorService.submit(() -> "done").get());
+			executorService.shutdown();
+		} else {
+			assertThrows(HttpServerConfigException.class, () -> this.createHttpServer());
+		}
+	}
+
+	private HttpServerImpl createHttpServer() {
+		return new HttpServerImpl(this.httpServerConfig) {
+			@Override
+			protected Thread createMainServerThread(Runnable r) {
+				return mainServerThread;
+			}
+
+			@Override
+			protected ServerSocket createServerSocket() {
+				return serverSocket;
+			}
+
+			@Override
+			protected Runnable createServerRunnable() {
+				return mock(Runnable.class);
+			}
+		};
+	}
+
 	@Test
 	public void testStartSuccess() {
 		when(this.mainServerThread.getState()).thenReturn(Thread.State.NEW);
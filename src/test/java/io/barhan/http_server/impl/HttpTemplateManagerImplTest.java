@@ -4,6 +4,8 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertThrows;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.io.ByteArrayInputStream;
@@ -67,4 +69,27 @@ public class HttpTemplateManagerImplTest {
 		assertEquals(HttpServerException.class, exception.getClass());
 		assertEquals("Cannot load template: io-error", exception.getMessage());
 	}
+
+	@Test
+	public void testTemplateIsCompiledOnce() {
+		setTemplate("test", "${PARAM1}!");
+
+		assertEquals("1!", this.htmlTemplateManager.processTemplate("test",
+				DataUtils.buildMap(new Object[][] { { "PARAM1", 1 } })));
+		assertEquals("2!", this.htmlTemplateManager.processTemplate("test",
+				DataUtils.buildMap(new Object[][] { { "PARAM1", 2 } })));
+
+		verify(this.htmlTemplateManager, times(1)).getClasspathResource("html/templates/test");
+	}
+
+	@Test
+	public void testPreloadBundledTemplates() {
+		this.htmlTemplateManager.preloadTemplates();
+
+		for (String templateName : HtmlTemplateManagerImpl.BUNDLED_TEMPLATES) {
+			verify(this.htmlTemplateManager).getClasspathResource("html/templates/" + templateName);
+		}
+		this.htmlTemplateManager.processTemplate("error.html", new HashMap<String, Object>());
+		verify(this.htmlTemplateManager).getClasspathResource("html/templates/error.html");
+	}
 }
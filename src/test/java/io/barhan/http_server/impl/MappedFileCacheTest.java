@@ -0,0 +1,145 @@
+package io.barhan.http_server.impl;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class MappedFileCacheTest {
+	private Path root;
+	private WebRootWatcher watcher;
+	private MappedFileCache cache;
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Before
+	public void before() throws IOException {
+		this.root = this.folder.newFolder("root").toPath().toRealPath();
+		this.watcher = new WebRootWatcher(this.root);
+		this.cache = new MappedFileCache(1000, 5000, this.watcher);
+	}
+
+	@After
+	public void after() throws IOException {
+		this.watcher.close();
+	}
+
+	private byte[] createFile(String name, int size) throws IOException {
+		byte[] content = new byte[size];
+		new Random(size).nextBytes(content);
+		Files.write(this.root.resolve(name), content);
+		return content;
+	}
+
+	private byte[] write(ResponseBody body) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (ResponseBody b = body) {
+			b.writeTo(out);
+		}
+		return out.toByteArray();
+	}
+
+	@Test
+	public void testSmallFileNotMapped() throws IOException {
+		this.createFile("small.bin", 999);
+
+		assertNull(this.cache.createBody(this.root.resolve("small.bin"), 999));
+		assertEquals(0, this.cache.getMappedSize());
+	}
+
+	@Test
+	public void testFileOutsideRootNotMapped() throws IOException {
+		Path file = this.folder.newFile("outside.bin").toPath();
+		Files.write(file, new byte[2000]);
+
+		assertNull(this.cache.createBody(file, 2000));
+	}
+
+	@Test
+	public void testSharedMapping() throws IOException {
+		byte[] content = this.createFile("large.bin", 3000);
+		Path path = this.root.resolve("large.bin");
+
+		ResponseBody first = this.cache.createBody(path, content.length);
+		ResponseBody second = this.cache.createBody(path, content.length);
+
+		assertEquals(3000, first.getLength());
+		assertEquals(3000, this.cache.getMappedSize());
+		assertArrayEquals(content, this.write(first));
+		assertArrayEquals(content, this.write(second));
+	}
+
+	@Test
+	public void testEvictLeastRecentlyUsed() throws IOException {
+		this.createFile("a.bin", 3000);
+		this.createFile("b.bin", 3000);
+
+		this.write(this.cache.createBody(this.root.resolve("a.bin"), 3000));
+		this.write(this.cache.createBody(this.root.resolve("b.bin"), 3000));
+
+		assertEquals(3000, this.cache.getMappedSize());
+	}
+
+	@Test
+	public void testRemapChangedFile() throws IOException {
+		Path path = this.root.resolve("large.bin");
+		this.createFile("large.bin", 3000);
+		this.write(this.cache.createBody(path, 3000));
+
+		byte[] content = this.createFile("large.bin", 4000);
+		ResponseBody body = this.cache.createBody(path, 4000);
+
+		assertArrayEquals(content, this.write(body));
+		assertTrue(this.cache.getMappedSize() <= 4000);
+	}
+
+	@Test
+	public void testInvalidate() throws IOException {
+		this.createFile("large.bin", 3000);
+		this.write(this.cache.createBody(this.root.resolve("large.bin"), 3000));
+
+		this.cache.invalidate(this.root);
+
+		assertEquals(0, this.cache.getMappedSize());
+	}
+
+	@Test
+	public void testReleaseAfterLastReference() throws IOException {
+		this.createFile("large.bin", 3000);
+		MappedFile file = MappedFile.map(this.root.resolve("large.bin"), 3000, FileTime.fromMillis(0));
+		file.retain();
+
+		file.release();
+		assertFalse(file.isReleased());
+		file.release();
+		assertTrue(file.isReleased());
+	}
+
+	@Test
+	public void testSlice() throws IOException {
+		byte[] content = this.createFile("large.bin", 2000);
+		ResponseBody body = this.cache.createBody(this.root.resolve("large.bin"), 2000);
+
+		ResponseBody slice = body.slice(100, 50);
+		body.close();
+
+		assertEquals(50, slice.getLength());
+		assertArrayEquals(Arrays.copyOfRange(content, 100, 150), this.write(slice));
+	}
+}
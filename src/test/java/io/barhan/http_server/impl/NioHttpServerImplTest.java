@@ -0,0 +1,274 @@
+package io.barhan.http_server.impl;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Random;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import io.barhan.http_server.HandlerConfig;
+
+public class NioHttpServerImplTest {
+	private NioHttpServerImpl httpServer;
+	private int port;
+	private Path file;
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Before
+	public void before() throws IOException {
+		Properties props = new Properties();
+		props.setProperty("server.port", "0");
+		props.setProperty("server.thread.count", "2");
+		props.setProperty("server.connector", "nio");
+		props.setProperty("server.connector.selector.count", "2");
+		props.setProperty("server.pipelining.parallelism", "2");
+		this.file = this.folder.newFile("large.bin").toPath();
+		byte[] content = new byte[4 * 1024 * 1024];
+		new Random(1).nextBytes(content);
+		Files.write(this.file, content);
+		HandlerConfig handlerConfig = new HandlerConfig()
+				.addHandler("/test", (context, request, response) -> response.setBody("nio:" + request.getParams().get("id")))
+				.addHandler("/file", (context, request, response) -> response.setBody(this.file))
+				.addHandler("/stream", (context, request, response) -> response
+						.setBody(new ByteArrayInputStream("streamed".getBytes(StandardCharsets.UTF_8))))
+				.addHandler("/export", (context, request, response) -> {
+					Writer writer = response.getWriter();
+					for (int i = 0; i < 10000; i++) {
+						writer.write("row-" + i + "\n");
+					}
+				});
+		this.httpServer = new NioHttpServerImpl(new HttpServerConfigImpl(handlerConfig, props));
+		this.httpServer.start();
+		this.port = this.httpServer.getLocalPort();
+	}
+
+	@After
+	public void after() throws IOException {
+		this.httpServer.closeServerSocket();
+		this.httpServer.destroyHttpServer();
+	}
+
+	private String send(Socket socket, String request) throws IOException {
+		OutputStream out = socket.getOutputStream();
+		out.write(request.getBytes(StandardCharsets.UTF_8));
+		out.flush();
+		try (InputStream in = socket.getInputStream()) {
+			return IOUtils.toString(in, StandardCharsets.UTF_8);
+		}
+	}
+
+	@Test
+	public void testHandleRequest() throws IOException {
+		try (Socket socket = new Socket("localhost", this.port)) {
+			String response = this.send(socket,
+					"GET /test?id=1 HTTP/1.1\r\nHost: localhost\r\nConnection: close\r\n\r\n");
+
+			assertTrue(response.startsWith("HTTP/1.1 200 OK"));
+			assertTrue(response.endsWith("nio:1"));
+		}
+	}
+
+	@Test
+	public void testIdleConnectionsDoNotHoldWorkers() throws IOException {
+		List<Socket> sockets = new ArrayList<>();
+		try {
+			for (int i = 0; i < 50; i++) {
+				sockets.add(new Socket("localhost", this.port));
+			}
+			for (int i = sockets.size() - 1; i >= 0; i--) {
+				String response = this.send(sockets.get(i),
+						"GET /test?id=" + i + " HTTP/1.1\r\nConnection: close\r\n\r\n");
+				assertTrue(response.endsWith("nio:" + i));
+			}
+		} finally {
+			for (Socket socket : sockets) {
+				socket.close();
+			}
+		}
+	}
+
+	@Test
+	public void testPartialHeadsDoNotHoldWorkers() throws IOException {
+		List<Socket> sockets = new ArrayList<>();
+		try {
+			for (int i = 0; i < 4; i++) {
+				Socket socket = new Socket("localhost", this.port);
+				socket.getOutputStream().write(("GET /test?id=" + i + " HTTP/1.1\r\nHost:")
+						.getBytes(StandardCharsets.UTF_8));
+				socket.getOutputStream().flush();
+				sockets.add(socket);
+			}
+			try (Socket socket = new Socket("localhost", this.port)) {
+				socket.setSoTimeout(5000);
+				String response = this.send(socket, "GET /test?id=full HTTP/1.1\r\nConnection: close\r\n\r\n");
+				assertTrue(response.endsWith("nio:full"));
+			}
+			for (int i = 0; i < sockets.size(); i++) {
+				String response = this.send(sockets.get(i), " localhost\r\nConnection: close\r\n\r\n");
+				assertTrue(response.endsWith("nio:" + i));
+			}
+		} finally {
+			for (Socket socket : sockets) {
+				socket.close();
+			}
+		}
+	}
+
+	@Test
+	public void testKeepAlive() throws IOException {
+		try (Socket socket = new Socket("localhost", this.port)) {
+			OutputStream out = socket.getOutputStream();
+			InputStream in = socket.getInputStream();
+			for (int i = 0; i < 3; i++) {
+				String request = "GET /test?id=" + i + " HTTP/1.1\r\nHost: localhost\r\n\r\n";
+				out.write(request.getBytes(StandardCharsets.UTF_8));
+				out.flush();
+				Map<String, String> headers = this.readHead(in);
+				assertEquals("keep-alive", headers.get("Connection"));
+				assertEquals("nio:" + i, this.readBody(in, Integer.parseInt(headers.get("Content-Length"))));
+			}
+			String response = this.send(socket, "GET /test?id=last HTTP/1.1\r\nConnection: close\r\n\r\n");
+			assertTrue(response.contains("Connection: close"));
+			assertTrue(response.endsWith("nio:last"));
+		}
+	}
+
+	@Test
+	public void testPipelining() throws IOException {
+		try (Socket socket = new Socket("localhost", this.port)) {
+			OutputStream out = socket.getOutputStream();
+			InputStream in = socket.getInputStream();
+			StringBuilder requests = new StringBuilder();
+			for (int i = 0; i < 5; i++) {
+				requests.append("GET /test?id=").append(i).append(" HTTP/1.1\r\nHost: localhost\r\n\r\n");
+			}
+			out.write(requests.toString().getBytes(StandardCharsets.UTF_8));
+			out.flush();
+			for (int i = 0; i < 5; i++) {
+				Map<String, String> headers = this.readHead(in);
+				assertEquals("nio:" + i, this.readBody(in, Integer.parseInt(headers.get("Content-Length"))));
+			}
+		}
+	}
+
+	@Test
+	public void testFileTransfer() throws IOException {
+		try (Socket socket = new Socket("localhost", this.port)) {
+			OutputStream out = socket.getOutputStream();
+			InputStream in = socket.getInputStream();
+			for (int i = 0; i < 2; i++) {
+				out.write("GET /file HTTP/1.1\r\nHost: localhost\r\n\r\n".getBytes(StandardCharsets.UTF_8));
+				out.flush();
+				Map<String, String> headers = this.readHead(in);
+				byte[] body = new byte[Integer.parseInt(headers.get("Content-Length"))];
+				IOUtils.readFully(in, body);
+				assertArrayEquals(Files.readAllBytes(this.file), body);
+			}
+		}
+	}
+
+	@Test
+	public void testStreamWithoutLengthClosesConnection() throws IOException {
+		try (Socket socket = new Socket("localhost", this.port)) {
+			String response = this.send(socket, "GET /stream HTTP/1.1\r\nHost: localhost\r\n\r\n");
+
+			assertTrue(response.contains("Connection: close"));
+			assertFalse(response.contains("Content-Length"));
+			assertTrue(response.endsWith("streamed"));
+		}
+	}
+
+	@Test
+	public void testChunkedOutput() throws IOException {
+		try (Socket socket = new Socket("localhost", this.port)) {
+			OutputStream out = socket.getOutputStream();
+			InputStream in = socket.getInputStream();
+			out.write("GET /export HTTP/1.1\r\nHost: localhost\r\n\r\n".getBytes(StandardCharsets.UTF_8));
+			out.flush();
+			Map<String, String> headers = this.readHead(in);
+			assertEquals("chunked", headers.get("Transfer-Encoding"));
+			assertEquals("keep-alive", headers.get("Connection"));
+			assertFalse(headers.containsKey("Content-Length"));
+			StringBuilder body = new StringBuilder();
+			int size;
+			while ((size = Integer.parseInt(this.readLine(in), 16)) > 0) {
+				body.append(this.readBody(in, size));
+				assertEquals("", this.readLine(in));
+			}
+			assertEquals("", this.readLine(in));
+			StringBuilder expected = new StringBuilder();
+			for (int i = 0; i < 10000; i++) {
+				expected.append("row-").append(i).append('\n');
+			}
+			assertEquals(expected.toString(), body.toString());
+
+			String response = this.send(socket, "GET /test?id=after HTTP/1.1\r\nConnection: close\r\n\r\n");
+			assertTrue(response.endsWith("nio:after"));
+		}
+	}
+
+	private Map<String, String> readHead(InputStream in) throws IOException {
+		Map<String, String> headers = new HashMap<>();
+		String line = this.readLine(in);
+		assertTrue(line.startsWith("HTTP/1.1 200"));
+		while (!(line = this.readLine(in)).isEmpty()) {
+			int index = line.indexOf(':');
+			headers.put(line.substring(0, index), line.substring(index + 1).trim());
+		}
+		return headers;
+	}
+
+	private String readLine(InputStream in) throws IOException {
+		StringBuilder line = new StringBuilder();
+		int ch;
+		while ((ch = in.read()) != '\n') {
+			if (ch == -1) {
+				throw new EOFException();
+			}
+			if (ch != '\r') {
+				line.append((char) ch);
+			}
+		}
+		return line.toString();
+	}
+
+	private String readBody(InputStream in, int length) throws IOException {
+		byte[] body = new byte[length];
+		IOUtils.readFully(in, body);
+		return new String(body, StandardCharsets.UTF_8);
+	}
+
+	@Test
+	public void testBadRequest() throws IOException {
+		try (Socket socket = new Socket("localhost", this.port)) {
+			String response = this.send(socket, "PUT /test HTTP/1.1\r\n\r\n");
+
+			assertEquals("HTTP/1.1 405 Method Not Allowed", response.substring(0, response.indexOf("\r\n")));
+		}
+	}
+}
@@ -3,24 +3,37 @@ package io.barhan.http_server.impl;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThrows;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.Reader;
 import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.LinkedHashMap;
 import java.util.concurrent.TimeUnit;
 
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 import io.barhan.http_server.config.ReadableHttpResponse;
 import io.barhan.http_server.exception.HttpServerException;
@@ -28,6 +41,9 @@ import io.barhan.http_server.exception.HttpServerException;
 public class ReadableHttpResponseImplTest {
 	private ReadableHttpResponse httpResponse;
 
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
 	@Before
 	public void before() {
 		this.httpResponse = new ReadableHttpResponseImpl();
@@ -56,6 +72,23 @@ public class ReadableHttpResponseImplTest {
 		assertEquals("Content cannot be null!", exception.getMessage());
 	}
 
+	@Test
+	public void testSetBodyBytesNotNull() {
+		Exception exception = assertThrows(NullPointerException.class, () -> {
+			this.httpResponse.setBody((byte[]) null);
+		});
+
+		assertEquals("Content cannot be null!", exception.getMessage());
+	}
+
+	@Test
+	public void testBytesContent() {
+		byte[] content = "123".getBytes(StandardCharsets.UTF_8);
+		this.httpResponse.setBody(content);
+		assertEquals(3, this.httpResponse.getBodyLength());
+		assertSame(content, this.httpResponse.getBody());
+	}
+
 	@Test
 	public void testSetBodyInputStreamNotNull() {
 		Exception exception = assertThrows(NullPointerException.class, () -> {
@@ -93,16 +126,56 @@ public class ReadableHttpResponseImplTest {
 	}
 
 	@Test
-	public void testEmptyContentInputStream() {
-		ByteArrayInputStream in = new ByteArrayInputStream(new byte[] {});
+	public void testStreamContentInputStream() throws IOException {
+		ByteArrayInputStream in = new ByteArrayInputStream("stream".getBytes(StandardCharsets.UTF_8));
 		this.httpResponse.setBody(in);
-		assertTrue(this.httpResponse.isBodyEmpty());
+		assertEquals(-1, this.httpResponse.getBodyLength());
+		assertFalse(this.httpResponse.isBodyEmpty());
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		this.httpResponse.writeBody(out);
+		assertEquals("stream", out.toString("UTF-8"));
+	}
+
+	@Test
+	public void testStreamContentInputStreamWithLength() throws IOException {
+		ByteArrayInputStream in = new ByteArrayInputStream("stream".getBytes(StandardCharsets.UTF_8));
+		this.httpResponse.setBody(in, 3);
+		assertEquals(3, this.httpResponse.getBodyLength());
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		BatchOutputStream batchOut = new BatchOutputStream(out);
+		this.httpResponse.writeBody(batchOut);
+		batchOut.flush();
+		assertEquals("str", out.toString("UTF-8"));
+	}
+
+	@Test
+	public void testStreamContentShorterThanLength() {
+		ByteArrayInputStream in = new ByteArrayInputStream("stream".getBytes(StandardCharsets.UTF_8));
+		this.httpResponse.setBody(in, 10);
+
+		assertThrows(EOFException.class, () -> this.httpResponse.writeBody(new ByteArrayOutputStream()));
 	}
 
 	@Test
-	public void testEmptyContentReader() {
-		StringReader reader = new StringReader("");
+	public void testStreamContentReader() throws IOException {
+		StringReader reader = new StringReader("reader \u00e9");
 		this.httpResponse.setBody(reader);
+		assertEquals(-1, this.httpResponse.getBodyLength());
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		this.httpResponse.writeBody(out);
+		assertEquals("reader \u00e9", out.toString("UTF-8"));
+	}
+
+	@Test
+	public void testReplacedStreamIsClosed() throws IOException {
+		InputStream in = mock(InputStream.class);
+		this.httpResponse.setBody(in);
+		this.httpResponse.setBody("");
+
+		verify(in).close();
 		assertTrue(this.httpResponse.isBodyEmpty());
 	}
 
@@ -180,6 +253,16 @@ public class ReadableHttpResponseImplTest {
 		assertEquals("1594932497000", this.httpResponse.getHeaders().get("Test"));
 	}
 
+	@Test
+	public void testSetHeaderHttpDate() {
+		this.httpResponse.setHeader("Date", new Date(1594932497123L));
+		this.httpResponse.setHeader("Last-Modified", FileTime.fromMillis(1594932497000L));
+
+		assertEquals("Thu, 16 Jul 2020 20:48:17 GMT", this.httpResponse.getHeaders().get("Date"));
+		assertEquals("Thu, 16 Jul 2020 20:48:17 GMT", this.httpResponse.getHeaders().get("Last-Modified"));
+		assertSame(this.httpResponse.getHeaders().get("Date"), this.httpResponse.getHeaders().get("Last-Modified"));
+	}
+
 	@Test
 	public void testGetBody() {
 		this.httpResponse.setBody("A");
@@ -195,28 +278,172 @@ public class ReadableHttpResponseImplTest {
 	}
 
 	@Test
-	public void testSetBodyInputStreamIOException() throws IOException {
+	public void testWriteBodyInputStreamIOException() throws IOException {
 		final IOException cause = new IOException("Test");
 		InputStream in = mock(InputStream.class);
 		when(in.read(any(byte[].class))).thenThrow(cause);
+		when(in.read(any(byte[].class), anyInt(), anyInt())).thenThrow(cause);
+		this.httpResponse.setBody(in);
 
-		Exception exception = assertThrows(HttpServerException.class, () -> {
-			this.httpResponse.setBody(in);
+		Exception exception = assertThrows(IOException.class, () -> {
+			this.httpResponse.writeBody(new ByteArrayOutputStream());
 		});
 
-		assertEquals("Setting http response body from InputStream failed: Test", exception.getMessage());
+		assertEquals("Test", exception.getMessage());
+		verify(in).close();
 	}
 
 	@Test
-	public void testSetBodyInputReaderIOException() throws IOException {
+	public void testWriteBodyReaderIOException() throws IOException {
 		final IOException cause = new IOException("Test");
 		Reader reader = mock(Reader.class);
 		when(reader.read(any(char[].class))).thenThrow(cause);
+		when(reader.read(any(char[].class), anyInt(), anyInt())).thenThrow(cause);
+		this.httpResponse.setBody(reader);
+
+		Exception exception = assertThrows(IOException.class, () -> {
+			this.httpResponse.writeBody(new ByteArrayOutputStream());
+		});
+
+		assertEquals("Test", exception.getMessage());
+		verify(reader).close();
+	}
+
+	@Test
+	public void testSetBodyFile() throws IOException {
+		Path file = this.folder.newFile("body.txt").toPath();
+		Files.write(file, "file body".getBytes(StandardCharsets.UTF_8));
+
+		this.httpResponse.setBody(file);
+
+		assertEquals(9, this.httpResponse.getBodyLength());
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		this.httpResponse.writeBody(out);
+		assertEquals("file body", out.toString("UTF-8"));
+		assertThrows(HttpServerException.class, () -> this.httpResponse.getBody());
+	}
+
+	@Test
+	public void testSetBodyFileNotFound() {
+		Path file = this.folder.getRoot().toPath().resolve("not-found.txt");
 
 		Exception exception = assertThrows(HttpServerException.class, () -> {
-			this.httpResponse.setBody(reader);
+			this.httpResponse.setBody(file);
+		});
+
+		assertTrue(exception.getMessage().startsWith("Setting http response body from file failed: "));
+	}
+
+	@Test
+	public void testSmallOutputBecomesBody() throws IOException {
+		this.httpResponse.setCommitter(response -> {
+			throw new AssertionError("Small output should not be committed");
+		});
+		this.httpResponse.getWriter().write("small body");
+		this.httpResponse.closeOutput();
+
+		assertFalse(this.httpResponse.isCommitted());
+		assertEquals(10, this.httpResponse.getBodyLength());
+		assertArrayEquals("small body".getBytes(StandardCharsets.UTF_8), this.httpResponse.getBody());
+	}
+
+	@Test
+	public void testLargeOutputIsChunked() throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		this.httpResponse.setCommitter(response -> {
+			out.write("HEAD|".getBytes(StandardCharsets.US_ASCII));
+			return new ChunkedOutputStream(out);
 		});
+		byte[] data = new byte[10000];
+		Arrays.fill(data, (byte) 'x');
+		this.httpResponse.getOutputStream().write(data);
+		this.httpResponse.closeOutput();
+
+		assertTrue(this.httpResponse.isCommitted());
+		String expected = "HEAD|2000\r\n" + new String(data, 0, 8192, StandardCharsets.US_ASCII) + "\r\n710\r\n"
+				+ new String(data, 0, 1808, StandardCharsets.US_ASCII) + "\r\n0\r\n\r\n";
+		assertEquals(expected, out.toString("US-ASCII"));
+	}
 
-		assertEquals("Setting http response body from Reader failed: Test", exception.getMessage());
+	@Test
+	public void testOutputFlushCommits() throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		this.httpResponse.setCommitter(response -> new ChunkedOutputStream(out));
+		OutputStream outputStream = this.httpResponse.getOutputStream();
+		outputStream.write('a');
+		outputStream.flush();
+
+		assertTrue(this.httpResponse.isCommitted());
+		assertEquals("1\r\na\r\n", out.toString("US-ASCII"));
+	}
+
+	@Test
+	public void testOutputWithoutCommitterIsBuffered() throws IOException {
+		byte[] data = new byte[20000];
+		Arrays.fill(data, (byte) 'y');
+		this.httpResponse.getOutputStream().write(data);
+		this.httpResponse.getOutputStream().flush();
+		this.httpResponse.closeOutput();
+
+		assertFalse(this.httpResponse.isCommitted());
+		assertArrayEquals(data, this.httpResponse.getBody());
+	}
+
+	@Test
+	public void testLargeOutputWithoutCommitterSpillsToFile() throws IOException {
+		byte[] data = new byte[3 * 1024 * 1024 + 17];
+		for (int i = 0; i < data.length; i++) {
+			data[i] = (byte) i;
+		}
+		this.httpResponse.getOutputStream().write(data);
+		this.httpResponse.closeOutput();
+
+		ResponseBody body = ((ReadableHttpResponseImpl) this.httpResponse).getResponseBody();
+		assertTrue(body instanceof TempFileResponseBody);
+		Path spill = ((TempFileResponseBody) body).getPath();
+		assertEquals(data.length, this.httpResponse.getBodyLength());
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		this.httpResponse.writeBody(out);
+		assertArrayEquals(data, out.toByteArray());
+		assertFalse(Files.exists(spill));
+	}
+
+	@Test
+	public void testHeadersOnlyFileBody() throws IOException {
+		Path file = this.folder.newFile("file.bin").toPath();
+		Files.write(file, new byte[1234]);
+		this.httpResponse.setHeadersOnly(true);
+
+		this.httpResponse.setBody(file);
+
+		assertTrue(this.httpResponse.isHeadersOnly());
+		assertEquals(1234, this.httpResponse.getBodyLength());
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		this.httpResponse.writeBody(out);
+		assertEquals(0, out.size());
+	}
+
+	@Test
+	public void testHeadersOnlyStreamBodyIsClosedUnread() throws IOException {
+		InputStream in = mock(InputStream.class);
+		this.httpResponse.setHeadersOnly(true);
+
+		this.httpResponse.setBody(in, 100);
+
+		assertEquals(100, this.httpResponse.getBodyLength());
+		verify(in).close();
+		verify(in, never()).read(any(byte[].class), anyInt(), anyInt());
+	}
+
+	@Test
+	public void testHeadersOnlyOutputIsCounted() throws IOException {
+		this.httpResponse.setHeadersOnly(true);
+		byte[] data = new byte[20000];
+		this.httpResponse.getOutputStream().write(data);
+		this.httpResponse.getWriter().write("abc");
+		this.httpResponse.closeOutput();
+
+		assertFalse(this.httpResponse.isCommitted());
+		assertEquals(20003, this.httpResponse.getBodyLength());
 	}
 }
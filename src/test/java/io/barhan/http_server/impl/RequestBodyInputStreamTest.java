@@ -0,0 +1,61 @@
+package io.barhan.http_server.impl;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Test;
+
+public class RequestBodyInputStreamTest {
+	@Test
+	public void testReadIsBoundedByLength() throws IOException {
+		RequestInputStream in = this.stream("hello world");
+		InputStream body = in.openBody(new RequestBodyInputStream(in, 5), false);
+
+		assertEquals("hello", IOUtils.toString(body, StandardCharsets.UTF_8));
+		assertEquals(-1, body.read());
+		assertEquals(' ', in.read());
+	}
+
+	@Test
+	public void testBinaryBody() throws IOException {
+		byte[] data = { 0, (byte) 0xFF, (byte) 0xC3, 13, 10 };
+		RequestInputStream in = new RequestInputStream(new ByteArrayInputStream(data));
+
+		assertArrayEquals(data, IOUtils.toByteArray(in.openBody(new RequestBodyInputStream(in, data.length), false)));
+	}
+
+	@Test
+	public void testTruncatedBody() {
+		RequestInputStream in = this.stream("abc");
+		InputStream body = in.openBody(new RequestBodyInputStream(in, 10), false);
+
+		assertThrows(EOFException.class, () -> IOUtils.toByteArray(body));
+	}
+
+	@Test
+	public void testSkipBody() throws IOException {
+		RequestInputStream in = this.stream("0123456789next");
+		InputStream body = in.openBody(new RequestBodyInputStream(in, 10), false);
+		assertEquals('0', body.read());
+		assertTrue(in.hasPendingBody());
+
+		in.skipBody();
+
+		assertFalse(in.hasPendingBody());
+		assertEquals("next", IOUtils.toString(in, StandardCharsets.UTF_8));
+	}
+
+	private RequestInputStream stream(String content) {
+		return new RequestInputStream(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)));
+	}
+}
@@ -0,0 +1,62 @@
+package io.barhan.http_server.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class RequestHeadersTest {
+	private RequestHeaders headers;
+
+	@Before
+	public void before() {
+		HttpRequestDecoder decoder = new HttpRequestDecoder(8192, 10);
+		decoder.decode(ByteBuffer.wrap(("GET / HTTP/1.1\r\nhost: localhost\r\nCONTENT-TYPE: text/html\r\n"
+				+ "X-Name: Café\r\nX-Tag: a\r\nx-tag: b\r\n\r\n").getBytes(StandardCharsets.UTF_8)));
+		this.headers = (RequestHeaders) decoder.getHeaders();
+	}
+
+	@Test
+	public void testCaseInsensitiveGet() {
+		assertEquals("localhost", this.headers.get("Host"));
+		assertEquals("localhost", this.headers.get("HOST"));
+		assertEquals("text/html", this.headers.get("Content-Type"));
+		assertTrue(this.headers.containsKey("content-type"));
+		assertNull(this.headers.get("Accept"));
+		assertNull(this.headers.get(null));
+		assertFalse(this.headers.isEmpty());
+	}
+
+	@Test
+	public void testUtf8Value() {
+		assertEquals("Café", this.headers.get("X-Name"));
+	}
+
+	@Test
+	public void testLastValueWins() {
+		assertEquals("b", this.headers.get("X-Tag"));
+	}
+
+	@Test
+	public void testEntrySetUsesNormalizedNames() {
+		assertEquals(Arrays.asList("Host", "Content-Type", "X-Name", "X-Tag"),
+				Arrays.asList(this.headers.keySet().toArray()));
+		assertEquals(4, this.headers.size());
+		assertEquals("b", this.headers.entrySet().stream().filter(e -> "X-Tag".equals(e.getKey())).findFirst().get()
+				.getValue());
+	}
+
+	@Test
+	public void testUnmodifiable() {
+		assertThrows(UnsupportedOperationException.class, () -> this.headers.put("Host", "example.com"));
+		assertThrows(UnsupportedOperationException.class, () -> this.headers.clear());
+	}
+}
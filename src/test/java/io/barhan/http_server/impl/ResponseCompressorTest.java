@@ -0,0 +1,205 @@
+package io.barhan.http_server.impl;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang.StringUtils;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.barhan.http_server.HttpRequest;
+import io.barhan.http_server.config.ReadableHttpResponse;
+
+public class ResponseCompressorTest {
+	private static final String CONTENT = StringUtils.repeat("Hello, compressed world! ", 100);
+
+	private ResponseCompressor compressor;
+	private HttpRequest request;
+	private ReadableHttpResponse response;
+
+	@Before
+	public void before() {
+		this.compressor = new ResponseCompressor(6, 1024);
+		this.request = mock(HttpRequest.class);
+		when(this.request.getMethod()).thenReturn("GET");
+		this.response = new ReadableHttpResponseImpl();
+		this.response.setHeader("Content-Type", "text/html");
+		this.response.setBody(CONTENT);
+	}
+
+	@Test
+	public void testGzip() throws IOException {
+		this.acceptEncoding("deflate, gzip");
+
+		this.compressor.compress(this.request, this.response);
+
+		assertEquals("gzip", this.response.getHeaders().get("Content-Encoding"));
+		assertEquals("Accept-Encoding", this.response.getHeaders().get("Vary"));
+		assertEquals(CONTENT, this.read(new GZIPInputStream(new ByteArrayInputStream(this.response.getBody()))));
+	}
+
+	@Test
+	public void testDeflate() throws IOException {
+		this.acceptEncoding("gzip;q=0, deflate");
+
+		this.compressor.compress(this.request, this.response);
+
+		assertEquals("deflate", this.response.getHeaders().get("Content-Encoding"));
+		assertEquals(CONTENT, this.read(new InflaterInputStream(new ByteArrayInputStream(this.response.getBody()))));
+	}
+
+	@Test
+	public void testNotAccepted() {
+		this.acceptEncoding("br");
+
+		this.compressor.compress(this.request, this.response);
+
+		assertNull(this.response.getHeaders().get("Content-Encoding"));
+		assertEquals("Accept-Encoding", this.response.getHeaders().get("Vary"));
+		assertArrayEquals(CONTENT.getBytes(StandardCharsets.UTF_8), this.response.getBody());
+	}
+
+	@Test
+	public void testSmallBody() {
+		this.acceptEncoding("gzip");
+		this.response.setBody("small");
+
+		this.compressor.compress(this.request, this.response);
+
+		assertNull(this.response.getHeaders().get("Content-Encoding"));
+		assertNull(this.response.getHeaders().get("Vary"));
+	}
+
+	@Test
+	public void testNotCompressibleContentType() {
+		this.acceptEncoding("gzip");
+		this.response.setHeader("Content-Type", "image/png");
+
+		this.compressor.compress(this.request, this.response);
+
+		assertNull(this.response.getHeaders().get("Content-Encoding"));
+	}
+
+	@Test
+	public void testAlreadyEncoded() {
+		this.acceptEncoding("gzip");
+		this.response.setHeader("Content-Encoding", "br");
+
+		this.compressor.compress(this.request, this.response);
+
+		assertEquals("br", this.response.getHeaders().get("Content-Encoding"));
+		assertArrayEquals(CONTENT.getBytes(StandardCharsets.UTF_8), this.response.getBody());
+	}
+
+	@Test
+	public void testNotModifiedStatus() {
+		this.acceptEncoding("gzip");
+		this.response.setStatus(304);
+
+		this.compressor.compress(this.request, this.response);
+
+		assertNull(this.response.getHeaders().get("Content-Encoding"));
+	}
+
+	@Test
+	public void testDisabled() {
+		this.compressor = new ResponseCompressor(0, 1024);
+		this.acceptEncoding("gzip");
+
+		this.compressor.compress(this.request, this.response);
+
+		assertNull(this.response.getHeaders().get("Content-Encoding"));
+	}
+
+	@Test
+	public void testETagAndVary() {
+		this.acceptEncoding("gzip");
+		this.response.setHeader("ETag", "\"abc-10\"");
+		this.response.setHeader("Vary", "Cookie");
+
+		this.compressor.compress(this.request, this.response);
+
+		assertEquals("\"abc-10-gzip\"", this.response.getHeaders().get("Etag"));
+		assertEquals("Cookie, Accept-Encoding", this.response.getHeaders().get("Vary"));
+	}
+
+	@Test
+	public void testCommittedStream() throws IOException {
+		this.acceptEncoding("gzip");
+		this.response.setBody("");
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		String encoding = this.compressor.negotiateCommitted(this.request, this.response);
+		try (OutputStream body = this.compressor.createOutputStream(new ChunkedOutputStream(out), encoding)) {
+			body.write("first ".getBytes(StandardCharsets.UTF_8));
+			body.flush();
+			body.write("second".getBytes(StandardCharsets.UTF_8));
+		}
+
+		assertEquals("gzip", this.response.getHeaders().get("Content-Encoding"));
+		assertEquals("first second",
+				this.read(new GZIPInputStream(new ByteArrayInputStream(decodeChunked(out.toByteArray())))));
+	}
+
+	@Test
+	public void testDeflatersArePooled() throws IOException {
+		for (int i = 0; i < 10; i++) {
+			try (OutputStream out = this.compressor.createOutputStream(new ByteArrayOutputStream(),
+					ResponseCompressor.GZIP)) {
+				out.write(1);
+			}
+		}
+
+		assertEquals(1, this.compressor.getPooledDeflaterCount());
+	}
+
+	@Test
+	public void testHeadRequest() {
+		this.acceptEncoding("gzip");
+		when(this.request.getMethod()).thenReturn("HEAD");
+
+		this.compressor.compress(this.request, this.response);
+
+		assertFalse(this.response.getHeaders().containsKey("Content-Encoding"));
+	}
+
+	private void acceptEncoding(String value) {
+		when(this.request.getHeaders()).thenReturn(Collections.singletonMap("Accept-Encoding", value));
+	}
+
+	private String read(InputStream in) throws IOException {
+		return IOUtils.toString(in, StandardCharsets.UTF_8);
+	}
+
+	static byte[] decodeChunked(byte[] chunked) {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		int pos = 0;
+		while (true) {
+			int lineEnd = pos;
+			while (chunked[lineEnd] != '\r') {
+				lineEnd++;
+			}
+			int size = Integer.parseInt(new String(chunked, pos, lineEnd - pos, StandardCharsets.US_ASCII), 16);
+			if (size == 0) {
+				return out.toByteArray();
+			}
+			out.write(chunked, lineEnd + 2, size);
+			pos = lineEnd + 2 + size + 2;
+		}
+	}
+}
@@ -0,0 +1,85 @@
+package io.barhan.http_server.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Properties;
+
+import org.apache.commons.lang.StringUtils;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.barhan.http_server.HttpServerContext;
+import io.barhan.http_server.ServerInfo;
+import io.barhan.http_server.config.HttpServerConfig;
+import io.barhan.http_server.config.ReadableHttpResponse;
+
+public class ResponseHeadEncoderTest {
+	private HttpServerConfig httpServerConfig;
+	private ResponseHeadEncoder encoder;
+	private ReadableHttpResponse response;
+
+	@Before
+	public void before() {
+		this.httpServerConfig = mock(HttpServerConfig.class);
+		ServerInfo serverInfo = mock(ServerInfo.class);
+		when(this.httpServerConfig.getServerInfo()).thenReturn(serverInfo);
+		when(serverInfo.getName()).thenReturn("Test Server");
+		when(this.httpServerConfig.getStatusMessage(200)).thenReturn("OK");
+		when(this.httpServerConfig.getStatusMessage(404)).thenReturn("Not Found");
+		Properties statusProperties = new Properties();
+		statusProperties.setProperty("200", "OK");
+		statusProperties.setProperty("404", "Not Found");
+		HttpServerContext context = mock(HttpServerContext.class);
+		when(context.getSupportedResponseMethods()).thenReturn(statusProperties);
+		when(this.httpServerConfig.getHttpServerContext()).thenReturn(context);
+		this.encoder = new ResponseHeadEncoder(this.httpServerConfig);
+		this.response = new ReadableHttpResponseImpl();
+	}
+
+	private String encode() {
+		int length = this.encoder.encode(this.response);
+		return new String(this.encoder.getBuffer(), 0, length, StandardCharsets.ISO_8859_1);
+	}
+
+	@Test
+	public void testEncode() {
+		this.response.setHeader("Server", "Test Server");
+		this.response.setHeader("Connection", "keep-alive");
+		this.response.setHeader("Content-Length", 17);
+		this.response.setHeader("X-Custom", "value");
+
+		assertEquals("HTTP/1.1 200 OK\r\nServer: Test Server\r\nConnection: keep-alive\r\nContent-Length: 17\r\n"
+				+ "X-Custom: value\r\n\r\n", this.encode());
+	}
+
+	@Test
+	public void testStatusLinesArePrecomputed() {
+		verify(this.httpServerConfig, times(1)).getStatusMessage(404);
+		this.response.setStatus(404);
+
+		assertEquals("HTTP/1.1 404 Not Found\r\n\r\n", this.encode());
+		assertEquals("HTTP/1.1 404 Not Found\r\n\r\n", this.encode());
+		verify(this.httpServerConfig, times(1)).getStatusMessage(404);
+	}
+
+	@Test
+	public void testBufferGrows() {
+		String value = StringUtils.repeat("x", 5000);
+		this.response.setHeader("X-Large", value);
+
+		assertEquals("HTTP/1.1 200 OK\r\nX-Large: " + value + "\r\n\r\n", this.encode());
+		assertSame(this.encoder.getBuffer(), this.encoder.getBuffer());
+	}
+
+	@Test
+	public void testCurrentDateIsShared() {
+		assertSame(HttpDateCache.format(1000), HttpDateCache.format(1999));
+		assertEquals("Thu, 01 Jan 1970 00:00:01 GMT", HttpDateCache.format(1999));
+	}
+}
@@ -0,0 +1,159 @@
+package io.barhan.http_server.impl;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import io.barhan.http_server.HttpServerContext;
+import io.barhan.http_server.StaticFileCacheMetrics;
+
+public class StaticFileCacheTest {
+	private Path root;
+	private HttpServerContext context;
+	private WebRootWatcher watcher;
+	private StaticFileCacheMetrics metrics;
+	private StaticFileCache cache;
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Before
+	public void before() throws IOException {
+		this.root = this.folder.newFolder("root").toPath().toRealPath();
+		this.context = mock(HttpServerContext.class);
+		when(this.context.getContentType("css")).thenReturn("text/css");
+		this.watcher = new WebRootWatcher(this.root);
+		this.metrics = new StaticFileCacheMetrics();
+		this.cache = new StaticFileCache(20, 10, this.watcher, this.metrics);
+	}
+
+	@After
+	public void after() throws IOException {
+		this.watcher.close();
+	}
+
+	private Path createFile(String name, String content) throws IOException {
+		return Files.write(this.root.resolve(name), content.getBytes(StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void testHitAndMiss() throws IOException {
+		Path file = this.createFile("a.css", "body{}");
+
+		StaticFile first = this.cache.get(this.context, file);
+		StaticFile second = this.cache.get(this.context, file);
+
+		assertSame(first, second);
+		assertArrayEquals("body{}".getBytes(StandardCharsets.UTF_8), first.getContent());
+		assertEquals("text/css", first.getContentType());
+		assertEquals(Files.getLastModifiedTime(file), first.getLastModified());
+		assertEquals(1, this.metrics.getHits());
+		assertEquals(1, this.metrics.getMisses());
+		assertEquals(1, this.metrics.getEntries());
+		assertEquals(6, this.metrics.getBytes());
+	}
+
+	@Test
+	public void testGetIfPresentDoesNotLoad() throws IOException {
+		Path file = this.createFile("a.css", "body{}");
+
+		assertNull(this.cache.getIfPresent(file));
+		StaticFile loaded = this.cache.get(this.context, file);
+
+		assertSame(loaded, this.cache.getIfPresent(file));
+		assertEquals(1, this.metrics.getMisses());
+		assertEquals(1, this.metrics.getHits());
+	}
+
+	@Test
+	public void testLargeFileNotCached() throws IOException {
+		Path file = this.createFile("large.css", "01234567890");
+
+		assertNull(this.cache.get(this.context, file));
+		assertEquals(0, this.metrics.getEntries());
+	}
+
+	@Test
+	public void testLargeFileRememberedUntilInvalidated() throws IOException {
+		Path file = this.createFile("large.css", "01234567890");
+
+		assertNull(this.cache.get(this.context, file));
+		assertNull(this.cache.get(this.context, file));
+		assertEquals(1, this.metrics.getMisses());
+
+		this.createFile("large.css", "small");
+		this.cache.invalidate(file);
+
+		assertArrayEquals("small".getBytes(StandardCharsets.UTF_8), this.cache.get(this.context, file).getContent());
+		assertEquals(2, this.metrics.getMisses());
+	}
+
+	@Test
+	public void testEvictLeastRecentlyUsed() throws IOException {
+		Path a = this.createFile("a.css", "aaaaaaaa");
+		Path b = this.createFile("b.css", "bbbbbbbb");
+		Path c = this.createFile("c.css", "cccccccc");
+
+		StaticFile cachedA = this.cache.get(this.context, a);
+		this.cache.get(this.context, b);
+		this.cache.get(this.context, a);
+		this.cache.get(this.context, c);
+
+		assertEquals(1, this.metrics.getEvictions());
+		assertEquals(2, this.metrics.getEntries());
+		assertEquals(16, this.metrics.getBytes());
+		assertSame(cachedA, this.cache.get(this.context, a));
+	}
+
+	@Test
+	public void testInvalidateDirectory() throws IOException {
+		Files.createDirectory(this.root.resolve("dir"));
+		Path file = this.createFile("dir/a.css", "a");
+		this.cache.get(this.context, file);
+
+		this.cache.invalidate(this.root.resolve("dir"));
+
+		assertEquals(0, this.metrics.getEntries());
+		assertEquals(0, this.metrics.getBytes());
+	}
+
+	@Test
+	public void testInvalidateOnFileChange() throws IOException, InterruptedException {
+		Path file = this.createFile("a.css", "old");
+		StaticFile old = this.cache.get(this.context, file);
+
+		this.createFile("a.css", "new");
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+		while (this.metrics.getEntries() > 0 && System.nanoTime() < deadline) {
+			Thread.sleep(20);
+		}
+
+		StaticFile current = this.cache.get(this.context, file);
+		assertNotSame(old, current);
+		assertArrayEquals("new".getBytes(StandardCharsets.UTF_8), current.getContent());
+	}
+
+	@Test
+	public void testDisabled() throws IOException {
+		StaticFileCache disabled = new StaticFileCache(0, 10, this.watcher, this.metrics);
+
+		assertNull(disabled.get(this.context, this.createFile("a.css", "a")));
+		assertEquals(0, this.metrics.getMisses());
+	}
+}
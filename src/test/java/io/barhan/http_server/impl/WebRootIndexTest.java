@@ -0,0 +1,135 @@
+package io.barhan.http_server.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import io.barhan.http_server.HttpServerContext;
+
+public class WebRootIndexTest {
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private Path root;
+	private WebRootWatcher watcher;
+	private WebRootIndex index;
+
+	@Before
+	public void before() throws IOException {
+		this.root = Paths.get(this.folder.newFolder("root").toURI());
+		Files.createDirectories(this.root.resolve("css/fonts"));
+		Files.write(this.root.resolve("index.html"), "<html></html>".getBytes(StandardCharsets.UTF_8));
+		Files.write(this.root.resolve("css/site.css"), "body {}".getBytes(StandardCharsets.UTF_8));
+		HttpServerContext context = mock(HttpServerContext.class);
+		when(context.getContentType("css")).thenReturn("text/css");
+		when(context.getContentType("html")).thenReturn("text/html");
+		this.watcher = new WebRootWatcher(this.root);
+		this.index = new WebRootIndex(this.watcher, context);
+		this.index.start();
+	}
+
+	@After
+	public void after() throws IOException {
+		this.watcher.close();
+	}
+
+	@Test
+	public void testIndex() throws IOException {
+		assertTrue(this.index.isActive());
+		assertEquals(5, this.index.size());
+		WebRootIndex.Entry entry = this.index.get("/css/site.css");
+		assertFalse(entry.isDirectory());
+		assertEquals(this.root.resolve("css/site.css"), entry.getPath());
+		assertEquals("text/css", entry.getFile().getContentType());
+		assertEquals(7, entry.getFile().getLength());
+		assertEquals(Files.getLastModifiedTime(entry.getPath()), entry.getFile().getLastModified());
+		assertTrue(this.index.get("/").isDirectory());
+		assertTrue(this.index.get("/css/fonts").isDirectory());
+	}
+
+	@Test
+	public void testNormalizedLookup() {
+		WebRootIndex.Entry css = this.index.get("/css");
+		assertSame(css, this.index.get("/css/"));
+		assertSame(css, this.index.get("//css/./fonts/.."));
+		assertSame(this.index.get("/index.html"), this.index.get("/css/../index.html"));
+		assertSame(this.index.get("/"), this.index.get("/../.."));
+	}
+
+	@Test
+	public void testMissingPaths() {
+		assertNull(this.index.get("/wp-login.php"));
+		assertNull(this.index.get("/css/missing.css"));
+		assertNull(this.index.get("/../root/index.html"));
+		assertNull(this.index.get("index.html"));
+		assertNull(this.index.get(null));
+		assertFalse(WebRootIndex.needsNormalization("/css/site.css"));
+		assertTrue(WebRootIndex.needsNormalization("/css/../site.css"));
+	}
+
+	@Test
+	public void testRefresh() throws IOException {
+		Path js = Files.createDirectories(this.root.resolve("js"));
+		Files.write(js.resolve("app.js"), "app".getBytes(StandardCharsets.UTF_8));
+		this.index.refresh(js);
+
+		assertTrue(this.index.get("/js").isDirectory());
+		assertEquals(3, this.index.get("/js/app.js").getFile().getLength());
+
+		Files.write(js.resolve("app.js"), "app();".getBytes(StandardCharsets.UTF_8));
+		this.index.refresh(js.resolve("app.js"));
+		assertEquals(6, this.index.get("/js/app.js").getFile().getLength());
+
+		FileUtils.deleteDirectory(this.root.resolve("css").toFile());
+		this.index.refresh(this.root.resolve("css"));
+		assertNull(this.index.get("/css"));
+		assertNull(this.index.get("/css/site.css"));
+		assertNull(this.index.get("/css/fonts"));
+		assertTrue(this.index.get("/index.html") != null);
+	}
+
+	@Test
+	public void testRefreshRootKeepsLiveEntries() throws IOException, InterruptedException {
+		Files.delete(this.root.resolve("css/site.css"));
+		AtomicBoolean missing = new AtomicBoolean();
+		AtomicBoolean running = new AtomicBoolean(true);
+		Thread reader = new Thread(() -> {
+			while (running.get()) {
+				if (this.index.get("/index.html") == null || this.index.get("/css/fonts") == null) {
+					missing.set(true);
+				}
+			}
+		});
+		reader.start();
+		try {
+			for (int i = 0; i < 50; i++) {
+				this.index.refresh(this.root);
+			}
+		} finally {
+			running.set(false);
+			reader.join();
+		}
+
+		assertFalse(missing.get());
+		assertNull(this.index.get("/css/site.css"));
+		assertEquals(4, this.index.size());
+	}
+}
@@ -0,0 +1,81 @@
+package io.barhan.http_server.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.barhan.http_server.WorkerPoolMetrics;
+
+public class WorkerExecutorTest {
+	private WorkerPoolMetrics metrics;
+	private WorkerExecutor workerExecutor;
+	private CountDownLatch release;
+
+	@Before
+	public void before() {
+		this.metrics = new WorkerPoolMetrics();
+		this.workerExecutor = new WorkerExecutor(1, 1, new ThreadFactoryImpl(), this.metrics);
+		this.release = new CountDownLatch(1);
+	}
+
+	@After
+	public void after() {
+		this.release.countDown();
+		this.workerExecutor.shutdownNow();
+	}
+
+	private void block() {
+		try {
+			this.release.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	@Test
+	public void testRejectWhenQueueIsFull() throws InterruptedException {
+		CountDownLatch started = new CountDownLatch(1);
+		this.workerExecutor.execute(() -> {
+			started.countDown();
+			this.block();
+		});
+		started.await();
+		this.workerExecutor.execute(this::block);
+
+		assertTrue(this.workerExecutor.isSaturated());
+		assertEquals(1, this.metrics.getQueueDepth());
+		assertThrows(RejectedExecutionException.class, () -> this.workerExecutor.execute(this::block));
+		assertEquals(1, this.metrics.getRejectedTasks());
+		assertEquals(1, this.metrics.getQueueDepth());
+	}
+
+	@Test
+	public void testAwaitCapacity() throws InterruptedException {
+		CountDownLatch started = new CountDownLatch(1);
+		this.workerExecutor.execute(() -> {
+			started.countDown();
+			this.block();
+		});
+		started.await();
+		this.workerExecutor.execute(() -> {
+		});
+
+		assertFalse(this.workerExecutor.awaitCapacity(10));
+
+		this.release.countDown();
+		assertTrue(this.workerExecutor.awaitCapacity(TimeUnit.SECONDS.toMillis(5)));
+		this.workerExecutor.shutdown();
+		assertTrue(this.workerExecutor.awaitTermination(5, TimeUnit.SECONDS));
+		assertEquals(2, this.metrics.getStartedTasks());
+		assertEquals(0, this.metrics.getQueueDepth());
+	}
+}
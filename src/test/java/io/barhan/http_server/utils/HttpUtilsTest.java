@@ -1,13 +1,12 @@
 package io.barhan.http_server.utils;
 
 import static org.junit.Assert.assertEquals;
-import static org.junit.Assert.assertThrows;
-import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.when;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
-import java.io.EOFException;
-import java.io.IOException;
-import java.io.InputStream;
+import java.util.Collections;
+import java.util.Map;
 
 import org.junit.Test;
 
@@ -34,12 +33,95 @@ public class HttpUtilsTest {
 	}
 
 	@Test
-	public void testEOFException() throws IOException {
-		InputStream in = mock(InputStream.class);
-		when(in.read()).thenReturn(-1);
-		Exception exception = assertThrows(EOFException.class, () -> {
-			HttpUtils.readFirstLineAndHeaders(in);
-		});
-		assertEquals("Input stream closed.", exception.getMessage());
+	public void testParseParams() {
+		Map<String, String> params = HttpUtils.parseParams("name=John+Smith&city=New%20York&flag&empty=&tag=a&tag=b");
+
+		assertEquals("John Smith", params.get("name"));
+		assertEquals("New York", params.get("city"));
+		assertEquals("", params.get("flag"));
+		assertEquals("", params.get("empty"));
+		assertEquals("a,b", params.get("tag"));
+		assertTrue(HttpUtils.parseParams(null).isEmpty());
+		assertTrue(HttpUtils.parseParams("").isEmpty());
+	}
+
+	@Test
+	public void testParseParamsSplitsOnFirstEquals() {
+		assertEquals("x=y", HttpUtils.parseParams("expr=x=y").get("expr"));
+		assertEquals("b=c", HttpUtils.parseParams("a=b=c").get("a"));
+		assertEquals("==", HttpUtils.parseParams("a===").get("a"));
+	}
+
+	@Test
+	public void testParseParamsDecodesNames() {
+		Map<String, String> params = HttpUtils.parseParams("first+name=John&tag%5B%5D=a&tag[]=b&a%26b");
+
+		assertEquals("John", params.get("first name"));
+		assertEquals("a,b", params.get("tag[]"));
+		assertEquals("", params.get("a&b"));
+	}
+
+	@Test
+	public void testParseParamsSkipsEmptySegments() {
+		assertEquals(Collections.singletonMap("a", "1"), HttpUtils.parseParams("a=1&"));
+		Map<String, String> params = HttpUtils.parseParams("a=1&&b=2");
+		assertEquals(2, params.size());
+		assertEquals("1", params.get("a"));
+		assertEquals("2", params.get("b"));
+	}
+
+	@Test
+	public void testIsEncodingAccepted() {
+		assertTrue(HttpUtils.isEncodingAccepted("gzip, deflate, br", "gzip"));
+		assertTrue(HttpUtils.isEncodingAccepted("deflate, GZIP;q=0.5", "gzip"));
+		assertTrue(HttpUtils.isEncodingAccepted("*", "gzip"));
+		assertFalse(HttpUtils.isEncodingAccepted("gzip;q=0, *", "gzip"));
+		assertFalse(HttpUtils.isEncodingAccepted("*;q=0", "gzip"));
+		assertFalse(HttpUtils.isEncodingAccepted("deflate", "gzip"));
+		assertFalse(HttpUtils.isEncodingAccepted(null, "gzip"));
+	}
+
+	@Test
+	public void testIsCompressible() {
+		assertTrue(HttpUtils.isCompressible("text/html"));
+		assertTrue(HttpUtils.isCompressible("text/css; charset=UTF-8"));
+		assertTrue(HttpUtils.isCompressible("application/javascript"));
+		assertTrue(HttpUtils.isCompressible("image/svg+xml"));
+		assertFalse(HttpUtils.isCompressible("image/png"));
+		assertFalse(HttpUtils.isCompressible("application/zip"));
+		assertFalse(HttpUtils.isCompressible(null));
+	}
+
+	@Test
+	public void testIsETagMatched() {
+		assertTrue(HttpUtils.isETagMatched("\"a-1\"", "\"a-1\""));
+		assertTrue(HttpUtils.isETagMatched("\"b-2\", W/\"a-1\"", "\"a-1\""));
+		assertTrue(HttpUtils.isETagMatched("\"a-1\"", "W/\"a-1\""));
+		assertTrue(HttpUtils.isETagMatched("*", "\"a-1\""));
+		assertFalse(HttpUtils.isETagMatched("\"a-2\"", "\"a-1\""));
+		assertFalse(HttpUtils.isETagMatched(null, "\"a-1\""));
+	}
+
+	@Test
+	public void testParseHttpDate() {
+		assertEquals(784111777000L, HttpUtils.parseHttpDate("Sun, 06 Nov 1994 08:49:37 GMT"));
+		assertEquals(784111777000L, HttpUtils.parseHttpDate("Sun, 06 Nov 1994 10:49:37 +0200"));
+		assertEquals(-1, HttpUtils.parseHttpDate("yesterday"));
+		assertEquals(-1, HttpUtils.parseHttpDate(null));
+	}
+
+	@Test
+	public void testNormalizedHeaderNameIsReused() {
+		String name = "Content-Type";
+
+		assertSame(name, HttpUtils.normalizeHeaderName(name));
+		assertEquals("Content--type", HttpUtils.normalizeHeaderName("Content--Type"));
+		assertEquals("A-", HttpUtils.normalizeHeaderName("A- "));
+	}
+
+	@Test
+	public void testFormatHttpDate() {
+		assertEquals("Sun, 06 Nov 1994 08:49:37 GMT", HttpUtils.formatHttpDate(784111777000L));
+		assertEquals(784111777000L, HttpUtils.parseHttpDate(HttpUtils.formatHttpDate(784111777000L)));
 	}
 }